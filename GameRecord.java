@@ -0,0 +1,111 @@
+import java.util.Arrays;
+
+/***
+ The result of one played hangman game, as written out by
+ GameRecordWriter
+***/
+
+public class GameRecord
+{
+	private final String secret;
+	private final int score;
+	private final int numGuesses;
+	private final int numWrongGuesses;
+	private final long nextGuessNanos;
+	private final int[] candidateSizes;
+
+	/**
+	 * Constructor.
+	 * @param String the word that was guessed
+	 * @param int final game score
+	 * @param int number of letter and word guesses made
+	 * @param int number of wrong letter and word guesses made
+	 * @param long time spent deciding guesses, in nanoseconds
+	 * @param int[] number of possible words before each guess,
+	 * 				-1 where the strategy doesn't track them
+	 */
+	public GameRecord(String secret, int score, int numGuesses,
+		int numWrongGuesses, long nextGuessNanos, int[] candidateSizes)
+	{
+		if(secret == null || candidateSizes == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		this.secret = secret.toUpperCase();
+		this.score = score;
+		this.numGuesses = numGuesses;
+		this.numWrongGuesses = numWrongGuesses;
+		this.nextGuessNanos = nextGuessNanos;
+		this.candidateSizes = candidateSizes.clone();
+	}
+
+	/**
+	 * @return The word that was guessed, in uppercase
+	 */
+	public String getSecret()
+	{
+		return secret;
+	}
+
+	/**
+	 * @return The length of the word that was guessed
+	 */
+	public int getLength()
+	{
+		return secret.length();
+	}
+
+	/**
+	 * @return The final game score
+	 */
+	public int getScore()
+	{
+		return score;
+	}
+
+	/**
+	 * @return The number of letter and word guesses made
+	 */
+	public int getNumGuesses()
+	{
+		return numGuesses;
+	}
+
+	/**
+	 * @return The number of wrong letter and word guesses made
+	 */
+	public int getNumWrongGuesses()
+	{
+		return numWrongGuesses;
+	}
+
+	/**
+	 * @return The time spent deciding guesses, in nanoseconds
+	 */
+	public long getNextGuessNanos()
+	{
+		return nextGuessNanos;
+	}
+
+	/**
+	 * @return The number of possible words before each guess
+	 */
+	public int[] getCandidateSizes()
+	{
+		return candidateSizes.clone();
+	}
+
+	/**
+	 * override of object toString() for GameRecord
+	 * @return GameRecord msg
+	 */
+	public String toString()
+	{
+		return "GameRecord[" + secret + ", score=" + score + ", guesses="
+			+ numGuesses + ", wrong=" + numWrongGuesses + ", ns="
+			+ nextGuessNanos + ", sizes=" + Arrays.toString(candidateSizes)
+			+ "]";
+	}
+}
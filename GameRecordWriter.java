@@ -0,0 +1,331 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/***
+ Streams GameRecords to a file through a buffered FileChannel, one
+ record per game, either as CSV or in a compact binary format.
+
+ CSV has a header line and one line per game, the candidate sizes
+ being separated by semicolons:
+
+	secret,length,score,guesses,wrong_guesses,next_guess_ns,candidate_sizes
+
+ Binary starts with the big endian int MAGIC followed by one record
+ per game, read back by read().  Varints are unsigned LEB128, 7 bits
+ per byte low bits first, the high bit set on all but the last byte:
+
+	byte		secret length n
+	n bytes		secret (UTF-8)
+	short		score (big endian, signed, -1 if unfinished)
+	byte		guesses
+	byte		wrong guesses
+	varint		next guess ns
+	byte		number of candidate sizes m
+	m varints	candidate sizes plus one (0 where not tracked)
+***/
+
+public class GameRecordWriter
+{
+	/**
+	 * An enum for the supported output formats
+	 */
+	public enum Format {CSV, BINARY}
+
+	//Marks the start of a binary results file ("HGR2", the score
+	//having been a byte in "HGR1")
+	public static final int MAGIC = 0x48475232;
+
+	private static final String CSV_HEADER = "secret,length,score,guesses,"
+		+ "wrong_guesses,next_guess_ns,candidate_sizes\n";
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int MAX_VARINT_INT = 5;
+	private static final int MAX_VARINT_LONG = 10;
+
+	private final Format format;
+
+	private FileChannel channel;
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	//Reused to build each CSV line
+	private final StringBuilder line = new StringBuilder();
+
+	private long numRecords = 0;
+
+
+	/**
+	 * Constructor.  Creates or truncates the file.
+	 * @param File to write the records to
+	 * @param Format of the records
+	 */
+	public GameRecordWriter(File file, Format format) throws IOException
+	{
+		if(file == null || format == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		this.format = format;
+		this.channel = new FileOutputStream(file).getChannel();
+
+		if(format == Format.CSV)
+		{
+			put(CSV_HEADER.getBytes(UTF8));
+		}
+		else
+		{
+			buffer.putInt(MAGIC);
+		}
+	}
+
+	/**
+	 * Write the record of one game
+	 */
+	public void write(GameRecord record) throws IOException
+	{
+		if(record == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		if(channel == null)
+		{
+			throw new IllegalStateException("Writer is already closed");
+		}
+
+		if(format == Format.CSV)
+		{
+			writeCsv(record);
+		}
+		else
+		{
+			writeBinary(record);
+		}
+
+		numRecords++;
+	}
+
+	/**
+	 * Read back the records of a binary results file
+	 * @return The records, in the order written
+	 */
+	public static List<GameRecord> read(File path) throws IOException
+	{
+		if(path == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		List<GameRecord> records = new ArrayList<GameRecord>();
+
+		RandomAccessFile file = new RandomAccessFile(path, "r");
+
+		try
+		{
+			FileChannel channel = file.getChannel();
+
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+				channel.size());
+
+			if(buffer.remaining() < 4 || buffer.getInt() != MAGIC)
+			{
+				throw new IOException("[Not a binary results file " + path 
+					+ "]");
+			}
+
+			while(buffer.hasRemaining())
+			{
+				records.add(GameRecordWriter.readBinary(buffer));
+			}
+		}
+		catch(BufferUnderflowException e)
+		{
+			throw new IOException("[Corrupt binary results file " + path 
+				+ "]");
+		}
+		finally
+		{
+			file.close();
+		}
+
+		return records;
+	}
+
+	/**
+	 * @return The number of records written so far
+	 */
+	public long getNumRecords()
+	{
+		return numRecords;
+	}
+
+	/**
+	 * Flush the buffered records and close the file
+	 */
+	public void close() throws IOException
+	{
+		if(channel != null)
+		{
+			try
+			{
+				flush();
+			}
+			finally
+			{
+				channel.close();
+				channel = null;
+			}
+		}
+	}
+
+	private void writeCsv(GameRecord record) throws IOException
+	{
+		line.setLength(0);
+
+		line.append(record.getSecret()).append(',')
+			.append(record.getLength()).append(',')
+			.append(record.getScore()).append(',')
+			.append(record.getNumGuesses()).append(',')
+			.append(record.getNumWrongGuesses()).append(',')
+			.append(record.getNextGuessNanos()).append(',');
+
+		int[] sizes = record.getCandidateSizes();
+
+		for(int i=0; i<sizes.length; i++)
+		{
+			if(i > 0) line.append(';');
+			line.append(sizes[i]);
+		}
+
+		line.append('\n');
+
+		put(line.toString().getBytes(UTF8));
+	}
+
+	private void writeBinary(GameRecord record) throws IOException
+	{
+		byte[] secret = record.getSecret().getBytes(UTF8);
+		int[] sizes = record.getCandidateSizes();
+
+		if(secret.length > 255 || sizes.length > 255
+			|| record.getNumGuesses() > 255 
+			|| record.getNumWrongGuesses() > 255
+			|| record.getScore() < Short.MIN_VALUE 
+			|| record.getScore() > Short.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Record too large for the "
+				+ "binary format: " + record);
+		}
+
+		//Longest possible encoding of the record
+		int length = 1 + secret.length + 4 + MAX_VARINT_LONG + 1
+			+ MAX_VARINT_INT * sizes.length;
+
+		if(buffer.remaining() < length) flush();
+
+		buffer.put((byte) secret.length);
+		buffer.put(secret);
+		buffer.putShort((short) record.getScore());
+		buffer.put((byte) record.getNumGuesses());
+		buffer.put((byte) record.getNumWrongGuesses());
+		putVarint(record.getNextGuessNanos());
+		buffer.put((byte) sizes.length);
+
+		for(int size: sizes)
+		{
+			putVarint(size + 1);
+		}
+	}
+
+	private static GameRecord readBinary(ByteBuffer buffer)
+	{
+		byte[] secret = new byte[buffer.get() & 0xFF];
+		buffer.get(secret);
+
+		int score = buffer.getShort();
+		int numGuesses = buffer.get() & 0xFF;
+		int numWrongGuesses = buffer.get() & 0xFF;
+		long nextGuessNanos = getVarint(buffer);
+
+		int[] sizes = new int[buffer.get() & 0xFF];
+
+		for(int i=0; i<sizes.length; i++)
+		{
+			sizes[i] = (int) getVarint(buffer) - 1;
+		}
+
+		return new GameRecord(new String(secret, UTF8), score, numGuesses,
+			numWrongGuesses, nextGuessNanos, sizes);
+	}
+
+	private void putVarint(long value)
+	{
+		while((value & ~0x7FL) != 0)
+		{
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		buffer.put((byte) value);
+	}
+
+	private static long getVarint(ByteBuffer buffer)
+	{
+		long value = 0;
+		int shift = 0;
+
+		while(true)
+		{
+			byte b = buffer.get();
+
+			value |= (long) (b & 0x7F) << shift;
+
+			if((b & 0x80) == 0) return value;
+
+			shift += 7;
+		}
+	}
+
+	//Buffer the bytes, flushing to the channel whenever full
+	private void put(byte[] bytes) throws IOException
+	{
+		int offset = 0;
+
+		while(offset < bytes.length)
+		{
+			if(!buffer.hasRemaining()) flush();
+
+			int count = Math.min(buffer.remaining(), bytes.length - offset);
+
+			buffer.put(bytes, offset, count);
+			offset += count;
+		}
+	}
+
+	private void flush() throws IOException
+	{
+		buffer.flip();
+
+		while(buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+
+		buffer.clear();
+	}
+}
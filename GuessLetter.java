@@ -8,6 +8,13 @@ public class GuessLetter implements Guess {
     this.guess = guess;
   }
 
+  /**
+   * @return The letter being guessed
+   */
+  public char getLetter() {
+    return guess;
+  }
+
   @Override
   public void makeGuess(HangmanGame game) {
     game.guessLetter(guess);
@@ -0,0 +1,277 @@
+import java.util.Arrays;
+
+/***
+ The guess by guess trace of one played hangman game: every guess
+ made, whether it was right, the number of possible words the
+ strategy had before it and the time taken to decide it.
+
+ Recorded by PlayHangman.run with the -trace option, kept in a
+ GuessTraceFile and re-driven against a strategy by HangmanReplay.
+***/
+
+public class GuessTrace
+{
+	private final String secret;
+	private final int maxWrongGuesses;
+	private int score = -1;
+	private boolean truncated = false;
+
+	//Per guess state, the word is null for letter guesses
+	private int numGuesses = 0;
+	private char[] letters = new char[8];
+	private String[] words = new String[8];
+	private boolean[] hits = new boolean[8];
+	private int[] candidates = new int[8];
+	private long[] nanos = new long[8];
+
+	/**
+	 * Constructor.
+	 * @param String the word being guessed
+	 * @param int maximum number of wrong guesses of the game
+	 */
+	public GuessTrace(String secret, int maxWrongGuesses)
+	{
+		if(secret == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		this.secret = secret.toUpperCase();
+		this.maxWrongGuesses = maxWrongGuesses;
+	}
+
+	/**
+	 * Record a letter or word guess
+	 * @param Guess made, a GuessLetter or GuessWord
+	 * @param boolean whether the guess was right
+	 * @param int number of possible words before the guess, -1 if unknown
+	 * @param long time taken to decide the guess, in nanoseconds
+	 */
+	public void add(Guess guess, boolean hit, int candidates, long nanos)
+	{
+		if(guess instanceof GuessLetter)
+		{
+			add(((GuessLetter) guess).getLetter(), null, hit, candidates,
+				nanos);
+		}
+		else if(guess instanceof GuessWord)
+		{
+			add('\0', ((GuessWord) guess).getWord(), hit, candidates, nanos);
+		}
+		else
+		{
+			throw new IllegalArgumentException("Can't trace guess " + guess);
+		}
+	}
+
+	/**
+	 * Record a guess, the word being null for a letter guess
+	 */
+	void add(char letter, String word, boolean hit, int candidates,
+		long nanos)
+	{
+		if(numGuesses == letters.length)
+		{
+			int length = 2 * numGuesses;
+
+			this.letters = Arrays.copyOf(this.letters, length);
+			this.words = Arrays.copyOf(this.words, length);
+			this.hits = Arrays.copyOf(this.hits, length);
+			this.candidates = Arrays.copyOf(this.candidates, length);
+			this.nanos = Arrays.copyOf(this.nanos, length);
+		}
+
+		this.letters[numGuesses] = Character.toUpperCase(letter);
+		this.words[numGuesses] = (word == null) ? null : word.toUpperCase();
+		this.hits[numGuesses] = hit;
+		this.candidates[numGuesses] = candidates;
+		this.nanos[numGuesses] = nanos;
+
+		numGuesses++;
+	}
+
+	/**
+	 * @return Whether the guess matches the recorded guess at the index
+	 */
+	public boolean matches(int index, Guess guess)
+	{
+		if(guess instanceof GuessLetter)
+		{
+			return false == isWord(index) && getLetter(index)
+				== Character.toUpperCase(((GuessLetter) guess).getLetter());
+		}
+		else if(guess instanceof GuessWord)
+		{
+			return true == isWord(index) && getWord(index)
+				.equalsIgnoreCase(((GuessWord) guess).getWord());
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return The recorded guess at the index
+	 */
+	public Guess getGuess(int index)
+	{
+		if(true == isWord(index))
+		{
+			return new GuessWord(getWord(index));
+		}
+
+		return new GuessLetter(getLetter(index));
+	}
+
+	/**
+	 * @return The word being guessed, in uppercase
+	 */
+	public String getSecret()
+	{
+		return secret;
+	}
+
+	/**
+	 * @return The maximum number of wrong guesses of the game
+	 */
+	public int getMaxWrongGuesses()
+	{
+		return maxWrongGuesses;
+	}
+
+	/**
+	 * @return The final game score, -1 if the game didn't finish
+	 */
+	public int getScore()
+	{
+		return score;
+	}
+
+	/**
+	 * Set the final game score
+	 */
+	public void setScore(int score)
+	{
+		this.score = score;
+	}
+
+	/**
+	 * @return Whether guesses were left out for lack of space
+	 */
+	public boolean isTruncated()
+	{
+		return truncated;
+	}
+
+	void setTruncated(boolean truncated)
+	{
+		this.truncated = truncated;
+	}
+
+	/**
+	 * @return The number of guesses recorded
+	 */
+	public int getNumGuesses()
+	{
+		return numGuesses;
+	}
+
+	/**
+	 * @return Whether the guess at the index is a word guess
+	 */
+	public boolean isWord(int index)
+	{
+		return words[check(index)] != null;
+	}
+
+	/**
+	 * @return The letter guessed at the index, in uppercase
+	 */
+	public char getLetter(int index)
+	{
+		return letters[check(index)];
+	}
+
+	/**
+	 * @return The word guessed at the index in uppercase,
+	 * null for a letter guess
+	 */
+	public String getWord(int index)
+	{
+		return words[check(index)];
+	}
+
+	/**
+	 * @return Whether the guess at the index was right
+	 */
+	public boolean isHit(int index)
+	{
+		return hits[check(index)];
+	}
+
+	/**
+	 * @return The number of possible words before the guess at the
+	 * index, -1 if the strategy doesn't track them
+	 */
+	public int getCandidates(int index)
+	{
+		return candidates[check(index)];
+	}
+
+	/**
+	 * @return The time taken to decide the guess at the index,
+	 * in nanoseconds
+	 */
+	public long getNanos(int index)
+	{
+		return nanos[check(index)];
+	}
+
+	/**
+	 * @return The time taken to decide all the guesses, in nanoseconds
+	 */
+	public long getTotalNanos()
+	{
+		long total = 0;
+
+		for(int i=0; i<numGuesses; i++)
+		{
+			total += nanos[i];
+		}
+
+		return total;
+	}
+
+	/**
+	 * override of object toString() for GuessTrace
+	 * @return GuessTrace msg
+	 */
+	public String toString()
+	{
+		StringBuilder msg = new StringBuilder();
+
+		msg.append("GuessTrace[").append(secret).append(", score=")
+			.append(score);
+
+		for(int i=0; i<numGuesses; i++)
+		{
+			msg.append(", ").append(isWord(i) ? words[i] : "" + letters[i])
+				.append(hits[i] ? "+" : "-").append(candidates[i]);
+		}
+
+		if(truncated) msg.append(", ...");
+
+		return msg.append("]").toString();
+	}
+
+	private int check(int index)
+	{
+		if(index < 0 || index >= numGuesses)
+		{
+			throw new IndexOutOfBoundsException("No guess " + index
+				+ " in trace of " + secret);
+		}
+
+		return index;
+	}
+}
@@ -0,0 +1,376 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/***
+ Ring buffered file of GuessTraces, one fixed size slot per game.
+ Once every slot is used the oldest game is overwritten, so the file
+ keeps the last games played at a fixed size however long the run.
+ The file is memory mapped, recording a game is a copy into the map.
+
+ The header is followed by the slots, all numbers big endian:
+
+	int		MAGIC
+	int		slot size
+	int		number of slots
+	long	number of games written (slot of the next game is
+			this modulo the number of slots)
+
+ Each slot holds a short payload length, 0 for an unused slot, then
+ the payload.  Varints are unsigned LEB128 as in GameRecordWriter:
+
+	byte		secret length n
+	n bytes		secret (UTF-8)
+	byte		max wrong guesses
+	byte		score (255 if the game didn't finish)
+	byte		1 if guesses were left out for lack of space
+	byte		number of guesses m
+	m times:
+	  byte		bit 0 set for a word guess, bit 1 for a right guess
+	  varint	letter, or byte word length k followed by k bytes of
+			word (UTF-8)
+	  varint	possible words before the guess plus one (0 if unknown)
+	  varint	time to decide the guess in ns
+***/
+
+public class GuessTraceFile
+{
+	//Marks the start of a trace file ("HGT1")
+	public static final int MAGIC = 0x48475431;
+
+	//Number of games kept unless told otherwise
+	public static final int DEFAULT_SLOTS = 4096;
+
+	private static final int SLOT_SIZE = 1024;
+
+	private static final int HEADER_SIZE = 20;
+	private static final int GAMES_OFFSET = 12;
+
+	private static final int WORD_FLAG = 1;
+	private static final int HIT_FLAG = 2;
+
+	private static final int MAX_VARINT_INT = 5;
+	private static final int MAX_VARINT_LONG = 10;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final RandomAccessFile file;
+	private final MappedByteBuffer map;
+	private final int numSlots;
+
+	//Payload of the game being recorded, copied into its slot
+	private final ByteBuffer payload = ByteBuffer.allocate(SLOT_SIZE - 2);
+
+	private long numGames = 0;
+
+
+	/**
+	 * Constructor.  Creates or truncates the file.
+	 * @param File to keep the traces in
+	 * @param int number of games kept
+	 */
+	public GuessTraceFile(File path, int numSlots) throws IOException
+	{
+		if(path == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		if(numSlots <= 0)
+		{
+			throw new IllegalArgumentException("Number of trace slots must "
+				+ "be positive: " + numSlots);
+		}
+
+		//A single mapping can't be larger than Integer.MAX_VALUE bytes
+		if(numSlots > (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE)
+		{
+			throw new IllegalArgumentException("Too many trace slots for "
+				+ "one file: " + numSlots + ", at most " 
+				+ (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE);
+		}
+
+		this.numSlots = numSlots;
+		this.file = new RandomAccessFile(path, "rw");
+
+		try
+		{
+			long size = HEADER_SIZE + (long) SLOT_SIZE * numSlots;
+
+			file.setLength(0);
+			file.setLength(size);
+
+			this.map = file.getChannel().map(FileChannel.MapMode.READ_WRITE,
+				0, size);
+		}
+		catch(IOException ioe)
+		{
+			file.close();
+			throw ioe;
+		}
+
+		map.putInt(0, MAGIC);
+		map.putInt(4, SLOT_SIZE);
+		map.putInt(8, numSlots);
+		map.putLong(GAMES_OFFSET, 0);
+	}
+
+	/**
+	 * Record the trace of one game, overwriting the oldest
+	 * game once the file is full
+	 */
+	public void write(GuessTrace trace)
+	{
+		if(trace == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		byte[] secret = trace.getSecret().getBytes(UTF8);
+
+		if(secret.length > 255)
+		{
+			throw new IllegalArgumentException("Secret too long to trace: "
+				+ trace.getSecret());
+		}
+
+		payload.clear();
+
+		payload.put((byte) secret.length);
+		payload.put(secret);
+		payload.put((byte) trace.getMaxWrongGuesses());
+		payload.put((byte) trace.getScore());
+
+		int truncatedAt = payload.position();
+		payload.put((byte) 0);
+
+		int countAt = payload.position();
+		payload.put((byte) 0);
+
+		int count = 0;
+
+		for(int i=0; i<trace.getNumGuesses(); i++)
+		{
+			byte[] word = true == trace.isWord(i)
+				? trace.getWord(i).getBytes(UTF8) : null;
+
+			//Longest possible encoding of the guess
+			int length = 1 + (word == null ? MAX_VARINT_INT : 1 + word.length)
+				+ MAX_VARINT_INT + MAX_VARINT_LONG;
+
+			if(payload.remaining() < length || count == 255
+				|| (word != null && word.length > 255))
+			{
+				payload.put(truncatedAt, (byte) 1);
+				break;
+			}
+
+			int flags = trace.isHit(i) ? HIT_FLAG : 0;
+
+			if(word != null)
+			{
+				payload.put((byte) (flags | WORD_FLAG));
+				payload.put((byte) word.length);
+				payload.put(word);
+			}
+			else
+			{
+				payload.put((byte) flags);
+				putVarint(trace.getLetter(i));
+			}
+
+			putVarint(trace.getCandidates(i) + 1);
+			putVarint(trace.getNanos(i));
+
+			count++;
+		}
+
+		payload.put(countAt, (byte) count);
+		payload.flip();
+
+		int slot = (int) (numGames % numSlots);
+
+		map.position(HEADER_SIZE + slot * SLOT_SIZE);
+		map.putShort((short) payload.remaining());
+		map.put(payload);
+
+		numGames++;
+		map.putLong(GAMES_OFFSET, numGames);
+	}
+
+	/**
+	 * @return The number of games written so far
+	 */
+	public long getNumGames()
+	{
+		return numGames;
+	}
+
+	/**
+	 * @return The number of games the file keeps
+	 */
+	public int getNumSlots()
+	{
+		return numSlots;
+	}
+
+	/**
+	 * Flush the traces to disk and close the file
+	 */
+	public void close() throws IOException
+	{
+		try
+		{
+			map.force();
+		}
+		finally
+		{
+			file.close();
+		}
+	}
+
+	/**
+	 * Read back the games kept in a trace file
+	 * @return The traces, oldest game first
+	 */
+	public static List<GuessTrace> read(File path) throws IOException
+	{
+		if(path == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		List<GuessTrace> traces = new ArrayList<GuessTrace>();
+
+		RandomAccessFile file = new RandomAccessFile(path, "r");
+
+		try
+		{
+			FileChannel channel = file.getChannel();
+
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+				channel.size());
+
+			if(buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			{
+				throw new IOException("[Not a guess trace file " + path + "]");
+			}
+
+			int slotSize = buffer.getInt(4);
+			int numSlots = buffer.getInt(8);
+			long numGames = buffer.getLong(GAMES_OFFSET);
+
+			if(slotSize <= 2 || numSlots <= 0 || buffer.remaining()
+				< HEADER_SIZE + (long) slotSize * numSlots)
+			{
+				throw new IOException("[Corrupt guess trace file " + path
+					+ "]");
+			}
+
+			long first = Math.max(0, numGames - numSlots);
+
+			for(long game=first; game<numGames; game++)
+			{
+				int slot = (int) (game % numSlots);
+
+				buffer.position(HEADER_SIZE + slot * slotSize);
+
+				int length = buffer.getShort() & 0xFFFF;
+
+				if(length == 0) continue;
+
+				ByteBuffer slotPayload = buffer.slice();
+				slotPayload.limit(length);
+
+				traces.add(GuessTraceFile.readTrace(slotPayload));
+			}
+		}
+		finally
+		{
+			file.close();
+		}
+
+		return traces;
+	}
+
+	private static GuessTrace readTrace(ByteBuffer buffer)
+	{
+		byte[] secret = new byte[buffer.get() & 0xFF];
+		buffer.get(secret);
+
+		int maxWrongGuesses = buffer.get() & 0xFF;
+		int score = buffer.get() & 0xFF;
+
+		GuessTrace trace = new GuessTrace(new String(secret, UTF8),
+			maxWrongGuesses);
+
+		trace.setScore(score == 255 ? -1 : score);
+		trace.setTruncated(buffer.get() != 0);
+
+		int count = buffer.get() & 0xFF;
+
+		for(int i=0; i<count; i++)
+		{
+			int flags = buffer.get();
+
+			char letter = '\0';
+			String word = null;
+
+			if((flags & WORD_FLAG) != 0)
+			{
+				byte[] bytes = new byte[buffer.get() & 0xFF];
+				buffer.get(bytes);
+				word = new String(bytes, UTF8);
+			}
+			else
+			{
+				letter = (char) getVarint(buffer);
+			}
+
+			int candidates = (int) getVarint(buffer) - 1;
+			long nanos = getVarint(buffer);
+
+			trace.add(letter, word, (flags & HIT_FLAG) != 0, candidates,
+				nanos);
+		}
+
+		return trace;
+	}
+
+	private void putVarint(long value)
+	{
+		while((value & ~0x7FL) != 0)
+		{
+			payload.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		payload.put((byte) value);
+	}
+
+	private static long getVarint(ByteBuffer buffer)
+	{
+		long value = 0;
+		int shift = 0;
+
+		while(true)
+		{
+			byte b = buffer.get();
+
+			value |= (long) (b & 0x7F) << shift;
+
+			if((b & 0x80) == 0) return value;
+
+			shift += 7;
+		}
+	}
+}
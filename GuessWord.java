@@ -8,6 +8,13 @@ public class GuessWord implements Guess {
     this.guess = guess;
   }
 
+  /**
+   * @return The word being guessed
+   */
+  public String getWord() {
+    return guess;
+  }
+
   @Override
   public void makeGuess(HangmanGame game) {
     game.guessWord(guess);
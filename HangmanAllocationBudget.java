@@ -0,0 +1,337 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/***
+ Allocation budget gate for the hot path of a game.
+
+ Plays a few words of every length of a words file and measures, with
+ the per thread allocation counter of com.sun.management.ThreadMXBean,
+ the bytes allocated by each HangmanStrategy initialization (creating
+ the strategy for a game), each nextGuess and each letter guess, played
+ int encoded as PlayHangman plays them (HangmanStrategy.nextGuessCode
+ and HangmanGame.applyLetter).  The words are played once to load the
+ dictionary indices and warm up the JIT, then again to measure.
+
+ Reports the average and most bytes per call, overall and per word
+ length.  Given a budget file in java.util.Properties format, mapping
+ init, nextGuess and guessLetter to the most bytes per call allowed on
+ average, flags every one over budget.
+ Implemented exclusively through static class methods.
+***/
+
+public class HangmanAllocationBudget
+{
+	//Words of each length played
+	static final int WORDS_PER_LENGTH = 5;
+
+	//Names of the measured calls, as used in a budget file
+	static final String[] CALL_NAMES = new String[]{
+		"init", "nextGuess", "guessLetter"};
+
+	private static final int INIT = 0;
+	private static final int NEXT_GUESS = 1;
+	private static final int GUESS_LETTER = 2;
+
+	/*
+		Bytes allocated by the calls of one kind
+	*/
+	private static class Tally
+	{
+		private long calls = 0;
+		private long bytes = 0;
+		private long max = 0;
+
+		private void add(long allocated)
+		{
+			calls++;
+			bytes += allocated;
+			max = Math.max(max, allocated);
+		}
+
+		private double average()
+		{
+			return calls == 0 ? 0 : bytes / (double) calls;
+		}
+	}
+
+
+	/**
+	 * Measure the allocations of the words and compare them against
+	 * the budgets.
+	 * @param File words to pick the words of each length from
+	 * @param File budget file, null to only report
+	 * @return false if any call is over budget
+	 */
+	public static boolean run(File words, File budget) throws Exception
+	{
+		if(words == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		long[] budgets = HangmanAllocationBudget.loadBudgets(budget);
+
+		if(HangmanTournament.allocatedBytes(
+			Thread.currentThread().getId()) < 0)
+		{
+			throw new IllegalStateException("This JVM can't count the "
+				+ "bytes allocated by a thread");
+		}
+
+		RunContext context = HangmanUtil.getContext();
+
+		context.prepareStumpers();
+
+		List<String> secrets = HangmanAllocationBudget.pickWords(words);
+
+		//Warm up, then measure
+		HangmanAllocationBudget.play(context, secrets, null);
+
+		Map<Integer, Tally[]> tallies = new TreeMap<Integer, Tally[]>();
+
+		HangmanAllocationBudget.play(context, secrets, tallies);
+
+		Tally[] totals = HangmanAllocationBudget.newTallies();
+
+		System.out.println(String.format("%-8s %8s %14s %14s %14s",
+			"length", "games", "init", "nextGuess", "guessLetter"));
+
+		for(Integer length: tallies.keySet())
+		{
+			Tally[] tally = tallies.get(length);
+
+			System.out.println(String.format("%-8d %8d %14.1f %14.1f %14.1f",
+				length, tally[INIT].calls, tally[INIT].average(),
+				tally[NEXT_GUESS].average(), tally[GUESS_LETTER].average()));
+
+			for(int i=0; i<CALL_NAMES.length; i++)
+			{
+				totals[i].calls += tally[i].calls;
+				totals[i].bytes += tally[i].bytes;
+				totals[i].max = Math.max(totals[i].max, tally[i].max);
+			}
+		}
+
+		int overBudget = 0;
+
+		for(int i=0; i<CALL_NAMES.length; i++)
+		{
+			String verdict = "";
+
+			if(budgets[i] >= 0)
+			{
+				boolean over = totals[i].average() > budgets[i];
+
+				verdict = ", budget " + budgets[i]
+					+ (over ? " OVER BUDGET" : " ok");
+
+				if(over) overBudget++;
+			}
+
+			System.out.println("[ALLOC] " + CALL_NAMES[i] + ": "
+				+ totals[i].calls + " calls, " + totals[i].average()
+				+ " bytes average, " + totals[i].max + " bytes most"
+				+ verdict);
+		}
+
+		if(budget != null)
+		{
+			System.out.println("[ALLOC] " + overBudget + " of "
+				+ CALL_NAMES.length + " calls over budget against " + budget);
+		}
+
+		return overBudget == 0;
+	}
+
+	/**
+	 * Play the words, counting the bytes allocated by each call into
+	 * the tallies of the word length, unless they are null
+	 */
+	private static void play(RunContext context, List<String> secrets,
+		Map<Integer, Tally[]> tallies) throws Exception
+	{
+		long thread = Thread.currentThread().getId();
+
+		//Bytes the counter reports between two back to back reads
+		long before = HangmanTournament.allocatedBytes(thread);
+		long overhead = HangmanTournament.allocatedBytes(thread) - before;
+
+		for(String secret: secrets)
+		{
+			Tally[] tally = null;
+
+			if(null != tallies)
+			{
+				tally = tallies.get(secret.length());
+
+				if(tally == null)
+				{
+					tally = HangmanAllocationBudget.newTallies();
+					tallies.put(secret.length(), tally);
+				}
+			}
+
+			HangmanGame game = new HangmanGame(secret,
+				PlayHangman.MAX_WRONG_GUESSES);
+
+			before = HangmanTournament.allocatedBytes(thread);
+
+			HangmanStrategy strategy = new HangmanStrategy(game, context);
+
+			long after = HangmanTournament.allocatedBytes(thread);
+
+			if(null != tally) tally[INIT].add(after - before - overhead);
+
+			int numGuesses = 0;
+
+			while(game.gameStatus() == HangmanGame.Status.KEEP_GUESSING
+				&& numGuesses < HangmanTournament.MAX_GUESSES)
+			{
+				before = HangmanTournament.allocatedBytes(thread);
+
+				int code = strategy.nextGuessCode(game);
+
+				after = HangmanTournament.allocatedBytes(thread);
+
+				if(null != tally)
+				{
+					tally[NEXT_GUESS].add(after - before - overhead);
+				}
+
+				if(code == HangmanStrategy.NO_GUESS) break;
+
+				boolean isWord = code == HangmanStrategy.GUESS_WORD;
+
+				before = HangmanTournament.allocatedBytes(thread);
+
+				if(true == isWord)
+				{
+					game.applyWord(strategy.getWordGuess());
+				}
+				else
+				{
+					game.applyLetter((char) code);
+				}
+
+				after = HangmanTournament.allocatedBytes(thread);
+
+				if(null != tally && false == isWord)
+				{
+					tally[GUESS_LETTER].add(after - before - overhead);
+				}
+
+				numGuesses++;
+			}
+
+			strategy.end();
+		}
+	}
+
+	/**
+	 * @return The first WORDS_PER_LENGTH words of each length of the
+	 * words file
+	 */
+	private static List<String> pickWords(File words) throws IOException
+	{
+		Map<Integer, Integer> picked = new TreeMap<Integer, Integer>();
+
+		List<String> secrets = new ArrayList<String>();
+
+		Scanner input = new Scanner(words);
+
+		try
+		{
+			while(input.hasNext())
+			{
+				String word = input.next();
+
+				Integer count = picked.get(word.length());
+
+				if(count == null) count = 0;
+
+				if(count < WORDS_PER_LENGTH)
+				{
+					secrets.add(word);
+					picked.put(word.length(), count + 1);
+				}
+			}
+		}
+		finally
+		{
+			input.close();
+		}
+
+		return secrets;
+	}
+
+	/**
+	 * @return The budget of each call ordered as CALL_NAMES, -1 for
+	 * calls without one
+	 */
+	private static long[] loadBudgets(File budget) throws IOException
+	{
+		long[] budgets = new long[CALL_NAMES.length];
+		Arrays.fill(budgets, -1);
+
+		if(budget == null) return budgets;
+
+		Properties config = new Properties();
+
+		Reader reader = new FileReader(budget);
+
+		try
+		{
+			config.load(reader);
+		}
+		finally
+		{
+			reader.close();
+		}
+
+		for(String name: config.stringPropertyNames())
+		{
+			int index = Arrays.asList(CALL_NAMES).indexOf(name);
+
+			if(index < 0)
+			{
+				throw new IllegalArgumentException("Unknown allocation "
+					+ "budget " + name + " in " + budget);
+			}
+
+			budgets[index] = Long.parseLong(config.getProperty(name).trim());
+		}
+
+		return budgets;
+	}
+
+	/**
+	 * @return A tally for each call, ordered as CALL_NAMES
+	 */
+	private static Tally[] newTallies()
+	{
+		Tally[] tallies = new Tally[CALL_NAMES.length];
+
+		for(int i=0; i<tallies.length; i++)
+		{
+			tallies[i] = new Tally();
+		}
+
+		return tallies;
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanAllocationBudget()
+	{
+
+	}
+}
@@ -0,0 +1,232 @@
+import java.util.Arrays;
+import java.util.Collection;
+
+/***
+ The alphabet of a set of words: every distinct letter found in them,
+ mapped to a dense id from 0 to size() - 1 in ascending letter order.
+ Lets letter tallies, sets and co-occurrence tables be plain arrays
+ sized to the letters actually in use, whatever the script, instead
+ of being indexed from 'a'.
+
+ Letters are UTF-16 chars, as HangmanGame guesses them, so the
+ alphabet only covers the Basic Multilingual Plane: a supplementary
+ character of a word counts as its two surrogate halves.
+
+ Each letter also has a reference frequency, the percentage of
+ letters it accounts for in ordinary text, which outlier scores are
+ measured against.  The letters a to z use the English language
+ frequencies, other letters their share of the letters of the words.
+
+ rank() orders letters by their tallies with a primitive sort, most
+ frequent first.
+***/
+
+public class HangmanAlphabet
+{
+	/*
+	  Relative percentage frequency of letters used in English language
+	  From wikipedia http://en.wikipedia.org/wiki/Letter_frequency
+	  Index 0 corresponds to 'a' which is 8.167%, index 1 to 'b' which
+	  is 1.492% etc..
+	  Letter e is the highest with 12.702% letter frequency
+	*/
+	private static final double[] relativeLetterFreqEnglishLang =
+		new double[]{8.167, 1.492, 2.782, 4.253, 12.702, 2.228, 2.015,
+			6.094, 6.966, 0.153, 0.772, 4.025, 2.406, 6.749, 7.507, 1.929,
+			0.095, 5.987, 6.327, 9.056, 2.758, 0.978, 2.360, 0.150, 1.974,
+			0.074};
+
+	//Letter of each id, in ascending order
+	private final char[] letters;
+
+	//Id of each letter from the lowest one, -1 for letters not in use
+	private final char lowest;
+	private final int[] ids;
+
+	private final double[] referenceFrequencies;
+
+	//Bits of a rank key below the count: the hash bucket and the 
+	//index of the letter in the order it was found, both < 2^17
+	private static final int RANK_INDEX_BITS = 17;
+	private static final int RANK_BUCKET_BITS = 17;
+	private static final long RANK_INDEX_MASK = (1L << RANK_INDEX_BITS) - 1;
+
+
+	/**
+	 * Constructor.
+	 * @param Collection of words whose letters make up the alphabet
+	 */
+	public HangmanAlphabet(Collection<String> words)
+	{
+		if(words == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		char low = Character.MAX_VALUE;
+		char high = Character.MIN_VALUE;
+
+		for(String word: words)
+		{
+			for(int i=0; i<word.length(); i++)
+			{
+				char letter = word.charAt(i);
+
+				if(letter < low) low = letter;
+				if(letter > high) high = letter;
+			}
+		}
+
+		//Occurrences of each letter from the lowest one
+		int[] occurrences = new int[low > high ? 0 : high - low + 1];
+		long total = 0;
+
+		for(String word: words)
+		{
+			for(int i=0; i<word.length(); i++)
+			{
+				occurrences[word.charAt(i) - low]++;
+			}
+
+			total += word.length();
+		}
+
+		this.lowest = low;
+		this.ids = new int[occurrences.length];
+
+		int size = 0;
+
+		for(int i=0; i<occurrences.length; i++)
+		{
+			this.ids[i] = occurrences[i] > 0 ? size++ : -1;
+		}
+
+		this.letters = new char[size];
+		this.referenceFrequencies = new double[size];
+
+		for(int i=0; i<occurrences.length; i++)
+		{
+			int id = this.ids[i];
+
+			if(id < 0) continue;
+
+			char letter = (char) (low + i);
+
+			this.letters[id] = letter;
+
+			if(letter >= 'a' && letter <= 'z')
+			{
+				this.referenceFrequencies[id] =
+					relativeLetterFreqEnglishLang[letter - 'a'];
+			}
+			else
+			{
+				this.referenceFrequencies[id] =
+					100.0 * occurrences[i] / (double) total;
+			}
+		}
+	}
+
+	/**
+	 * @return The number of letters in the alphabet
+	 */
+	public int size()
+	{
+		return letters.length;
+	}
+
+	/**
+	 * @return The id of the letter, -1 if not in the alphabet
+	 */
+	public int id(char letter)
+	{
+		int index = letter - lowest;
+
+		if(index < 0 || index >= ids.length) return -1;
+
+		return ids[index];
+	}
+
+	/**
+	 * @return The letter of the id
+	 */
+	public char letter(int id)
+	{
+		return letters[id];
+	}
+
+	/**
+	 * @return The reference percentage frequency of the letter of the id
+	 */
+	public double getReferenceFrequency(int id)
+	{
+		return referenceFrequencies[id];
+	}
+
+	/**
+	 * Rank letters by their counts, most frequent first.
+	 *
+	 * Ties are ranked the way they always have been, when the counts
+	 * were kept in a HashMap filled in the order the letters were found 
+	 * and sorted into a TreeMap by count: equal counts come in the 
+	 * reverse of the map's iteration order, that is by hash bucket and 
+	 * then by the order found, both descending.  Keeping that order 
+	 * keeps the games' guesses, and so their scores, as they were.
+	 * @param int[] count of each letter, by id
+	 * @param int[] ids of the letters to rank, in the order found
+	 * @param int number of letters to rank
+	 * @param int number of letters the hash map was filled with, 
+	 * 				which sized its buckets
+	 * @param long[] scratch space for at least as many sort keys
+	 * @param int[] filled in with the ids of the letters ranked,
+	 * 				not the array of the letters found
+	 */
+	public void rank(int[] counts, int[] found, int numFound, int entries,
+		long[] keys, int[] ranked)
+	{
+		int buckets = HangmanAlphabet.hashCapacity(entries) - 1;
+
+		for(int i=0; i<numFound; i++)
+		{
+			int id = found[i];
+
+			keys[i] = ((long) counts[id] << (RANK_BUCKET_BITS 
+				+ RANK_INDEX_BITS)) 
+				| ((long) (letters[id] & buckets) << RANK_INDEX_BITS) | i;
+		}
+
+		Arrays.sort(keys, 0, numFound);
+
+		for(int i=0; i<numFound; i++)
+		{
+			ranked[i] = found[(int) (keys[numFound - 1 - i] 
+				& RANK_INDEX_MASK)];
+		}
+	}
+
+	/**
+	 * @return The table size a java.util.HashMap grows to as the given
+	 * number of entries are put in it, from its default of 16 at a
+	 * load factor of 0.75
+	 */
+	private static int hashCapacity(int entries)
+	{
+		int capacity = 16;
+
+		while(entries > capacity * 3 / 4) capacity *= 2;
+
+		return capacity;
+	}
+
+	/**
+	 * override of object toString() for HangmanAlphabet
+	 * @return HangmanAlphabet msg
+	 */
+	public String toString()
+	{
+		return "HangmanAlphabet[" + letters.length + " letters, "
+			+ (letters.length <= 64 ? Arrays.toString(letters)
+				: letters[0] + " to " + letters[letters.length - 1]) + "]";
+	}
+}
@@ -0,0 +1,360 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/***
+ Reads the words of a batch file, in order, without a Scanner.
+
+ The file is split into chunks of about CHUNK_SIZE bytes, each ending
+ at whitespace, and every chunk is memory mapped and cut into words
+ straight from its bytes: whitespace separates words, as with a
+ Scanner, but without any regular expression.  Chunks are decoded by
+ a pool of threads, a few ahead of the one being played, so that the
+ games never wait on reading the file.
+
+ Files in the default charset are read, as by a Scanner.  Charsets
+ that aren't a superset of ASCII, such as UTF-16, are decoded as a
+ single chunk.
+***/
+
+public class HangmanBatchReader
+{
+	//Bytes per chunk, the last chunk may be longer up to the next
+	//whitespace
+	static final int CHUNK_SIZE = 1 << 20;
+
+	//Chunks decoded ahead of the one being read
+	private static final int CHUNKS_AHEAD =
+		2 * Runtime.getRuntime().availableProcessors();
+
+	//Decodes the chunks off the playing thread
+	private static final ExecutorService decoders =
+		Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(), new ThreadFactory()
+		{
+			public Thread newThread(Runnable runnable)
+			{
+				Thread thread = new Thread(runnable, "batch-reader");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final Charset charset;
+
+	//Byte offsets the chunks start at, followed by the file size
+	private final long[] bounds;
+
+	//Chunks submitted for decoding, in order
+	private final Deque<Future<List<String>>> pending =
+		new ArrayDeque<Future<List<String>>>();
+	private int nextChunk = 0;
+
+	//Words of the chunk being read
+	private List<String> words = Collections.emptyList();
+	private int index = 0;
+
+
+	/**
+	 * Constructor.
+	 * @param File batch words file
+	 */
+	public HangmanBatchReader(File batch) throws IOException
+	{
+		if(batch == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		this.charset = Charset.defaultCharset();
+		this.file = new RandomAccessFile(batch, "r");
+		this.channel = this.file.getChannel();
+		this.bounds = HangmanBatchReader.split(this.file,
+			HangmanBatchReader.isAsciiCompatible(this.charset));
+	}
+
+	/**
+	 * @return true if there is another word
+	 */
+	public boolean hasNext() throws IOException
+	{
+		while(this.index >= this.words.size())
+		{
+			while(this.nextChunk < this.bounds.length - 1
+				&& this.pending.size() < CHUNKS_AHEAD)
+			{
+				this.pending.add(decoders.submit(
+					newDecoder(this.bounds[this.nextChunk],
+						this.bounds[this.nextChunk + 1])));
+
+				this.nextChunk++;
+			}
+
+			if(this.pending.isEmpty()) return false;
+
+			try
+			{
+				this.words = this.pending.remove().get();
+				this.index = 0;
+			}
+			catch(InterruptedException ie)
+			{
+				Thread.currentThread().interrupt();
+
+				throw new IOException("Interrupted reading batch file");
+			}
+			catch(ExecutionException ee)
+			{
+				throw new IOException("Unable to read batch file: "
+					+ ee.getCause());
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return The next word
+	 * @throws IllegalStateException if there are no more words
+	 */
+	public String next() throws IOException
+	{
+		if(false == hasNext())
+		{
+			throw new IllegalStateException("No more batch words");
+		}
+
+		return this.words.get(this.index++);
+	}
+
+	/**
+	 * Stop decoding and close the file
+	 */
+	public void close() throws IOException
+	{
+		for(Future<List<String>> future: this.pending)
+		{
+			future.cancel(true);
+		}
+
+		this.pending.clear();
+
+		this.file.close();
+	}
+
+	/**
+	 * @return The number of words in the file, counted straight
+	 * from its bytes without decoding them
+	 */
+	public static long countWords(File batch) throws IOException
+	{
+		HangmanBatchReader reader = new HangmanBatchReader(batch);
+
+		try
+		{
+			long count = 0;
+
+			if(false == HangmanBatchReader.isAsciiCompatible(reader.charset))
+			{
+				while(reader.hasNext())
+				{
+					count += reader.words.size();
+					reader.index = reader.words.size();
+				}
+
+				return count;
+			}
+
+			for(int i=0; i<reader.bounds.length - 1; i++)
+			{
+				ByteBuffer buffer = reader.channel.map(
+					FileChannel.MapMode.READ_ONLY, reader.bounds[i],
+					reader.bounds[i + 1] - reader.bounds[i]);
+
+				boolean inWord = false;
+
+				while(buffer.hasRemaining())
+				{
+					boolean whitespace = 
+						HangmanBatchReader.isWhitespace(buffer.get());
+
+					if(false == whitespace && false == inWord) count++;
+
+					inWord = false == whitespace;
+				}
+			}
+
+			return count;
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+
+	/**
+	 * @return The task decoding the words of the byte range
+	 */
+	private Callable<List<String>> newDecoder(final long start,
+		final long end)
+	{
+		return new Callable<List<String>>()
+		{
+			public List<String> call() throws IOException
+			{
+				ByteBuffer buffer = channel.map(
+					FileChannel.MapMode.READ_ONLY, start, end - start);
+
+				if(false == HangmanBatchReader.isAsciiCompatible(charset))
+				{
+					return HangmanBatchReader.words(charset.decode(buffer));
+				}
+
+				byte[] bytes = new byte[buffer.remaining()];
+				buffer.get(bytes);
+
+				return HangmanBatchReader.words(bytes, charset);
+			}
+		};
+	}
+
+	/**
+	 * @return The words of the bytes, separated by ASCII whitespace
+	 */
+	private static List<String> words(byte[] bytes, Charset charset)
+	{
+		List<String> words = new ArrayList<String>();
+
+		int start = -1;
+
+		for(int i=0; i<=bytes.length; i++)
+		{
+			if(i == bytes.length || HangmanBatchReader.isWhitespace(bytes[i]))
+			{
+				if(start >= 0)
+				{
+					words.add(new String(bytes, start, i - start, charset));
+					start = -1;
+				}
+			}
+			else if(start < 0)
+			{
+				start = i;
+			}
+		}
+
+		return words;
+	}
+
+	/**
+	 * @return The words of the characters, separated by whitespace
+	 */
+	private static List<String> words(CharBuffer chars)
+	{
+		List<String> words = new ArrayList<String>();
+
+		int start = -1;
+
+		for(int i=0; i<=chars.length(); i++)
+		{
+			if(i == chars.length() || Character.isWhitespace(chars.get(i)))
+			{
+				if(start >= 0)
+				{
+					words.add(chars.subSequence(start, i).toString());
+					start = -1;
+				}
+			}
+			else if(start < 0)
+			{
+				start = i;
+			}
+		}
+
+		return words;
+	}
+
+	/**
+	 * @return The byte offsets of the chunks of the file, each after
+	 * the first starting just after whitespace, followed by its size
+	 */
+	private static long[] split(RandomAccessFile file, boolean chunked)
+		throws IOException
+	{
+		long size = file.length();
+
+		List<Long> bounds = new ArrayList<Long>();
+		bounds.add(0L);
+
+		long offset = CHUNK_SIZE;
+
+		while(chunked && offset < size)
+		{
+			file.seek(offset);
+
+			int b;
+
+			while((b = file.read()) != -1
+				&& false == HangmanBatchReader.isWhitespace((byte) b))
+			{
+				offset++;
+			}
+
+			if(offset + 1 >= size) break;
+
+			bounds.add(offset + 1);
+
+			offset += 1 + CHUNK_SIZE;
+		}
+
+		bounds.add(size);
+
+		long[] array = new long[bounds.size()];
+
+		for(int i=0; i<array.length; i++)
+		{
+			array[i] = bounds.get(i);
+		}
+
+		return array;
+	}
+
+	/**
+	 * @return true for the ASCII bytes Character.isWhitespace is true of
+	 */
+	private static boolean isWhitespace(byte b)
+	{
+		return b == ' ' || (b >= 0x09 && b <= 0x0d) 
+			|| (b >= 0x1c && b <= 0x1f);
+	}
+
+	/**
+	 * @return true if every ASCII character is encoded as its own
+	 * single byte, and no other character uses such a byte
+	 */
+	private static boolean isAsciiCompatible(Charset charset)
+	{
+		String name = charset.name();
+
+		return name.equals("UTF-8") || name.equals("US-ASCII")
+			|| name.startsWith("ISO-8859-") || name.startsWith("windows-125");
+	}
+}
@@ -0,0 +1,314 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+
+/***
+ Plays the words of a batch file grouped by word length, so that the
+ games of one length run back to back while that length's dictionary
+ indices (words, letter counts, alphabet and stumpers) are loaded, and
+ the indices of a length are dropped once its last game is played.
+
+ The output of the games still follows the order of the batch file:
+ each game's display output, trace and result record are held back
+ and written as soon as every game before it in the file has been.
+
+ With the -lockstep option the games of each length are played
+ together by HangmanLockstep, unless the games are traced or their
+ records written, which need them played one by one.
+
+ Turned on with the -grouped or -lockstep option.
+ Implemented exclusively through static class methods.
+***/
+
+public class HangmanBatchScheduler
+{
+	//Encoding of the held back display output of a game
+	private static final String HELD_ENCODING = "UTF-8";
+
+	/*
+		Held back output of one game, until its turn comes
+	*/
+	private static class Slot
+	{
+		private final String output;
+		private final List<GuessTrace> traces;
+		private final List<GameRecord> records;
+
+		private Slot(String output, List<GuessTrace> traces,
+			List<GameRecord> records)
+		{
+			this.output = output;
+			this.traces = traces;
+			this.records = records;
+		}
+	}
+
+
+	/**
+	 * Play every word of the batch, grouped by length, writing their
+	 * output in the order of the batch.
+	 * @param RunContext of the batch run
+	 * @param HangmanBatchReader batch words
+	 */
+	public static void play(RunContext context, HangmanBatchReader input)
+		throws Exception
+	{
+		if(context == null || input == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		List<String> words = new ArrayList<String>();
+
+		Map<Integer, List<Integer>> groups =
+			new TreeMap<Integer, List<Integer>>();
+
+		while(input.hasNext())
+		{
+			String word = input.next();
+
+			List<Integer> group = groups.get(word.length());
+
+			if(group == null)
+			{
+				group = new ArrayList<Integer>();
+				groups.put(word.length(), group);
+			}
+
+			group.add(words.size());
+			words.add(word);
+		}
+
+		context.clock2("Grouped " + words.size() + " batch words into "
+			+ groups.size() + " word lengths");
+
+		Slot[] slots = new Slot[words.size()];
+		int next = 0;
+
+		PrintStream output = context.getOutput();
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		PrintStream held = new PrintStream(buffer, true, HELD_ENCODING);
+
+		boolean lockstep = context.useLockstep() 
+			&& false == context.isTracing() 
+			&& false == context.isRecordingResults();
+
+		try
+		{
+			for(Map.Entry<Integer, List<Integer>> group: groups.entrySet())
+			{
+				if(true == lockstep)
+				{
+					if(true == context.isWatchingDictionary())
+					{
+						context.getHangmanDictionary().reloadIfChanged();
+					}
+
+					HangmanBatchScheduler.playLockstep(context, words, 
+						group.getValue(), slots, held, buffer, output);
+
+					next = HangmanBatchScheduler.flush(context, output, 
+						slots, next);
+				}
+				else
+				{
+					next = HangmanBatchScheduler.playEach(context, words,
+						group.getValue(), slots, next, held, buffer, output);
+				}
+
+				context.releaseStumperWords(group.getKey());
+
+				if(true == context.getHangmanDictionary()
+					.releaseLength(group.getKey()))
+				{
+					context.clock2("Released indices of length "
+						+ group.getKey());
+				}
+			}
+		}
+		finally
+		{
+			held.close();
+		}
+	}
+
+	/**
+	 * Play the games of one length one after another, writing each
+	 * as soon as its turn comes
+	 * @return The index of the next game to write
+	 */
+	private static int playEach(RunContext context, List<String> words,
+		List<Integer> group, Slot[] slots, int next, PrintStream held,
+		ByteArrayOutputStream buffer, PrintStream output) throws IOException
+	{
+		for(int index: group)
+		{
+			if(true == context.isWatchingDictionary())
+			{
+				//Reloads in the background, games keep
+				//playing on the current version meanwhile
+				context.getHangmanDictionary().reloadIfChanged();
+			}
+
+			context.setOutput(held);
+			context.setHolding(true);
+
+			try
+			{
+				HangmanUtil.singleRun(context, words.get(index));
+			}
+			finally
+			{
+				context.setHolding(false);
+				context.setOutput(output);
+			}
+
+			HangmanMetrics.getInstance().batchWordPlayed();
+
+			slots[index] = new Slot(HangmanBatchScheduler.drain(buffer),
+				context.takeHeldTraces(), context.takeHeldRecords());
+
+			next = HangmanBatchScheduler.flush(context, output, slots, next);
+		}
+
+		return next;
+	}
+
+	/**
+	 * Play the games of one length together, filling in their slots.
+	 * Words in the result cache are not played again.
+	 */
+	private static void playLockstep(RunContext context, List<String> words,
+		List<Integer> group, Slot[] slots, PrintStream held, 
+		ByteArrayOutputStream buffer, PrintStream output) throws Exception
+	{
+		HangmanResultCache cache = context.getResultCache();
+
+		List<Integer> played = new ArrayList<Integer>();
+		List<String> secrets = new ArrayList<String>();
+
+		context.setOutput(held);
+
+		try
+		{
+			for(int index: group)
+			{
+				String word = words.get(index);
+
+				HangmanResultCache.Result result = 
+					null == cache ? null : cache.get(word);
+
+				if(null == result)
+				{
+					played.add(index);
+					secrets.add(word);
+					continue;
+				}
+
+				context.bulk(word.toUpperCase() + ": " + result.getScore());
+				context.addBatchScore(result.getScore());
+
+				HangmanMetrics.getInstance().batchWordPlayed();
+
+				slots[index] = new Slot(HangmanBatchScheduler.drain(buffer),
+					new ArrayList<GuessTrace>(), new ArrayList<GameRecord>());
+			}
+
+			int[] guesses = new int[secrets.size()];
+
+			HangmanGame[] games = 
+				HangmanLockstep.play(context, secrets, guesses);
+
+			for(int i=0; i<games.length; i++)
+			{
+				int score = games[i].currentScore();
+
+				if(guesses[i] == HangmanLockstep.FAILED)
+				{
+					score = PlayHangman.ERROR_SCORE;
+				}
+
+				context.bulk(secrets.get(i).toUpperCase() + ": " + score);
+				context.addBatchScore(score);
+
+				if(null != cache && guesses[i] != HangmanLockstep.FAILED)
+				{
+					cache.put(secrets.get(i), score, guesses[i], 
+						games[i].gameStatus());
+				}
+
+				HangmanMetrics.getInstance().batchWordPlayed();
+
+				slots[played.get(i)] = new Slot(
+					HangmanBatchScheduler.drain(buffer),
+					new ArrayList<GuessTrace>(), new ArrayList<GameRecord>());
+			}
+		}
+		finally
+		{
+			context.setOutput(output);
+		}
+	}
+
+	/**
+	 * Write the games whose turn has come
+	 * @return The index of the next game to write
+	 */
+	private static int flush(RunContext context, PrintStream output, 
+		Slot[] slots, int next) throws IOException
+	{
+		while(next < slots.length && null != slots[next])
+		{
+			HangmanBatchScheduler.write(context, output, slots[next]);
+
+			slots[next] = null;
+			next++;
+		}
+
+		return next;
+	}
+
+	/**
+	 * @return The text in the buffer, emptying it
+	 */
+	private static String drain(ByteArrayOutputStream buffer)
+		throws UnsupportedEncodingException
+	{
+		String text = buffer.toString(HELD_ENCODING);
+		buffer.reset();
+
+		return text;
+	}
+
+	/**
+	 * Write the held back output of a game
+	 */
+	private static void write(RunContext context, PrintStream output,
+		Slot slot) throws IOException
+	{
+		output.print(slot.output);
+
+		for(GuessTrace trace: slot.traces)
+		{
+			context.trace(trace);
+		}
+
+		for(GameRecord record: slot.records)
+		{
+			context.record(record);
+		}
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanBatchScheduler()
+	{
+
+	}
+}
@@ -0,0 +1,245 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/***
+ Benchmark runner and regression gate for the hangman strategy.
+
+ Plays every word of a words file, times each game in nanoseconds and
+ writes a results file, one tab separated record per line:
+
+	total_ns	<ns>
+	games	<count>
+	average_score	<score>
+	p50_ns	<ns>		(also p90_ns, p99_ns, max_ns)
+	word	<WORD>	<score>	<ns>
+
+ Given a baseline results file, flags every word whose score changed
+ and every latency figure that got slower than the allowed percentage.
+ Implemented exclusively through static class methods.
+***/
+
+public class HangmanBenchmark
+{
+	//Allowed latency regression in percent, unless told otherwise
+	static final double DEFAULT_LATENCY_PERCENT = 10.0;
+
+	//Latency figures compared against the baseline
+	private static final String[] LATENCY_KEYS = new String[]{
+		"total_ns", "p50_ns", "p90_ns", "p99_ns"};
+
+	private static final String WORD_KEY = "word";
+
+
+	/**
+	 * Run the benchmark and compare it against the baseline.
+	 * @param File words to play
+	 * @param File results file to write
+	 * @param File baseline results file, null to skip the comparison
+	 * @param double allowed latency regression in percent
+	 * @return false if any word changed score or latency regressed
+	 */
+	public static boolean run(File words, File results, File baseline,
+		double latencyPercent) throws IOException
+	{
+		if(words == null || results == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		HangmanUtil.prepareStumpers();
+
+		List<String> secrets = new ArrayList<String>();
+
+		Scanner input = new Scanner(words);
+
+		try
+		{
+			while(input.hasNext())
+			{
+				secrets.add(input.next());
+			}
+		}
+		finally
+		{
+			input.close();
+		}
+
+		int numGames = secrets.size();
+
+		int[] scores = new int[numGames];
+		long[] times = new long[numGames];
+
+		long totalTime = 0;
+		long scoreSum = 0;
+
+		for(int i=0; i<numGames; i++)
+		{
+			long start = System.nanoTime();
+
+			PlayHangman play = PlayHangman.newInstance();
+
+			play.init(secrets.get(i));
+
+			scores[i] = play.run();
+
+			play.end();
+
+			times[i] = System.nanoTime() - start;
+
+			totalTime += times[i];
+			scoreSum += scores[i];
+		}
+
+		Map<String, String> summary = new LinkedHashMap<String, String>();
+
+		long[] sorted = times.clone();
+		Arrays.sort(sorted);
+
+		summary.put("total_ns", Long.toString(totalTime));
+		summary.put("games", Integer.toString(numGames));
+		summary.put("average_score",
+			Double.toString((double) scoreSum / (double) numGames));
+		summary.put("p50_ns", Long.toString(percentile(sorted, 50)));
+		summary.put("p90_ns", Long.toString(percentile(sorted, 90)));
+		summary.put("p99_ns", Long.toString(percentile(sorted, 99)));
+		summary.put("max_ns", Long.toString(percentile(sorted, 100)));
+
+		BufferedWriter bwriter = new BufferedWriter(new FileWriter(results));
+
+		try
+		{
+			for(String key: summary.keySet())
+			{
+				bwriter.write(key + "\t" + summary.get(key));
+				bwriter.newLine();
+			}
+
+			for(int i=0; i<numGames; i++)
+			{
+				bwriter.write(WORD_KEY + "\t" + secrets.get(i).toUpperCase()
+					+ "\t" + scores[i] + "\t" + times[i]);
+				bwriter.newLine();
+			}
+		}
+		finally
+		{
+			bwriter.close();
+		}
+
+		System.out.println("Given " + numGames + " words, average word "
+			+ "score is: " + summary.get("average_score"));
+		System.out.println("[BENCH] total " + totalTime + " ns, p50 "
+			+ summary.get("p50_ns") + " ns, p99 " + summary.get("p99_ns")
+			+ " ns, written to " + results);
+
+		if(baseline == null) return true;
+
+		return compare(summary, secrets, scores, baseline, latencyPercent);
+	}
+
+	/**
+	 * Compare the benchmark against a baseline results file,
+	 * printing every score change and latency regression
+	 * @return false if there were any
+	 */
+	private static boolean compare(Map<String, String> summary,
+		List<String> secrets, int[] scores, File baseline,
+		double latencyPercent) throws IOException
+	{
+		Map<String, String> baseSummary = new LinkedHashMap<String, String>();
+		Map<String, Integer> baseScores = new LinkedHashMap<String, Integer>();
+
+		BufferedReader reader = new BufferedReader(new FileReader(baseline));
+
+		try
+		{
+			String line;
+
+			while(null != (line = reader.readLine()))
+			{
+				String[] fields = line.split("\t");
+
+				if(fields.length == 4 && fields[0].equals(WORD_KEY))
+				{
+					baseScores.put(fields[1], Integer.parseInt(fields[2]));
+				}
+				else if(fields.length == 2)
+				{
+					baseSummary.put(fields[0], fields[1]);
+				}
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+
+		int changedWords = 0;
+		int slowerFigures = 0;
+
+		for(int i=0; i<scores.length; i++)
+		{
+			String secret = secrets.get(i).toUpperCase();
+			Integer baseScore = baseScores.get(secret);
+
+			if(baseScore != null && baseScore != scores[i])
+			{
+				System.out.println("SCORE CHANGED " + secret + ": "
+					+ baseScore + " -> " + scores[i]);
+				changedWords++;
+			}
+		}
+
+		for(String key: LATENCY_KEYS)
+		{
+			if(baseSummary.get(key) == null) continue;
+
+			long base = Long.parseLong(baseSummary.get(key));
+			long current = Long.parseLong(summary.get(key));
+
+			if(current > base * (1.0 + latencyPercent / 100.0))
+			{
+				double percent = 100.0 * (current - base) / (double) base;
+
+				System.out.println("LATENCY REGRESSION " + key + ": " + base
+					+ " -> " + current + " (+" + Math.round(percent) + "%)");
+				slowerFigures++;
+			}
+		}
+
+		System.out.println("[BENCH] " + changedWords + " words changed score"
+			+ ", " + slowerFigures + " latency regressions beyond "
+			+ latencyPercent + "% against " + baseline);
+
+		return changedWords == 0 && slowerFigures == 0;
+	}
+
+	/**
+	 * @return The nearest rank percentile of the sorted values
+	 */
+	private static long percentile(long[] sorted, int percent)
+	{
+		if(sorted.length == 0) return 0;
+
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanBenchmark()
+	{
+
+	}
+}
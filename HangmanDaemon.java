@@ -0,0 +1,430 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/***
+ Keeps the dictionary indices and the JIT compiled strategy warm in
+ one long running JVM, and plays games for thin clients so that
+ scripted runs don't pay JVM startup and dictionary loading per word.
+
+ The daemon listens on a UNIX domain socket.  A request is the
+ PlayHangman arguments of one run, each followed by a newline and
+ the whole ended by an empty line, in UTF-8.  The reply is the output
+ of the run, its errors included, then a NUL byte and the exit status
+ of the run as a digit, 1 if it printed any error, after which the
+ daemon closes the connection.  A request that fails, for instance on
+ a dictionary that can't be read, doesn't stop the daemon.  Requests 
+ are played side by side, each in a RunContext of its own:
+
+	[-f dictionary.txt] word1 ... wordN [options]
+	[-f dictionary.txt] -batch words.txt [options]
+
+ Without -f the daemon's dictionary is used.  The daemon's own options
+ come before those of every request.  Any script can be a client,
+ e.g. printf 'hangman\n-v\n\n' | nc -U hangman.sock
+ A daemon won't start on the socket of one that is still running.
+ Implemented exclusively through static class methods.
+***/
+
+public class HangmanDaemon
+{
+	//Byte ending the output of a reply, followed by the exit status
+	private static final int STATUS_MARK = 0;
+
+	//Length of the status at the end of a reply, mark included
+	private static final int STATUS_LENGTH = 2;
+
+	/*
+		Stream the errors of a run are written through, noting if
+		any were
+	*/
+	private static class ErrorStream extends FilterOutputStream
+	{
+		private volatile boolean written = false;
+
+		private ErrorStream(OutputStream output)
+		{
+			super(output);
+		}
+
+		public void write(int b) throws IOException
+		{
+			written = true;
+			out.write(b);
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			written = true;
+			out.write(b, off, len);
+		}
+	}
+
+	/**
+	 * Serve requests on the socket until the JVM is stopped.
+	 * @param File socket path, replaced if no daemon answers on it
+	 * @param File dictionary of requests without -f, kept loaded
+	 * @param List of options of every request
+	 */
+	public static void serve(final File socket, final File dictionary,
+		final List<String> options) throws IOException
+	{
+		if(socket == null || dictionary == null || options == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		//Hold on to the dictionary for the life of the daemon
+		RunContext warm = new RunContext();
+		warm.setDictionary(dictionary);
+		warm.getHangmanDictionary();
+
+		if(true == HangmanDaemon.isServing(socket))
+		{
+			throw new IOException("A hangman daemon is already serving on "
+				+ socket);
+		}
+
+		//Left over by a daemon that was killed
+		socket.delete();
+
+		ServerSocketChannel server =
+			ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+
+		server.bind(UnixDomainSocketAddress.of(socket.toPath()));
+
+		Runtime.getRuntime().addShutdownHook(new Thread()
+		{
+			public void run()
+			{
+				socket.delete();
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors());
+
+		HangmanUtil.clock(false, "Serving " + dictionary + " on " + socket);
+
+		try
+		{
+			while(true)
+			{
+				final SocketChannel channel = server.accept();
+
+				executor.submit(new Runnable()
+				{
+					public void run()
+					{
+						HangmanDaemon.handle(channel, dictionary, options);
+					}
+				});
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+			server.close();
+			warm.releaseDictionary();
+		}
+	}
+
+	/**
+	 * Forward the arguments to the daemon and print its reply.
+	 * Files named by the arguments are passed as absolute paths.
+	 * @param File socket path of the daemon
+	 * @param List of PlayHangman arguments of the run
+	 * @return false if the daemon couldn't be reached or the run failed
+	 */
+	public static boolean client(File socket, List<String> args)
+	{
+		SocketChannel channel = null;
+
+		try
+		{
+			if(socket == null || args == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) "
+					+ "can't be null");
+			}
+
+			channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+			channel.connect(UnixDomainSocketAddress.of(socket.toPath()));
+
+			StringBuilder request = new StringBuilder();
+
+			for(int i=0; i<args.size(); i++)
+			{
+				String arg = args.get(i);
+
+				if(i > 0 && HangmanDaemon.isFileOption(args.get(i - 1)))
+				{
+					arg = new File(arg).getAbsolutePath();
+				}
+
+				request.append(arg).append('\n');
+			}
+
+			request.append('\n');
+
+			OutputStream output = Channels.newOutputStream(channel);
+			output.write(request.toString().getBytes("UTF-8"));
+			output.flush();
+
+			InputStream input = Channels.newInputStream(channel);
+
+			//The status at the end of the reply is held back 
+			//until the reply is over
+			byte[] buffer = new byte[8192 + STATUS_LENGTH];
+			int held = 0;
+			int n;
+
+			while((n = input.read(buffer, held, buffer.length - held)) != -1)
+			{
+				held += n;
+
+				if(held > STATUS_LENGTH)
+				{
+					System.out.write(buffer, 0, held - STATUS_LENGTH);
+
+					System.arraycopy(buffer, held - STATUS_LENGTH, buffer, 
+						0, STATUS_LENGTH);
+
+					held = STATUS_LENGTH;
+				}
+			}
+
+			System.out.flush();
+
+			if(held != STATUS_LENGTH || buffer[0] != STATUS_MARK)
+			{
+				System.out.write(buffer, 0, held);
+				System.out.flush();
+
+				System.err.println("Incomplete reply from hangman daemon on "
+					+ socket);
+
+				return false;
+			}
+
+			return buffer[1] == '0';
+		}
+		catch(IOException ioe)
+		{
+			System.err.println("Unable to reach hangman daemon on "
+				+ socket + ": " + ioe);
+
+			return false;
+		}
+		finally
+		{
+			try
+			{
+				if(null != channel) channel.close();
+			}
+			catch(IOException e)
+			{
+				System.err.println("Exception: " + e);
+			}
+		}
+	}
+
+	/**
+	 * @return true if a daemon accepts connections on the socket
+	 */
+	private static boolean isServing(File socket)
+	{
+		if(false == socket.exists()) return false;
+
+		SocketChannel channel = null;
+
+		try
+		{
+			channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+			channel.connect(UnixDomainSocketAddress.of(socket.toPath()));
+
+			return true;
+		}
+		catch(IOException e)
+		{
+			return false;
+		}
+		finally
+		{
+			try
+			{
+				if(null != channel) channel.close();
+			}
+			catch(IOException e)
+			{
+				System.err.println("Exception: " + e);
+			}
+		}
+	}
+
+	/**
+	 * Read one request from the connection, play it and reply
+	 */
+	private static void handle(SocketChannel channel, File dictionary,
+		List<String> options)
+	{
+		try
+		{
+			BufferedReader input = new BufferedReader(new InputStreamReader(
+				Channels.newInputStream(channel), "UTF-8"));
+
+			List<String> args = new ArrayList<String>(options);
+
+			String line;
+
+			while(null != (line = input.readLine()) && line.length() > 0)
+			{
+				args.add(line);
+			}
+
+			PrintStream output = new PrintStream(new BufferedOutputStream(
+				Channels.newOutputStream(channel)), false, "UTF-8");
+
+			boolean succeeded = HangmanDaemon.run(args, dictionary, output);
+
+			output.write(STATUS_MARK);
+			output.write(true == succeeded ? '0' : '1');
+			output.flush();
+		}
+		catch(Exception e)
+		{
+			System.err.println("Exception: " + e);
+		}
+		finally
+		{
+			try
+			{
+				channel.close();
+			}
+			catch(IOException e)
+			{
+				System.err.println("Exception: " + e);
+			}
+		}
+	}
+
+	/**
+	 * Play the run of the arguments in a run context of its own
+	 * @param List of PlayHangman arguments of the run
+	 * @param File dictionary unless the arguments name one
+	 * @param PrintStream output of the run
+	 * @return false if the run failed or printed any error
+	 */
+	static boolean run(List<String> args, File dictionary, PrintStream output)
+	{
+		RunContext context = new RunContext();
+		context.setOutput(output);
+		context.setClientRequest(true);
+		context.setDictionary(dictionary);
+		context.setThresholds(HangmanUtil.getContext().getThresholds());
+
+		ErrorStream errors = new ErrorStream(output);
+
+		File batch = null;
+
+		try
+		{
+			context.setErrors(new PrintStream(errors, true, "UTF-8"));
+
+			List<String> rest = new ArrayList<String>();
+
+			for(int i=0; i<args.size(); i++)
+			{
+				String arg = args.get(i);
+
+				if(arg.equals("-f") && i + 1 < args.size())
+				{
+					context.setDictionary(new File(args.get(++i)));
+				}
+				else if(arg.equals("-batch") && i + 1 < args.size())
+				{
+					batch = new File(args.get(++i));
+				}
+				else if(arg.equals("-config") && i + 1 < args.size())
+				{
+					context.setThresholds(HangmanStrategy.loadThresholds(
+						new File(args.get(++i))));
+				}
+				else
+				{
+					rest.add(arg);
+				}
+			}
+
+			HangmanUtil.processArgs(context,
+				rest.toArray(new String[rest.size()]), 0);
+
+			if(null != batch)
+			{
+				context.setUseBatchWords(true);
+				context.clearPrintFlags();
+
+				HangmanUtil.processBatchWords(context, batch);
+			}
+			else if(false == context.anyHangmanWords())
+			{
+				context.getErrors().println("No hangman word received!");
+			}
+			else if(context.getNumHangmans() == 1)
+			{
+				HangmanUtil.singleRun(context,
+					context.getHangmanWords().get(0));
+			}
+			else
+			{
+				context.clearPrintFlags();
+
+				HangmanUtil.multipleHangmans(context);
+			}
+		}
+		catch(Exception e)
+		{
+			context.getErrors().println("Exception: " + e);
+		}
+		finally
+		{
+			context.closeTrace();
+			context.releaseDictionary();
+		}
+
+		return false == errors.written;
+	}
+
+	/**
+	 * @return true if the option is followed by a file name
+	 */
+	private static boolean isFileOption(String option)
+	{
+		return option.equals("-f") || option.equals("-batch")
+			|| option.equals("-config") || option.equals("-trace")
+			|| option.startsWith("-trace:") || option.startsWith("-results:")
+			|| option.equals("-cache");
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanDaemon()
+	{
+
+	}
+}
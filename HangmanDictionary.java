@@ -0,0 +1,934 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.nio.charset.Charset;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/***
+ A dictionary of hangman words along with the indices HangmanStrategy
+ builds from it: the words of each length, their letter counts and
+ their alphabet.  The stumper words among them depend on the run and
+ are kept by its RunContext.  Each index is loaded the first time
+ a word of that length is played, once, however many games of that
+ length start together (see HangmanLengthCache).
+
+ Dictionaries are shared through a registry keyed by the identity of
+ the dictionary file (its canonical path, size and modification
+ time), so any number of word lists can be served side by side
+ without mixing their indices.  acquire() and release() count the
+ users of a dictionary.  Once unused it is kept warm until more than
+ MAX_IDLE dictionaries are unused, the least recently released being
+ evicted first.
+
+ The indices of a dictionary form a Version, which reload() replaces
+ when the file changes.  The new Version is built in the background,
+ loading every word length the old one had loaded, and then swapped
+ in.  Games hold on to the Version they started with.  Words appended
+ to the file are loaded as a delta Segment on top of the segments of
+ the old Version, which are shared rather than loaded again.  Each
+ Segment keeps the bytes of its range as read when its Version was
+ built, so a later edit of the file never reaches an old Version.
+***/
+
+public class HangmanDictionary
+{
+	/**
+	 * The words of one byte range of the dictionary file, indexed by
+	 * length on first use.  Holds only the words not already in the
+	 * segments before it.
+	 */
+	private static class Segment
+	{
+		private final long start;
+		private final long end;
+
+		//The bytes of the range as read, less any byte order mark
+		private final byte[] bytes;
+
+		private final HangmanLengthCache<Set<String>> sizeWordMap =
+			new HangmanLengthCache<Set<String>>("segment words");
+
+		private Segment(long start, long end, byte[] bytes)
+		{
+			this.start = start;
+			this.end = end;
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * The number of words of one length each letter appears in, by 
+	 * HangmanAlphabet id, and the letters ranked by it, most frequent
+	 * first (see HangmanAlphabet.rank)
+	 */
+	public static class LetterCounts
+	{
+		private final int[] counts;
+		private final int[] ranked;
+
+		private LetterCounts(int[] counts, int[] ranked)
+		{
+			this.counts = counts;
+			this.ranked = ranked;
+		}
+
+		/**
+		 * @return The number of letters ranked, every letter of the
+		 * words of the length
+		 */
+		public int size()
+		{
+			return ranked.length;
+		}
+
+		/**
+		 * Copy the counts and the ranking into the arrays given, 
+		 * which must hold the alphabet of the length
+		 */
+		public void copyInto(int[] counts, int[] ranked)
+		{
+			System.arraycopy(this.counts, 0, counts, 0, this.counts.length);
+			System.arraycopy(this.ranked, 0, ranked, 0, this.ranked.length);
+		}
+	}
+
+	/**
+	 * An immutable view of the dictionary file at one point in time,
+	 * made of one or more segments, with indices built on first use
+	 */
+	public static class Version
+	{
+		private final HangmanDictionary dictionary;
+		private final List<Segment> segments;
+		private final long size;
+		private final long lastModified;
+		private final long checksum;
+		private final int number;
+
+		private final HangmanLengthCache<Set<String>> sizeWordMap =
+			new HangmanLengthCache<Set<String>>("words");
+
+		private final HangmanLengthCache<LetterCounts> letterCountsSets =
+			new HangmanLengthCache<LetterCounts>("letter counts");
+
+		private final HangmanLengthCache<HangmanAlphabet> alphabets =
+			new HangmanLengthCache<HangmanAlphabet>("alphabets");
+
+		private Version(HangmanDictionary dictionary, List<Segment> segments,
+			long size, long lastModified, long checksum, int number)
+		{
+			this.dictionary = dictionary;
+			this.segments = segments;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.checksum = checksum;
+			this.number = number;
+		}
+
+		/**
+		 * @return The words of the given length, loaded on first use
+		 */
+		public Set<String> getWords(final int length)
+		{
+			return sizeWordMap.get(length, new Callable<Set<String>>()
+			{
+				public Set<String> call()
+				{
+					return merge(length);
+				}
+			});
+		}
+
+		/**
+		 * @return The number of words of the given length each letter
+		 * appears in, computed on first use
+		 */
+		public LetterCounts getLetterCounts(final int length)
+		{
+			return letterCountsSets.get(length, 
+				new Callable<LetterCounts>()
+			{
+				public LetterCounts call()
+				{
+					return HangmanDictionary.tallyLetterCounts(
+						getWords(length), getAlphabet(length));
+				}
+			});
+		}
+
+		/**
+		 * @return The alphabet of the words of the given length, 
+		 * computed on first use
+		 */
+		public HangmanAlphabet getAlphabet(final int length)
+		{
+			return alphabets.get(length, new Callable<HangmanAlphabet>()
+			{
+				public HangmanAlphabet call()
+				{
+					return new HangmanAlphabet(getWords(length));
+				}
+			});
+		}
+
+		/**
+		 * Drop every index of the given length, to be loaded again 
+		 * on next use
+		 * @return true if any index of the length was loaded
+		 */
+		public boolean releaseLength(int length)
+		{
+			boolean released = sizeWordMap.remove(length);
+
+			released |= letterCountsSets.remove(length);
+			released |= alphabets.remove(length);
+
+			for(Segment segment: segments)
+			{
+				released |= segment.sizeWordMap.remove(length);
+			}
+
+			return released;
+		}
+
+		/**
+		 * @return The version number, counting from 1 for the file
+		 * as first loaded
+		 */
+		public int getNumber()
+		{
+			return number;
+		}
+
+		/**
+		 * @return The number of segments the version is made of
+		 */
+		public int getNumSegments()
+		{
+			return segments.size();
+		}
+
+		/**
+		 * @return The time each index took to load by length, and how
+		 * often a game waited on another game's load
+		 */
+		public String getLoadMetrics()
+		{
+			return sizeWordMap + ", " + letterCountsSets + ", " 
+				+ alphabets;
+		}
+
+		/**
+		 * override of object toString() for Version
+		 * @return Version msg
+		 */
+		public String toString()
+		{
+			return "Version[" + number + ", " + size + " bytes, "
+				+ segments.size() + " segment(s), lengths loaded "
+				+ sizeWordMap.lengths() + "]";
+		}
+
+		/**
+		 * @return The words of the given length of all the segments
+		 */
+		private Set<String> merge(int length)
+		{
+			if(segments.size() == 1)
+			{
+				return dictionary.getSegmentWords(segments, 0, length);
+			}
+
+			Set<String> words = new HashSet<String>();
+
+			for(int i=0; i<segments.size(); i++)
+			{
+				words.addAll(dictionary.getSegmentWords(segments, i, length));
+			}
+
+			return Collections.unmodifiableSet(words);
+		}
+
+		/**
+		 * Load the indices of every length the other version has 
+		 * loaded.
+		 */
+		private void warmUp(Version other)
+		{
+			for(Integer length: other.sizeWordMap.lengths())
+			{
+				getLetterCounts(length);
+			}
+		}
+	}
+
+	//Number of unused dictionaries kept loaded
+	static final int MAX_IDLE = 2;
+
+	//Loaded dictionaries keyed by identity, see identity()
+	private static final Map<String, HangmanDictionary> registry =
+		new HashMap<String, HangmanDictionary>();
+
+	//Unused dictionaries, least recently released first
+	private static final Map<String, HangmanDictionary> idle =
+		new LinkedHashMap<String, HangmanDictionary>();
+
+	//Builds reloaded versions off the playing threads
+	private static final ExecutorService reloader =
+		Executors.newSingleThreadExecutor(new ThreadFactory()
+		{
+			public Thread newThread(Runnable runnable)
+			{
+				Thread thread = new Thread(runnable, "dictionary-reload");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+	private final File file;
+
+	//Encoding of the file, from its byte order mark if it has one,
+	//and the length of the mark
+	private final Charset charset;
+	private final int bomLength;
+
+	//Guarded by the HangmanDictionary class lock
+	private String identity;
+	private int references = 0;
+
+	//Indices of the file, replaced as a whole on reload
+	private volatile Version current;
+
+	//Guarded by this dictionary
+	private Future<Version> pendingReload = null;
+
+
+	/**
+	 * Get the dictionary of a file from the registry, loading it if
+	 * need be, and count one more user of it.  Every call must be
+	 * matched by a call to release().
+	 * @param File dictionary
+	 * @return The dictionary
+	 */
+	public static HangmanDictionary acquire(File file) throws IOException
+	{
+		if(file == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		if(false == file.isFile())
+		{
+			throw new IOException("[Unable to load dictionary " + file + "]");
+		}
+
+		String identity = HangmanDictionary.identity(file);
+
+		synchronized(HangmanDictionary.class)
+		{
+			HangmanDictionary dictionary = registry.get(identity);
+
+			if(dictionary == null)
+			{
+				dictionary = new HangmanDictionary(file, identity);
+				registry.put(identity, dictionary);
+
+				HangmanUtil.verbose("dictionary " + identity + " registered");
+			}
+
+			idle.remove(identity);
+			dictionary.references++;
+
+			return dictionary;
+		}
+	}
+
+	/**
+	 * Count one more user of this dictionary
+	 * @return This dictionary
+	 */
+	public HangmanDictionary retain()
+	{
+		synchronized(HangmanDictionary.class)
+		{
+			if(references == 0 && false == registry.containsKey(identity))
+			{
+				throw new IllegalStateException("Dictionary " + identity
+					+ " was evicted");
+			}
+
+			idle.remove(identity);
+			references++;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Count one less user of this dictionary, making it unused
+	 * and possibly evicting unused dictionaries once none are left
+	 */
+	public void release()
+	{
+		synchronized(HangmanDictionary.class)
+		{
+			if(references <= 0)
+			{
+				throw new IllegalStateException("Dictionary " + identity
+					+ " released more often than acquired");
+			}
+
+			references--;
+
+			if(references == 0)
+			{
+				idle.put(identity, this);
+
+				HangmanDictionary.evict(MAX_IDLE);
+			}
+		}
+	}
+
+	/**
+	 * Evict every unused dictionary
+	 */
+	public static void evictUnused()
+	{
+		synchronized(HangmanDictionary.class)
+		{
+			HangmanDictionary.evict(0);
+		}
+	}
+
+	/**
+	 * @return The number of dictionaries in the registry
+	 */
+	public static int getNumLoaded()
+	{
+		synchronized(HangmanDictionary.class)
+		{
+			return registry.size();
+		}
+	}
+
+	/**
+	 * Evict the least recently released unused dictionaries until
+	 * no more than the given number are left
+	 */
+	private static void evict(int maxIdle)
+	{
+		List<String> evicted = new ArrayList<String>();
+
+		for(String identity: idle.keySet())
+		{
+			if(idle.size() - evicted.size() <= maxIdle) break;
+
+			evicted.add(identity);
+		}
+
+		for(String identity: evicted)
+		{
+			idle.remove(identity);
+			registry.remove(identity).current = null;
+
+			HangmanUtil.verbose("dictionary " + identity + " evicted");
+		}
+	}
+
+	/**
+	 * @return The identity of a dictionary file, its canonical path,
+	 * size and modification time, so an edited file is a new dictionary
+	 */
+	private static String identity(File file) throws IOException
+	{
+		return file.getCanonicalPath() + ":" + file.length() + ":"
+			+ file.lastModified();
+	}
+
+
+	/* Instance methods */
+
+	private HangmanDictionary(File file, String identity) throws IOException
+	{
+		this.file = file;
+		this.identity = identity;
+
+		byte[] head = new byte[3];
+		int count = 0;
+
+		InputStream input = new FileInputStream(file);
+
+		try
+		{
+			int read;
+
+			while(count < head.length
+				&& (read = input.read(head, count, head.length - count)) > 0)
+			{
+				count += read;
+			}
+		}
+		finally
+		{
+			input.close();
+		}
+
+		if(count >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xFE)
+		{
+			this.charset = Charset.forName("UTF-16LE");
+			this.bomLength = 2;
+		}
+		else if(count >= 2 && (head[0] & 0xFF) == 0xFE
+			&& (head[1] & 0xFF) == 0xFF)
+		{
+			this.charset = Charset.forName("UTF-16BE");
+			this.bomLength = 2;
+		}
+		else if(count == 3 && (head[0] & 0xFF) == 0xEF
+			&& (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF)
+		{
+			this.charset = Charset.forName("UTF-8");
+			this.bomLength = 3;
+		}
+		else
+		{
+			//As a Scanner of the file would read it
+			this.charset = Charset.defaultCharset();
+			this.bomLength = 0;
+		}
+
+		long lastModified = file.lastModified();
+
+		byte[] contents = readFile();
+
+		long[] sizeAndChecksum = checksum(contents, -1, 0);
+
+		List<Segment> segments = new ArrayList<Segment>();
+		segments.add(newSegment(contents, 0));
+
+		this.current = new Version(this, segments, sizeAndChecksum[0],
+			lastModified, sizeAndChecksum[1], 1);
+	}
+
+	/**
+	 * @return The current version of the indices, which games
+	 * should hold on to for their whole play
+	 */
+	public Version getVersion()
+	{
+		Version version = this.current;
+
+		if(version == null)
+		{
+			throw new IllegalStateException("Dictionary " + file
+				+ " was evicted");
+		}
+
+		return version;
+	}
+
+	/**
+	 * @return The words of the given length of the current version
+	 */
+	public Set<String> getWords(int length)
+	{
+		return getVersion().getWords(length);
+	}
+
+	/**
+	 * @return The letter counts of the given length of the current
+	 * version
+	 */
+	public LetterCounts getLetterCounts(int length)
+	{
+		return getVersion().getLetterCounts(length);
+	}
+
+	/**
+	 * @return The alphabet of the given length of the current version
+	 */
+	public HangmanAlphabet getAlphabet(int length)
+	{
+		return getVersion().getAlphabet(length);
+	}
+
+	/**
+	 * Drop the indices of the given length from the current version,
+	 * unless other runs share this dictionary and may still use them
+	 * @return true if any index of the length was dropped
+	 */
+	public boolean releaseLength(int length)
+	{
+		synchronized(HangmanDictionary.class)
+		{
+			if(references > 1) return false;
+		}
+
+		return getVersion().releaseLength(length);
+	}
+
+	/**
+	 * Reload the dictionary file if its size or modification time
+	 * changed since the current version was loaded
+	 * @return The pending reload, null if the file is unchanged
+	 */
+	public Future<Version> reloadIfChanged()
+	{
+		Version version = getVersion();
+
+		if(file.length() == version.size
+			&& file.lastModified() == version.lastModified)
+		{
+			return null;
+		}
+
+		return reload();
+	}
+
+	/**
+	 * Build a new version of the indices from the file in the
+	 * background and swap it in once built.  Games keep playing on
+	 * the old version meanwhile.
+	 * @return The pending reload, yielding the new version
+	 */
+	public synchronized Future<Version> reload()
+	{
+		if(pendingReload != null && false == pendingReload.isDone())
+		{
+			return pendingReload;
+		}
+
+		pendingReload = reloader.submit(new Callable<Version>()
+		{
+			public Version call() throws Exception
+			{
+				try
+				{
+					return HangmanDictionary.this.rebuild();
+				}
+				catch(Exception e)
+				{
+					System.err.println("Exception: " + e);
+					throw e;
+				}
+			}
+		});
+
+		return pendingReload;
+	}
+
+	/**
+	 * @return The dictionary file
+	 */
+	public File getFile()
+	{
+		return file;
+	}
+
+	/**
+	 * @return A Scanner of every word of the dictionary file, 
+	 * in the file's encoding
+	 */
+	public Scanner scan() throws IOException
+	{
+		InputStream input = new FileInputStream(file);
+
+		long skipped = 0;
+
+		while(skipped < bomLength)
+		{
+			skipped += input.skip(bomLength - skipped);
+		}
+
+		return new Scanner(input, charset.name());
+	}
+
+	/**
+	 * override of object toString() for HangmanDictionary
+	 * @return HangmanDictionary msg
+	 */
+	public String toString()
+	{
+		return "HangmanDictionary[" + file + ", " + current + "]";
+	}
+
+	/**
+	 * Build the new version, as a delta segment over the old one if
+	 * words were only appended to the file, and swap it in
+	 * @return The new version
+	 */
+	private Version rebuild() throws IOException
+	{
+		Version old = getVersion();
+
+		long lastModified = file.lastModified();
+
+		byte[] contents = readFile();
+
+		//Check whether the file still starts with the old contents
+		long[] sizeAndChecksum = checksum(contents, old.size, old.checksum);
+
+		long size = sizeAndChecksum[0];
+
+		List<Segment> segments = new ArrayList<Segment>();
+
+		if(sizeAndChecksum[2] == 1 && size > old.size)
+		{
+			segments.addAll(old.segments);
+			segments.add(newSegment(contents, old.size));
+		}
+		else
+		{
+			segments.add(newSegment(contents, 0));
+		}
+
+		Version version = new Version(this, segments, size, lastModified,
+			sizeAndChecksum[1], old.number + 1);
+
+		version.warmUp(old);
+
+		String identity = HangmanDictionary.identity(file);
+
+		synchronized(HangmanDictionary.class)
+		{
+			//Let acquire() find the reloaded file under its new identity
+			if(registry.get(this.identity) == this
+				&& false == registry.containsKey(identity))
+			{
+				registry.remove(this.identity);
+				registry.put(identity, this);
+
+				if(idle.remove(this.identity) != null) idle.put(identity, this);
+
+				this.identity = identity;
+			}
+
+			this.current = version;
+		}
+
+		HangmanUtil.clock(false, "Reloaded dictionary " + file + " as "
+			+ version);
+
+		return version;
+	}
+
+	/**
+	 * @return The words of the given length of the segment at the
+	 * index, less those in the segments before it, loaded on first use
+	 */
+	private Set<String> getSegmentWords(final List<Segment> segments, 
+		final int index, final int length)
+	{
+		final Segment segment = segments.get(index);
+
+		return segment.sizeWordMap.get(length, new Callable<Set<String>>()
+		{
+			public Set<String> call()
+			{
+				Set<String> words = load(segment, length);
+
+				for(int i=0; i<index; i++)
+				{
+					words.removeAll(getSegmentWords(segments, i, length));
+				}
+
+				return Collections.unmodifiableSet(words);
+			}
+		});
+	}
+
+	/**
+	 * @return The words of the given length read from the
+	 * segment's byte range of the file
+	 */
+	private Set<String> load(Segment segment, int length)
+	{
+		Set<String> words = new HashSet<String>();
+
+		Scanner input = new Scanner(new ByteArrayInputStream(segment.bytes), 
+			charset.name());
+
+		try
+		{
+			while(input.hasNext())
+			{
+				String word = input.next();
+
+				//We are only interested in words of answer length size
+				if(word.length() == length)
+				{
+					words.add(word);
+				}
+			}
+		}
+		finally
+		{
+			input.close();
+		}
+
+		HangmanUtil.verbose("dictionary " + file + " loaded " + words.size()
+			+ " words of length " + length + " from bytes " + segment.start
+			+ " to " + segment.end);
+
+		return words;
+	}
+
+	/**
+	 * @return The whole dictionary file as it is now
+	 */
+	private byte[] readFile() throws IOException
+	{
+		ByteArrayOutputStream contents = new ByteArrayOutputStream(
+			(int) Math.max(0, Math.min(Integer.MAX_VALUE, file.length())));
+
+		byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+		InputStream input = new FileInputStream(file);
+
+		try
+		{
+			int count;
+
+			while((count = input.read(buffer)) > 0)
+			{
+				contents.write(buffer, 0, count);
+			}
+		}
+		finally
+		{
+			input.close();
+		}
+
+		return contents.toByteArray();
+	}
+
+	/**
+	 * @return The segment of the contents from the start to their end,
+	 * holding its bytes less any byte order mark
+	 */
+	private Segment newSegment(byte[] contents, long start)
+	{
+		int from = (int) Math.min(contents.length, Math.max(start, bomLength));
+
+		return new Segment(start, contents.length,
+			Arrays.copyOfRange(contents, from, contents.length));
+	}
+
+	/**
+	 * Checksum the whole contents, also checking whether they start
+	 * with contents of the given size and checksum that end in
+	 * whitespace, so words appended after them are whole
+	 * @return The contents' size, their checksum and 1 if they start
+	 * with the given contents, 0 if not
+	 */
+	private long[] checksum(byte[] contents, long prefixSize,
+		long prefixChecksum)
+	{
+		CRC32 crc = new CRC32();
+
+		long prefix = 0;
+
+		if(prefixSize > 0 && prefixSize <= contents.length)
+		{
+			int head = (int) prefixSize;
+
+			crc.update(contents, 0, head);
+
+			if(crc.getValue() == prefixChecksum
+				&& endsInWhitespace(contents, head))
+			{
+				prefix = 1;
+			}
+
+			crc.update(contents, head, contents.length - head);
+		}
+		else
+		{
+			crc.update(contents, 0, contents.length);
+		}
+
+		return new long[]{contents.length, crc.getValue(), prefix};
+	}
+
+	/**
+	 * @return Whether the bytes before the end are a whitespace
+	 * character in the file's encoding
+	 */
+	private boolean endsInWhitespace(byte[] buffer, int end)
+	{
+		if(charset.name().equals("UTF-16LE"))
+		{
+			return end >= 2 && buffer[end - 1] == 0 
+				&& Character.isWhitespace(buffer[end - 2]);
+		}
+		else if(charset.name().equals("UTF-16BE"))
+		{
+			return end >= 2 && buffer[end - 2] == 0 
+				&& Character.isWhitespace(buffer[end - 1]);
+		}
+
+		return Character.isWhitespace(buffer[end - 1]);
+	}
+
+	/**
+	 * @return The number of words each letter appears in, and the
+	 * letters ranked by it
+	 */
+	private static LetterCounts tallyLetterCounts(Set<String> words,
+		HangmanAlphabet alphabet)
+	{
+		int[] tally = new int[alphabet.size()];
+
+		//Word number each letter was last counted in, so each letter
+		//counts once per word, and letter ids in first seen order
+		int[] counted = new int[alphabet.size()];
+		int[] order = new int[alphabet.size()];
+
+		int numLetters = 0;
+		int stamp = 0;
+
+		for(String word: words)
+		{
+			stamp++;
+
+			for(int i=0; i<word.length(); i++)
+			{
+				int id = alphabet.id(word.charAt(i));
+
+				if(counted[id] == stamp) continue;
+
+				counted[id] = stamp;
+
+				if(tally[id]++ == 0) order[numLetters++] = id;
+			}
+		}
+
+		int[] ranked = new int[numLetters];
+
+		alphabet.rank(tally, order, numLetters, numLetters, 
+			new long[numLetters], ranked);
+
+		return new LetterCounts(tally, ranked);
+	}
+}
@@ -0,0 +1,164 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/***
+ Exact endgame solver used by HangmanStrategy once only a handful of
+ words are possible (see the -endgame option).
+
+ The best guess for a set of possible words is found with an unlimited
+ HangmanSearch and kept in a table shared by all games of the run, so
+ an endgame seen before costs a single lookup.  Each RunContext has
+ its own solver, so concurrent runs neither mix their tables and
+ counts nor grow each other's memory.  The table holds at most
+ MAX_SOLUTIONS endgames, those met once it is full are solved again
+ every time.
+***/
+
+public class HangmanEndgame
+{
+	//Most endgames kept in the table of a run
+	static final int MAX_SOLUTIONS = 50000;
+
+	private final RunContext context;
+
+	//Best guesses keyed by the endgame state, see key()
+	private final Map<String, HangmanSearch.Move> solutions =
+		new ConcurrentHashMap<String, HangmanSearch.Move>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+
+	/**
+	 * Constructor.
+	 * @param RunContext of the run the endgames are solved for
+	 */
+	public HangmanEndgame(RunContext context)
+	{
+		if(context == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		this.context = context;
+	}
+
+
+	/**
+	 * Find the guess with the lowest expected final game score.
+	 * @param Set of possible hangman words (lowercase)
+	 * @param int number of wrong guesses still allowed
+	 * @param int current game score
+	 * @return The best next guess, or null if it couldn't be solved
+	 */
+	public HangmanSearch.Move solve(Set<String> possible,
+		int wrongRemaining, int score)
+	{
+		HangmanSearch.Move move = null;
+
+		try
+		{
+			if(possible == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) "
+					+ "can't be null");
+			}
+
+			/*
+			  Every wrong guess takes at least one word out of the set,
+			  so with n words at most n - 1 more wrong guesses are made.
+			  If that many are still allowed the game can't be lost,
+			  the score doesn't change the best guess, and any extra
+			  wrong guesses don't either.
+			*/
+			int size = possible.size();
+
+			if(wrongRemaining >= size - 1)
+			{
+				wrongRemaining = size - 1;
+				score = 0;
+			}
+
+			String key = key(possible, wrongRemaining, score);
+
+			move = solutions.get(key);
+
+			if(move != null)
+			{
+				hits.incrementAndGet();
+			}
+			else
+			{
+				misses.incrementAndGet();
+
+				move = HangmanSearch.solve(possible, wrongRemaining, score);
+
+				//Concurrent games may overshoot the limit by a few
+				if(move != null && solutions.size() < MAX_SOLUTIONS)
+				{
+					solutions.put(key, move);
+				}
+			}
+
+			context.verbose("endgame picked " + move);
+		}
+		catch(Exception e)
+		{
+			System.err.println("Exception: " + e);
+		}
+
+		return move;
+	}
+
+	/**
+	 * @return The number of endgames answered from the table
+	 */
+	public long getHits()
+	{
+		return hits.get();
+	}
+
+	/**
+	 * @return The number of endgames that had to be solved
+	 */
+	public long getMisses()
+	{
+		return misses.get();
+	}
+
+	/**
+	 * Reset the table of solved endgames
+	 */
+	public void clear()
+	{
+		solutions.clear();
+		hits.set(0);
+		misses.set(0);
+	}
+
+	/**
+	 * @return Key of the endgame, the sorted possible words
+	 * along with the wrong guesses remaining and score
+	 */
+	private static String key(Set<String> possible, int wrongRemaining,
+		int score)
+	{
+		String[] words = possible.toArray(new String[possible.size()]);
+		Arrays.sort(words);
+
+		StringBuilder key = new StringBuilder();
+
+		for(String word: words)
+		{
+			key.append(word).append(',');
+		}
+
+		key.append(wrongRemaining).append(':').append(score);
+
+		return key.toString();
+	}
+}
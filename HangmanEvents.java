@@ -0,0 +1,191 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/***
+ Java Flight Recorder events of the games, guesses, initializations
+ and possible word filtering of HangmanStrategy.
+
+ Unlike the clock2 output they cost next to nothing unless recorded,
+ so they can be left on in production, and a recording lines up the
+ strategy's hot spots with the GC and CPU samples of the same run:
+
+	java -XX:StartFlightRecording=filename=hangman.jfr PlayHangman ...
+	jfr print --events hangman.Guess hangman.jfr
+
+ Loading an event class starts up the recorder's machinery, about a
+ third of a second, so the events are begun through the factory
+ methods below, which return null unless Flight Recorder is running in
+ the JVM, from the command line or a later jcmd JFR.start.  Without it
+ no event class is loaded.  Otherwise the usual idiom applies: each
+ field is filled in only if the event's shouldCommit() says it is
+ going to be recorded, then the event is committed.
+***/
+
+public class HangmanEvents
+{
+	/**
+	 * One game, from the first guess to the end of the game
+	 */
+	@Name("hangman.Game")
+	@Label("Hangman Game")
+	@Category("Hangman")
+	static class Game extends Event
+	{
+		@Label("Word Length")
+		int wordLength;
+
+		@Label("Score")
+		int score;
+
+		@Label("Guesses")
+		int guesses;
+
+		@Label("Won")
+		boolean won;
+	}
+
+	/**
+	 * Deciding one guess, including filtering the possible words with
+	 * the outcome of the previous one
+	 */
+	@Name("hangman.Guess")
+	@Label("Hangman Guess")
+	@Category("Hangman")
+	static class Guess extends Event
+	{
+		@Label("Word Length")
+		int wordLength;
+
+		@Label("Candidates Before")
+		@Description("Possible words before the previous guess's outcome "
+			+ "was applied")
+		int candidatesBefore;
+
+		@Label("Candidates After")
+		@Description("Possible words the guess was chosen from")
+		int candidatesAfter;
+
+		@Label("Branch")
+		@Description("How the guess was decided, see HangmanStrategy.Branch")
+		String branch;
+
+		@Label("Letter")
+		char letter;
+
+		@Label("Word")
+		@Description("The word guessed, if a word was guessed")
+		String word;
+	}
+
+	/**
+	 * Setting up the possible words and letter counts of a game
+	 */
+	@Name("hangman.Initialize")
+	@Label("Hangman Strategy Initialize")
+	@Category("Hangman")
+	static class Initialize extends Event
+	{
+		@Label("Word Length")
+		int wordLength;
+
+		@Label("Candidates")
+		int candidates;
+
+		@Label("Alphabet Size")
+		int alphabetSize;
+	}
+
+	/**
+	 * Filtering the possible words by a guessed letter
+	 */
+	@Name("hangman.Filter")
+	@Label("Hangman Filter Words")
+	@Category("Hangman")
+	static class Filter extends Event
+	{
+		@Label("Word Length")
+		int wordLength;
+
+		@Label("Candidates Before")
+		int candidatesBefore;
+
+		@Label("Candidates After")
+		@Description("Possible words left, or that would be left when "
+			+ "simulated")
+		int candidatesAfter;
+
+		@Label("Letter")
+		char letter;
+
+		@Label("Correct")
+		@Description("Whether the letter is in the word")
+		boolean correct;
+
+		@Label("Simulated")
+		@Description("Whether the possible words were left unchanged to "
+			+ "score the letter")
+		boolean simulated;
+	}
+
+	/**
+	 * @return A begun game event, null without Flight Recorder
+	 */
+	static Game beginGame()
+	{
+		if(false == FlightRecorder.isInitialized()) return null;
+
+		Game event = new Game();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @return A begun guess event, null without Flight Recorder
+	 */
+	static Guess beginGuess()
+	{
+		if(false == FlightRecorder.isInitialized()) return null;
+
+		Guess event = new Guess();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @return A begun initialize event, null without Flight Recorder
+	 */
+	static Initialize beginInitialize()
+	{
+		if(false == FlightRecorder.isInitialized()) return null;
+
+		Initialize event = new Initialize();
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @return A begun filter event, null without Flight Recorder
+	 */
+	static Filter beginFilter()
+	{
+		if(false == FlightRecorder.isInitialized()) return null;
+
+		Filter event = new Filter();
+		event.begin();
+
+		return event;
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanEvents()
+	{
+
+	}
+}
@@ -62,6 +62,15 @@ class HangmanGame {
    * (which will contain MYSTERY_LETTER in place of unknown letters)
    */
   public String guessLetter(char ch) {
+    applyLetter(ch);
+    return getGuessedSoFar();
+  }
+
+  /**
+   * Guess the specified letter and update the game state accordingly,
+   * without building the string representation of the game state
+   */
+  public void applyLetter(char ch) {
     assertCanKeepGuessing();
     ch = Character.toUpperCase(ch);
 
@@ -80,8 +89,6 @@ class HangmanGame {
     } else {
       incorrectlyGuessedLetters.add(ch);
     }
-
-    return getGuessedSoFar();
   }
 
   /**
@@ -90,6 +97,15 @@ class HangmanGame {
    * (which will contain MYSTERY_LETTER in place of unknown letters)
    */
   public String guessWord(String guess) {
+    applyWord(guess);
+    return getGuessedSoFar();
+  }
+
+  /**
+   * Guess the specified word and update the game state accordingly,
+   * without building the string representation of the game state
+   */
+  public void applyWord(String guess) {
     assertCanKeepGuessing();
     guess = guess.toUpperCase();
 
@@ -101,8 +117,6 @@ class HangmanGame {
     } else {
       incorrectlyGuessedWords.add(guess);
     }
-
-    return getGuessedSoFar();
   }
 
   /**
@@ -126,7 +140,7 @@ class HangmanGame {
    * @return The current game status
    */
   public Status gameStatus() {
-    if (secretWord.equals(getGuessedSoFar())) {
+    if (isSolved()) {
       return Status.GAME_WON;
     } else if (numWrongGuessesMade() > maxWrongGuesses) {
       return Status.GAME_LOST;
@@ -135,6 +149,21 @@ class HangmanGame {
     }
   }
 
+  /**
+   * @return true if every letter of the secret word has been revealed
+   */
+  private boolean isSolved() {
+    if (guessedSoFar.length != secretWord.length()) {
+      return false;
+    }
+    for (int i = 0; i < guessedSoFar.length; i++) {
+      if (guessedSoFar[i] != secretWord.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * @return Number of wrong guesses made so far
    */
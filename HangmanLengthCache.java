@@ -0,0 +1,188 @@
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ Values computed once per word length and then shared, such as the
+ dictionary words of a length or their letter counts.
+
+ Loading is single flight: the first thread to ask for a length runs
+ the loader, any other thread asking for it meanwhile waits on the same
+ future instead of loading it again, and lengths load independently of
+ each other.  A load that fails is forgotten so the next request tries
+ again.  Keeps the time each length took to load and how many requests
+ had to wait for a load in progress.
+***/
+
+public class HangmanLengthCache<V>
+{
+	private final String name;
+
+	private final ConcurrentMap<Integer, FutureTask<V>> entries =
+		new ConcurrentHashMap<Integer, FutureTask<V>>();
+
+	//Load time in ns of each loaded length
+	private final ConcurrentMap<Integer, Long> loadNanos =
+		new ConcurrentHashMap<Integer, Long>();
+
+	private final AtomicInteger waits = new AtomicInteger(0);
+
+
+	/**
+	 * Constructor.
+	 * @param String name of the values, for metrics and messages
+	 */
+	public HangmanLengthCache(String name)
+	{
+		if(name == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		this.name = name;
+	}
+
+	/**
+	 * @param int word length
+	 * @param Callable computing the value of the length, run only if
+	 * 				no other thread has loaded or is loading it
+	 * @return The value of the length
+	 */
+	public V get(int length, Callable<V> loader)
+	{
+		FutureTask<V> task = entries.get(length);
+
+		if(task == null)
+		{
+			FutureTask<V> created = new FutureTask<V>(loader);
+
+			task = entries.putIfAbsent(length, created);
+
+			if(task == null)
+			{
+				task = created;
+
+				HangmanMetrics.getInstance().cacheLookup(false);
+
+				long start = System.nanoTime();
+
+				task.run();
+
+				loadNanos.put(length, System.nanoTime() - start);
+			}
+			else
+			{
+				HangmanMetrics.getInstance().cacheLookup(true);
+
+				if(false == task.isDone()) waits.incrementAndGet();
+			}
+		}
+		else
+		{
+			HangmanMetrics.getInstance().cacheLookup(true);
+
+			if(false == task.isDone()) waits.incrementAndGet();
+		}
+
+		try
+		{
+			return task.get();
+		}
+		catch(InterruptedException ie)
+		{
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException("Interrupted loading " + name
+				+ " of length " + length);
+		}
+		catch(ExecutionException ee)
+		{
+			entries.remove(length, task);
+			loadNanos.remove(length);
+
+			Throwable cause = ee.getCause();
+
+			if(cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+
+			if(cause instanceof Error)
+			{
+				throw (Error) cause;
+			}
+
+			throw new IllegalStateException("Unable to load " + name
+				+ " of length " + length + ": " + cause);
+		}
+	}
+
+	/**
+	 * Forget the value of the length, so it can be garbage collected
+	 * and is loaded again by the next request.  Keeps its load time.
+	 * @param int word length
+	 * @return true if the length was loaded or being loaded
+	 */
+	public boolean remove(int length)
+	{
+		return null != entries.remove(length);
+	}
+
+	/**
+	 * @return The lengths loaded or being loaded
+	 */
+	public Set<Integer> lengths()
+	{
+		return Collections.unmodifiableSet(entries.keySet());
+	}
+
+	/**
+	 * @return The load time in ms of each loaded length, by length
+	 */
+	public Map<Integer, Double> getLoadTimes()
+	{
+		Map<Integer, Double> times = new TreeMap<Integer, Double>();
+
+		for(Map.Entry<Integer, Long> entry: loadNanos.entrySet())
+		{
+			times.put(entry.getKey(), entry.getValue() / 1000000.0);
+		}
+
+		return times;
+	}
+
+	/**
+	 * @return The number of requests that waited for another thread's
+	 * load of the same length
+	 */
+	public int getWaits()
+	{
+		return waits.get();
+	}
+
+	/**
+	 * override of object toString() for HangmanLengthCache
+	 * @return HangmanLengthCache msg with the load metrics
+	 */
+	public String toString()
+	{
+		double total = 0;
+
+		for(double time: getLoadTimes().values())
+		{
+			total += time;
+		}
+
+		return name + "[" + loadNanos.size() + " lengths loaded in "
+			+ total + " ms, " + waits.get() + " waits, ms by length "
+			+ getLoadTimes() + "]";
+	}
+}
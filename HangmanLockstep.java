@@ -0,0 +1,247 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/***
+ Plays many games of one word length in lockstep, sharing the work of
+ the strategy between the games that are in the same state.
+
+ HangmanStrategy decides its guesses from nothing but the answer length
+ and the outcomes of its guesses so far, so games that have seen the
+ same outcomes (the same revealed pattern and the same wrong guesses)
+ get the same next guess.  The games start as a single group with a
+ single strategy.  Each step asks the group's strategy for its next
+ guess once and applies it to every game of the group, which then
+ splits by outcome: each new group carries on with a copy of the
+ strategy (see HangmanStrategy.copy), the last one with the strategy
+ itself.  Strategy work then grows with the number of distinct game
+ states rather than with the number of games.
+
+ Groups are played depth first, so only the strategies along one path
+ of outcomes and their pending siblings are alive at once.
+
+ Turned on with the -lockstep option, which also plays a batch grouped
+ by length (see HangmanBatchScheduler).
+ Implemented exclusively through static class methods.
+***/
+
+public class HangmanLockstep
+{
+	//Guess count of a game the strategy made no guess for
+	static final int FAILED = -1;
+
+	/*
+		Games in the same state and the strategy deciding their guesses
+	*/
+	private static class Group
+	{
+		private final HangmanStrategy strategy;
+		private final List<Integer> games;
+		private final int depth;
+
+		private Group(HangmanStrategy strategy, List<Integer> games,
+			int depth)
+		{
+			this.strategy = strategy;
+			this.games = games;
+			this.depth = depth;
+		}
+	}
+
+
+	/**
+	 * Play the games of the secrets, which must all be of one length,
+	 * until each is won or lost.
+	 * @param RunContext of the run
+	 * @param List of secret words
+	 * @param int[] filled in with the number of guesses of each game,
+	 * 				FAILED for a game the strategy couldn't finish
+	 * @return The finished game of each secret, in the order given
+	 */
+	public static HangmanGame[] play(RunContext context,
+		List<String> secrets, int[] guesses) throws Exception
+	{
+		if(context == null || secrets == null || guesses == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		if(guesses.length < secrets.size())
+		{
+			throw new IllegalArgumentException("Guess counts array of "
+				+ guesses.length + " can't hold " + secrets.size()
+				+ " games");
+		}
+
+		HangmanGame[] games = new HangmanGame[secrets.size()];
+
+		if(secrets.isEmpty()) return games;
+
+		List<Integer> all = new ArrayList<Integer>();
+
+		for(int i=0; i<games.length; i++)
+		{
+			if(secrets.get(i).length() != secrets.get(0).length())
+			{
+				throw new IllegalArgumentException("Lockstep games must "
+					+ "be of one length, not " + secrets.get(0) + " and "
+					+ secrets.get(i));
+			}
+
+			games[i] = new HangmanGame(secrets.get(i),
+				PlayHangman.MAX_WRONG_GUESSES);
+
+			all.add(i);
+		}
+
+		context.prepareStumpers();
+
+		long start = System.nanoTime();
+
+		Deque<Group> pending = new ArrayDeque<Group>();
+
+		pending.push(new Group(new HangmanStrategy(games[0], context), all,
+			0));
+
+		try
+		{
+			HangmanLockstep.play(context, games, guesses, pending);
+		}
+		finally
+		{
+			//Only left over if a game failed
+			for(Group group: pending)
+			{
+				group.strategy.end();
+			}
+		}
+
+		//The games shared their work, so each is counted at an equal
+		//share of the time of the length
+		long nanos = (System.nanoTime() - start) / games.length;
+
+		for(int i=0; i<games.length; i++)
+		{
+			if(guesses[i] == FAILED) continue;
+
+			HangmanMetrics.getInstance().gameCompleted(
+				games[i].getSecretWordLength(), nanos, guesses[i]);
+		}
+
+		context.clock2("Played " + games.length + " games of length "
+			+ games[0].getSecretWordLength() + " in lockstep");
+
+		return games;
+	}
+
+	/**
+	 * Play the pending groups of games, and the groups they split 
+	 * into, depth first
+	 */
+	private static void play(RunContext context, HangmanGame[] games,
+		int[] guesses, Deque<Group> pending)
+	{
+		while(false == pending.isEmpty())
+		{
+			Group group = pending.pop();
+
+			HangmanGame first = games[group.games.get(0)];
+
+			//One decision for every game of the group
+			int code = group.strategy.nextGuessCode(first);
+
+			//The games of the group fail, as PlayHangman's would
+			if(code == HangmanStrategy.NO_GUESS)
+			{
+				context.getErrors().println("Strategy made no guess for "
+					+ group.games.size() + " games of length "
+					+ first.getSecretWordLength());
+
+				for(int index: group.games)
+				{
+					guesses[index] = FAILED;
+				}
+
+				group.strategy.end();
+				continue;
+			}
+
+			String word = group.strategy.getWordGuess();
+
+			//Split the games by outcome, in the order of the group
+			Map<String, List<Integer>> outcomes =
+				new LinkedHashMap<String, List<Integer>>();
+
+			for(int index: group.games)
+			{
+				HangmanGame game = games[index];
+
+				if(code == HangmanStrategy.GUESS_WORD)
+				{
+					game.applyWord(word);
+				}
+				else
+				{
+					game.applyLetter((char) code);
+				}
+
+				if(game.gameStatus() != HangmanGame.Status.KEEP_GUESSING)
+				{
+					guesses[index] = group.depth + 1;
+					continue;
+				}
+
+				String outcome = game.getGuessedSoFar() + " "
+					+ game.numWrongGuessesMade();
+
+				List<Integer> same = outcomes.get(outcome);
+
+				if(same == null)
+				{
+					same = new ArrayList<Integer>();
+					outcomes.put(outcome, same);
+				}
+
+				same.add(index);
+			}
+
+			if(outcomes.isEmpty())
+			{
+				group.strategy.end();
+				continue;
+			}
+
+			//Copies are taken before the strategy moves on, the last
+			//outcome carrying on with the strategy itself
+			List<Group> next = new ArrayList<Group>();
+
+			int left = outcomes.size();
+
+			for(List<Integer> same: outcomes.values())
+			{
+				left--;
+
+				HangmanStrategy strategy = left == 0
+					? group.strategy : group.strategy.copy();
+
+				next.add(new Group(strategy, same, group.depth + 1));
+			}
+
+			//Pushed in reverse so the groups are played in order
+			for(int i=next.size() - 1; i>=0; i--)
+			{
+				pending.push(next.get(i));
+			}
+		}
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanLockstep()
+	{
+
+	}
+}
@@ -0,0 +1,357 @@
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+import javax.management.ObjectName;
+
+/***
+ Live game throughput and strategy metrics of the JVM, for watching a
+ long batch or stumper run with jconsole or any JMX client: games and
+ guesses per second, time per game, games by word length, stumper
+ hits, word cache hit rate and batch progress.
+
+ The one instance counts the games of every run in the JVM.  The
+ counters are striped adders, so that the game loops of many threads
+ update them without contending.
+
+ Creating the platform MBean server takes about a third of a second,
+ so the metrics are only published there, as hangman:type=Metrics, by
+ register(): the daemon always does, other runs with the -jmx option.
+ Once published the game and guess counts are sampled every second,
+ and the per second rates are those of the last RATE_WINDOW_SECONDS.
+***/
+
+public class HangmanMetrics implements HangmanMetricsMBean
+{
+	static final String OBJECT_NAME = "hangman:type=Metrics";
+
+	//Longest word length counted by length, longer words count as it
+	private static final int MAX_LENGTH = 64;
+
+	//Seconds the per second rates are measured over
+	static final int RATE_WINDOW_SECONDS = 10;
+
+	private static final HangmanMetrics instance = new HangmanMetrics();
+
+	//Set once the metrics are published, see register()
+	private static boolean registered = false;
+
+	private final LongAdder games = new LongAdder();
+	private final LongAdder guesses = new LongAdder();
+	private final LongAdder gameNanos = new LongAdder();
+
+	private final LongAccumulator maxGameNanos =
+		new LongAccumulator(new LongBinaryOperator()
+		{
+			public long applyAsLong(long left, long right)
+			{
+				return Math.max(left, right);
+			}
+		}, 0);
+
+	private final LongAdder[] gamesByLength = 
+		HangmanMetrics.newAdders(MAX_LENGTH + 1);
+
+	private final LongAdder stumperHits = new LongAdder();
+
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+
+	private final LongAdder batchPlayed = new LongAdder();
+	private volatile long batchTotal = 0;
+
+	//Time, games and guesses of the last samples, taken every second
+	//once published, in a ring of one more than the window
+	private final long[] sampleNanos = new long[RATE_WINDOW_SECONDS + 1];
+	private final long[] sampleGames = new long[RATE_WINDOW_SECONDS + 1];
+	private final long[] sampleGuesses = new long[RATE_WINDOW_SECONDS + 1];
+	private int numSamples = 0;
+
+
+	/**
+	 * @return The metrics of the JVM
+	 */
+	public static HangmanMetrics getInstance()
+	{
+		return instance;
+	}
+
+	/**
+	 * Publish the metrics with the platform MBean server and start
+	 * sampling their rates, unless already done
+	 */
+	public static synchronized void register()
+	{
+		if(true == registered) return;
+
+		registered = true;
+
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().registerMBean(
+				instance, new ObjectName(OBJECT_NAME));
+		}
+		catch(Exception e)
+		{
+			System.err.println("Exception: " + e);
+		}
+
+		ScheduledExecutorService sampler = 
+			Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+		{
+			public Thread newThread(Runnable task)
+			{
+				Thread thread = new Thread(task, "hangman-metrics");
+				thread.setDaemon(true);
+
+				return thread;
+			}
+		});
+
+		sampler.scheduleAtFixedRate(new Runnable()
+		{
+			public void run()
+			{
+				instance.sample();
+			}
+		}, 0, 1, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Count a completed game
+	 * @param int word length
+	 * @param long time the game took in ns, initialization included
+	 * @param int number of guesses made
+	 */
+	public void gameCompleted(int length, long nanos, int guessCount)
+	{
+		this.games.increment();
+		this.guesses.add(guessCount);
+		this.gameNanos.add(nanos);
+		this.maxGameNanos.accumulate(nanos);
+
+		this.gamesByLength[Math.max(0, Math.min(length, MAX_LENGTH))]
+			.increment();
+	}
+
+	/**
+	 * Count a guess decided by the stumper words
+	 */
+	public void stumperHit()
+	{
+		this.stumperHits.increment();
+	}
+
+	/**
+	 * Count a per length word cache lookup
+	 * @param boolean true if the length was already loaded or being
+	 * 				loaded by another thread
+	 */
+	public void cacheLookup(boolean hit)
+	{
+		if(true == hit)
+		{
+			this.cacheHits.increment();
+		}
+		else
+		{
+			this.cacheMisses.increment();
+		}
+	}
+
+	/**
+	 * Start counting the progress of a batch
+	 * @param long number of words of the batch
+	 */
+	public void batchStarted(long total)
+	{
+		this.batchPlayed.reset();
+		this.batchTotal = total;
+	}
+
+	/**
+	 * Count a word of the batch as played
+	 */
+	public void batchWordPlayed()
+	{
+		this.batchPlayed.increment();
+	}
+
+	public long getGamesCompleted()
+	{
+		return this.games.sum();
+	}
+
+	public double getGamesPerSecond()
+	{
+		return perSecond(this.sampleGames);
+	}
+
+	public double getGuessesPerSecond()
+	{
+		return perSecond(this.sampleGuesses);
+	}
+
+	public double getAverageMsPerGame()
+	{
+		long count = this.games.sum();
+
+		return count == 0 ? 0 : this.gameNanos.sum() / 1000000.0 / count;
+	}
+
+	public double getMaxMsPerGame()
+	{
+		return this.maxGameNanos.get() / 1000000.0;
+	}
+
+	public String getGamesByLength()
+	{
+		Map<Integer, Long> counts = new LinkedHashMap<Integer, Long>();
+
+		for(int i=0; i<this.gamesByLength.length; i++)
+		{
+			long count = this.gamesByLength[i].sum();
+
+			if(count > 0) counts.put(i, count);
+		}
+
+		return counts.toString();
+	}
+
+	public long getStumperHits()
+	{
+		return this.stumperHits.sum();
+	}
+
+	public double getWordCacheHitRate()
+	{
+		long hits = this.cacheHits.sum();
+		long lookups = hits + this.cacheMisses.sum();
+
+		return lookups == 0 ? 0 : hits / (double) lookups;
+	}
+
+	public long getBatchWordsPlayed()
+	{
+		return this.batchPlayed.sum();
+	}
+
+	public long getBatchWordsTotal()
+	{
+		return this.batchTotal;
+	}
+
+	public double getBatchProgressPercent()
+	{
+		long total = this.batchTotal;
+
+		return total == 0 ? 0 : 100.0 * this.batchPlayed.sum() / total;
+	}
+
+	public void reset()
+	{
+		synchronized(this.sampleNanos)
+		{
+			this.numSamples = 0;
+		}
+
+		this.games.reset();
+		this.guesses.reset();
+		this.gameNanos.reset();
+		this.maxGameNanos.reset();
+
+		for(LongAdder count: this.gamesByLength)
+		{
+			count.reset();
+		}
+
+		this.stumperHits.reset();
+		this.cacheHits.reset();
+		this.cacheMisses.reset();
+
+		this.batchPlayed.reset();
+		this.batchTotal = 0;
+	}
+
+	/**
+	 * override of object toString() for HangmanMetrics
+	 * @return HangmanMetrics msg
+	 */
+	public String toString()
+	{
+		return "HangmanMetrics[" + getGamesCompleted() + " games, "
+			+ getGamesPerSecond() + " games/s, " + getGuessesPerSecond()
+			+ " guesses/s, " + getAverageMsPerGame() + " ms average, "
+			+ getMaxMsPerGame() + " ms max, " + getStumperHits()
+			+ " stumper hits, word cache hit rate "
+			+ getWordCacheHitRate() + "]";
+	}
+
+	/**
+	 * Sample the time and the game and guess counts
+	 */
+	private void sample()
+	{
+		synchronized(this.sampleNanos)
+		{
+			int next = this.numSamples % this.sampleNanos.length;
+
+			this.sampleNanos[next] = System.nanoTime();
+			this.sampleGames[next] = this.games.sum();
+			this.sampleGuesses[next] = this.guesses.sum();
+
+			this.numSamples++;
+		}
+	}
+
+	/**
+	 * @return The per second rate of the sampled count between the
+	 * newest sample and the oldest kept, up to the window before it,
+	 * 0 until there are two samples
+	 */
+	private double perSecond(long[] counts)
+	{
+		synchronized(this.sampleNanos)
+		{
+			if(this.numSamples < 2) return 0;
+
+			int size = this.sampleNanos.length;
+
+			int newest = (this.numSamples - 1) % size;
+			int oldest = this.numSamples < size ? 0 : this.numSamples % size;
+
+			double seconds = (this.sampleNanos[newest] 
+				- this.sampleNanos[oldest]) / 1000000000.0;
+
+			return seconds <= 0 ? 0 
+				: (counts[newest] - counts[oldest]) / seconds;
+		}
+	}
+
+	/**
+	 * @return An array of new adders
+	 */
+	private static LongAdder[] newAdders(int count)
+	{
+		LongAdder[] adders = new LongAdder[count];
+
+		for(int i=0; i<count; i++)
+		{
+			adders[i] = new LongAdder();
+		}
+
+		return adders;
+	}
+
+	// Metrics are only had through getInstance()
+	private HangmanMetrics()
+	{
+
+	}
+}
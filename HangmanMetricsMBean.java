@@ -0,0 +1,72 @@
+/***
+ Management interface of HangmanMetrics, the live game throughput 
+ and strategy metrics of the JVM, registered with the platform MBean
+ server as hangman:type=Metrics.
+***/
+
+public interface HangmanMetricsMBean
+{
+	/**
+	 * @return The number of games completed since the first game 
+	 * or the last reset
+	 */
+	long getGamesCompleted();
+
+	/**
+	 * @return Games completed per second over the last 
+	 * HangmanMetrics.RATE_WINDOW_SECONDS
+	 */
+	double getGamesPerSecond();
+
+	/**
+	 * @return Guesses made per second over the last 
+	 * HangmanMetrics.RATE_WINDOW_SECONDS
+	 */
+	double getGuessesPerSecond();
+
+	/**
+	 * @return The average time of a game in ms, initialization included
+	 */
+	double getAverageMsPerGame();
+
+	/**
+	 * @return The longest time a game took in ms, initialization included
+	 */
+	double getMaxMsPerGame();
+
+	/**
+	 * @return The number of games completed by word length
+	 */
+	String getGamesByLength();
+
+	/**
+	 * @return The number of guesses decided by the stumper words
+	 */
+	long getStumperHits();
+
+	/**
+	 * @return The share of per length word cache lookups that found
+	 * the length already loaded, from 0 to 1
+	 */
+	double getWordCacheHitRate();
+
+	/**
+	 * @return The number of words played of the current batch
+	 */
+	long getBatchWordsPlayed();
+
+	/**
+	 * @return The number of words of the current batch, 0 if none
+	 */
+	long getBatchWordsTotal();
+
+	/**
+	 * @return The percentage of the current batch played
+	 */
+	double getBatchProgressPercent();
+
+	/**
+	 * Start the counts and rates again from zero
+	 */
+	void reset();
+}
@@ -0,0 +1,169 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/***
+ CPU time profile of the ways HangmanStrategy.getNextLetter decides a
+ letter (see HangmanStrategy.Branch), so that optimization work can
+ target the path that matters.  Keeps the nanoseconds spent and the
+ number of calls per branch and per word length bucket, and prints
+ them ranked by time.
+
+ Turned on with the -profile option.  The games of a run may record
+ into it from several threads at once.
+***/
+
+public class HangmanProfile
+{
+	//Longest word length of each bucket but the last, which holds
+	//the longer words
+	private static final int[] BUCKET_LIMITS = new int[]{4, 6, 8, 10, 12};
+
+	private static final HangmanStrategy.Branch[] BRANCHES =
+		HangmanStrategy.Branch.values();
+
+	private static final int BUCKETS = BUCKET_LIMITS.length + 1;
+
+	//Indexed by branch ordinal * BUCKETS + bucket
+	private final AtomicLongArray nanos =
+		new AtomicLongArray(BRANCHES.length * BUCKETS);
+	private final AtomicLongArray calls =
+		new AtomicLongArray(BRANCHES.length * BUCKETS);
+
+
+	/**
+	 * Count one call that took the branch
+	 * @param HangmanStrategy.Branch taken
+	 * @param int word length
+	 * @param long time the call took in ns
+	 */
+	public void record(HangmanStrategy.Branch branch, int length, long ns)
+	{
+		if(branch == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		int index = branch.ordinal() * BUCKETS + HangmanProfile.bucket(length);
+
+		this.nanos.addAndGet(index, ns);
+		this.calls.incrementAndGet(index);
+	}
+
+	/**
+	 * Print the branches ranked by the time spent in them, first in
+	 * total and then by word length bucket
+	 * @param PrintStream output
+	 */
+	public void print(PrintStream output)
+	{
+		long total = 0;
+
+		long[] branchNanos = new long[BRANCHES.length];
+		long[] branchCalls = new long[BRANCHES.length];
+
+		List<Integer> rows = new ArrayList<Integer>();
+
+		for(int i=0; i<this.nanos.length(); i++)
+		{
+			if(this.calls.get(i) == 0) continue;
+
+			total += this.nanos.get(i);
+
+			branchNanos[i / BUCKETS] += this.nanos.get(i);
+			branchCalls[i / BUCKETS] += this.calls.get(i);
+
+			rows.add(i);
+		}
+
+		List<Integer> branches = new ArrayList<Integer>();
+
+		for(int i=0; i<BRANCHES.length; i++)
+		{
+			if(branchCalls[i] > 0) branches.add(i);
+		}
+
+		final long[] sortNanos = branchNanos;
+
+		Collections.sort(branches, new Comparator<Integer>()
+		{
+			public int compare(Integer a, Integer b)
+			{
+				return Long.compare(sortNanos[b], sortNanos[a]);
+			}
+		});
+
+		Collections.sort(rows, new Comparator<Integer>()
+		{
+			public int compare(Integer a, Integer b)
+			{
+				return Long.compare(nanos.get(b), nanos.get(a));
+			}
+		});
+
+		output.println("[PROFILE] getNextLetter time by branch");
+		output.println(String.format("%-10s %-8s %10s %12s %7s %12s",
+			"branch", "length", "calls", "total ms", "%", "us per call"));
+
+		for(int i: branches)
+		{
+			output.println(HangmanProfile.row(BRANCHES[i].name(), "all",
+				branchCalls[i], branchNanos[i], total));
+		}
+
+		output.println("");
+		output.println("[PROFILE] getNextLetter time by branch and length");
+		output.println(String.format("%-10s %-8s %10s %12s %7s %12s",
+			"branch", "length", "calls", "total ms", "%", "us per call"));
+
+		for(int i: rows)
+		{
+			output.println(HangmanProfile.row(BRANCHES[i / BUCKETS].name(),
+				HangmanProfile.bucketName(i % BUCKETS), this.calls.get(i),
+				this.nanos.get(i), total));
+		}
+	}
+
+	/**
+	 * @return One line of the table
+	 */
+	private static String row(String branch, String length, long calls,
+		long ns, long total)
+	{
+		return String.format("%-10s %-8s %10d %12.3f %7.2f %12.3f", branch,
+			length, calls, ns / 1000000.0,
+			total == 0 ? 0 : 100.0 * ns / total, ns / 1000.0 / calls);
+	}
+
+	/**
+	 * @return The bucket of the word length
+	 */
+	private static int bucket(int length)
+	{
+		for(int i=0; i<BUCKET_LIMITS.length; i++)
+		{
+			if(length <= BUCKET_LIMITS[i]) return i;
+		}
+
+		return BUCKET_LIMITS.length;
+	}
+
+	/**
+	 * @return The range of word lengths of the bucket
+	 */
+	private static String bucketName(int bucket)
+	{
+		if(bucket == BUCKET_LIMITS.length)
+		{
+			return (BUCKET_LIMITS[bucket - 1] + 1) + "+";
+		}
+
+		int low = bucket == 0 ? 1 : BUCKET_LIMITS[bucket - 1] + 1;
+
+		return low + "-" + BUCKET_LIMITS[bucket];
+	}
+}
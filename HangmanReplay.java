@@ -0,0 +1,257 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.lang.reflect.Constructor;
+import java.io.File;
+import java.io.IOException;
+
+/***
+ Replays the games of a guess trace file (see the -trace option)
+ against a GuessingStrategy, without any verbose logging.
+
+ Every traced word is played again from scratch, reporting the first
+ guess where the strategy parts from the recorded game, the replayed
+ versus recorded scores, and the games that took the longest to
+ decide.  Repeating the replay keeps the hot spots running long
+ enough to attach a profiler.  Implemented exclusively through static
+ class methods.
+***/
+
+public class HangmanReplay
+{
+	//Number of slowest games reported
+	private static final int NUM_SLOWEST = 10;
+
+	//Guard against a strategy that never finishes a game
+	private static final int MAX_GUESSES = 100;
+
+	//Strategy replayed unless told otherwise
+	static final String DEFAULT_STRATEGY = "HangmanStrategy";
+
+
+	/**
+	 * Replay every game of the trace file.
+	 * @param File guess trace file
+	 * @param String class name of the GuessingStrategy to replay, which
+	 * 				needs either a HangmanGame or a no argument constructor
+	 * @param int number of times to replay the games
+	 * @return The number of games that parted from the recorded game
+	 */
+	public static int replay(File traceFile, String strategyName, int repeat)
+		throws IOException
+	{
+		if(traceFile == null || strategyName == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		if(repeat <= 0)
+		{
+			throw new IllegalArgumentException("Replay count must be "
+				+ "positive: " + repeat);
+		}
+
+		HangmanUtil.prepareStumpers();
+
+		Constructor<?> constructor = HangmanReplay.strategyConstructor(
+			strategyName);
+
+		final List<GuessTrace> traces = GuessTraceFile.read(traceFile);
+
+		int numGames = traces.size();
+
+		final long[] nanos = new long[numGames];
+		int[] scores = new int[numGames];
+
+		int diverged = 0;
+
+		HangmanUtil.clock("Replaying " + numGames + " games of " + traceFile
+			+ " " + repeat + " time(s) with " + strategyName);
+
+		for(int pass=0; pass<repeat; pass++)
+		{
+			diverged = 0;
+
+			for(int i=0; i<numGames; i++)
+			{
+				GuessTrace trace = traces.get(i);
+
+				HangmanGame game = new HangmanGame(trace.getSecret(),
+					trace.getMaxWrongGuesses());
+
+				GuessingStrategy strategy = HangmanReplay.newStrategy(
+					constructor, game);
+
+				nanos[i] = 0;
+
+				int index = 0;
+				boolean reported = false;
+
+				while(game.gameStatus() == HangmanGame.Status.KEEP_GUESSING
+					&& index < MAX_GUESSES)
+				{
+					long start = System.nanoTime();
+
+					Guess guess = strategy.nextGuess(game);
+
+					nanos[i] += System.nanoTime() - start;
+
+					if(false == reported && index < trace.getNumGuesses()
+						&& false == trace.matches(index, guess))
+					{
+						//Only the first pass reports, later ones repeat it
+						if(pass == 0)
+						{
+							System.out.println("DIVERGED " + trace.getSecret()
+								+ " at guess " + (index + 1) + ": recorded "
+								+ trace.getGuess(index) + " with "
+								+ trace.getCandidates(index)
+								+ " possible words, replayed " + guess);
+						}
+
+						reported = true;
+						diverged++;
+					}
+
+					guess.makeGuess(game);
+					index++;
+				}
+
+				scores[i] = game.currentScore();
+
+				if(strategy instanceof HangmanStrategy)
+				{
+					((HangmanStrategy) strategy).end();
+				}
+			}
+		}
+
+		HangmanUtil.clock("End replay");
+
+		HangmanReplay.report(traces, scores, nanos, diverged);
+
+		return diverged;
+	}
+
+	/**
+	 * Print the replayed versus recorded scores and decision times,
+	 * and the games that took the longest to decide
+	 */
+	private static void report(final List<GuessTrace> traces, int[] scores,
+		final long[] nanos, int diverged)
+	{
+		int numGames = traces.size();
+
+		long recordedScore = 0;
+		long replayedScore = 0;
+		long recordedNanos = 0;
+		long replayedNanos = 0;
+
+		Integer[] order = new Integer[numGames];
+
+		for(int i=0; i<numGames; i++)
+		{
+			recordedScore += traces.get(i).getScore();
+			replayedScore += scores[i];
+			recordedNanos += traces.get(i).getTotalNanos();
+			replayedNanos += nanos[i];
+
+			order[i] = i;
+		}
+
+		double games = Math.max(1, numGames);
+
+		System.out.println("Replayed " + numGames + " games, average word "
+			+ "score is: " + replayedScore / games + " (recorded "
+			+ recordedScore / games + "), " + diverged + " parted from the "
+			+ "recorded guesses");
+		System.out.println("Deciding guesses took " + replayedNanos / 1e6
+			+ " ms (recorded " + recordedNanos / 1e6 + " ms)");
+
+		Arrays.sort(order, new Comparator<Integer>()
+		{
+			public int compare(Integer a, Integer b)
+			{
+				return Long.compare(nanos[b], nanos[a]);
+			}
+		});
+
+		System.out.println("Slowest games:");
+
+		for(int i=0; i<Math.min(NUM_SLOWEST, numGames); i++)
+		{
+			GuessTrace trace = traces.get(order[i]);
+
+			System.out.println("	" + trace.getSecret() + ": "
+				+ nanos[order[i]] / 1e6 + " ms (recorded "
+				+ trace.getTotalNanos() / 1e6 + " ms), score "
+				+ scores[order[i]] + ", " + trace);
+		}
+	}
+
+	/**
+	 * @return The constructor of the named strategy class, taking
+	 * a HangmanGame if it has one
+	 */
+	static Constructor<?> strategyConstructor(String strategyName)
+	{
+		try
+		{
+			Class<?> type = Class.forName(strategyName);
+
+			if(false == GuessingStrategy.class.isAssignableFrom(type))
+			{
+				throw new IllegalArgumentException(strategyName
+					+ " is not a GuessingStrategy");
+			}
+
+			try
+			{
+				return type.getDeclaredConstructor(HangmanGame.class);
+			}
+			catch(NoSuchMethodException nsme)
+			{
+				return type.getDeclaredConstructor();
+			}
+		}
+		catch(ClassNotFoundException cnfe)
+		{
+			throw new IllegalArgumentException("Unknown strategy class "
+				+ strategyName);
+		}
+		catch(NoSuchMethodException nsme)
+		{
+			throw new IllegalArgumentException(strategyName + " has neither "
+				+ "a HangmanGame nor a no argument constructor");
+		}
+	}
+
+	/**
+	 * @return A new strategy for the game from the constructor
+	 */
+	static GuessingStrategy newStrategy(Constructor<?> constructor,
+		HangmanGame game)
+	{
+		try
+		{
+			if(constructor.getParameterTypes().length == 1)
+			{
+				return (GuessingStrategy) constructor.newInstance(game);
+			}
+
+			return (GuessingStrategy) constructor.newInstance();
+		}
+		catch(Exception e)
+		{
+			throw new IllegalStateException("Unable to create strategy "
+				+ constructor.getDeclaringClass().getName() + ": " + e);
+		}
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanReplay()
+	{
+
+	}
+}
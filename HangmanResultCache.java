@@ -0,0 +1,436 @@
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/***
+ On disk cache of batch game results, mapping each secret word to its
+ score, number of guesses and game status, so that a batch played
+ again only plays the words it hasn't played before.
+
+ The strategy is deterministic for a given dictionary, stumpers file,
+ configuration and code, so the cache is keyed by a fingerprint of
+ all of them: the contents of the dictionary and stumpers files, the
+ stumper, search and endgame options, the strategy thresholds and the
+ code, which is every class file next to HangmanStrategy's, or the jar
+ it is in.  A cache file of another fingerprint is invalidated as a
+ whole.  The dictionary may not change under the cache, so it can't
+ be used with -watch.
+
+ The file is text, a header line with the fingerprint followed by one
+ line per word: the word, its score, its number of guesses and its
+ game status.  It is rewritten on close, through a temporary file, if
+ any game was added.
+
+ Turned on with the -cache option.
+***/
+
+public class HangmanResultCache
+{
+	//First word of the header line of a cache file
+	static final String HEADER = "#hangman-results";
+
+	//Extension of the class files hashed into the fingerprint
+	private static final String CLASS_SUFFIX = ".class";
+
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The cached result of one game
+	 */
+	public static class Result
+	{
+		private final int score;
+		private final int numGuesses;
+		private final HangmanGame.Status status;
+
+		private Result(int score, int numGuesses, HangmanGame.Status status)
+		{
+			this.score = score;
+			this.numGuesses = numGuesses;
+			this.status = status;
+		}
+
+		/**
+		 * @return The final game score
+		 */
+		public int getScore()
+		{
+			return score;
+		}
+
+		/**
+		 * @return The number of letter and word guesses made
+		 */
+		public int getNumGuesses()
+		{
+			return numGuesses;
+		}
+
+		/**
+		 * @return The final game status
+		 */
+		public HangmanGame.Status getStatus()
+		{
+			return status;
+		}
+	}
+
+	private final File file;
+	private final String fingerprint;
+
+	private final Map<String, Result> results = new HashMap<String, Result>();
+
+	private int hits = 0;
+	private int misses = 0;
+	private int added = 0;
+	private int invalidated = 0;
+
+
+	/**
+	 * Constructor, loading the results of the cache file if it has
+	 * the same fingerprint
+	 * @param File cache file, need not exist yet
+	 * @param String fingerprint of the run, see fingerprint()
+	 */
+	public HangmanResultCache(File file, String fingerprint)
+		throws IOException
+	{
+		if(file == null || fingerprint == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		this.file = file;
+		this.fingerprint = fingerprint;
+
+		if(true == file.exists())
+		{
+			load();
+		}
+	}
+
+	/**
+	 * @return The cached result of the word, null if it hasn't been
+	 * played with this fingerprint
+	 */
+	public synchronized Result get(String word)
+	{
+		Result result = results.get(word);
+
+		if(result == null)
+		{
+			misses++;
+		}
+		else
+		{
+			hits++;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Cache the result of a game
+	 * @param String secret word
+	 * @param int final game score
+	 * @param int number of letter and word guesses made
+	 * @param HangmanGame.Status final game status
+	 */
+	public synchronized void put(String word, int score, int numGuesses,
+		HangmanGame.Status status)
+	{
+		if(word == null || status == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		if(null == results.put(word, new Result(score, numGuesses, status)))
+		{
+			added++;
+		}
+	}
+
+	/**
+	 * Write the cache file, if any game was added since it was loaded
+	 */
+	public synchronized void save() throws IOException
+	{
+		if(added == 0 && invalidated == 0) return;
+
+		File temp = new File(file.getPath() + ".tmp");
+
+		Writer output = new BufferedWriter(new FileWriter(temp));
+
+		try
+		{
+			output.write(HEADER + " " + fingerprint + "\n");
+
+			for(Map.Entry<String, Result> entry: results.entrySet())
+			{
+				Result result = entry.getValue();
+
+				output.write(entry.getKey() + " " + result.score + " "
+					+ result.numGuesses + " " + result.status.name() + "\n");
+			}
+		}
+		finally
+		{
+			output.close();
+		}
+
+		if(false == temp.renameTo(file))
+		{
+			//Some platforms won't rename over an existing file
+			file.delete();
+
+			if(false == temp.renameTo(file))
+			{
+				throw new IOException("Unable to write result cache "
+					+ file);
+			}
+		}
+
+		added = 0;
+	}
+
+	/**
+	 * @return The number of lookups that found a cached result
+	 */
+	public synchronized int getHits()
+	{
+		return hits;
+	}
+
+	/**
+	 * @return The number of lookups that didn't
+	 */
+	public synchronized int getMisses()
+	{
+		return misses;
+	}
+
+	/**
+	 * override of object toString() for HangmanResultCache
+	 * @return HangmanResultCache msg with its hit rate
+	 */
+	public synchronized String toString()
+	{
+		int lookups = hits + misses;
+
+		return "Result cache " + file + ": " + hits + " hits, " + misses
+			+ " misses, hit rate "
+			+ (lookups == 0 ? 0 : 100.0 * hits / lookups) + "%, "
+			+ results.size() + " results"
+			+ (invalidated > 0 ? ", " + invalidated
+				+ " invalidated by a changed fingerprint" : "");
+	}
+
+	/**
+	 * @return The fingerprint of everything the result of a game of
+	 * the run depends on, as hex
+	 */
+	public static String fingerprint(RunContext context) throws IOException
+	{
+		if(context == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		MessageDigest digest = HangmanResultCache.newDigest();
+
+		HangmanResultCache.update(digest, context.getDictionaryFile());
+
+		File stumpers = new File(HangmanUtil.STUMPERS_FILE_NAME);
+
+		if(true == context.useStumpers() && true == stumpers.exists())
+		{
+			HangmanResultCache.update(digest, stumpers);
+		}
+
+		digest.update(("stumpers=" + context.useStumpers()
+			+ ",search=" + context.useSearch()
+			+ ",endgame=" + context.useEndgame()
+			+ ",thresholds=" + Arrays.toString(context.getThresholds()))
+				.getBytes("UTF-8"));
+
+		HangmanResultCache.updateCode(digest);
+
+		StringBuilder hex = new StringBuilder();
+
+		for(byte b: digest.digest())
+		{
+			hex.append(String.format("%02x", b & 0xff));
+		}
+
+		return hex.toString();
+	}
+
+	/**
+	 * Load the results of the cache file, invalidating them if the
+	 * file has another fingerprint
+	 */
+	private void load() throws IOException
+	{
+		BufferedReader input = new BufferedReader(new FileReader(file));
+
+		try
+		{
+			String header = input.readLine();
+
+			if(header == null) return;
+
+			if(false == header.startsWith(HEADER + " "))
+			{
+				throw new IOException("Not a result cache file: " + file);
+			}
+
+			boolean valid = header.substring(HEADER.length() + 1)
+				.equals(fingerprint);
+
+			String line;
+
+			while(null != (line = input.readLine()))
+			{
+				if(false == valid)
+				{
+					invalidated++;
+					continue;
+				}
+
+				String[] fields = line.split(" ");
+
+				if(fields.length != 4)
+				{
+					throw new IOException("Malformed result cache line: "
+						+ line);
+				}
+
+				results.put(fields[0], new Result(Integer.parseInt(fields[1]),
+					Integer.parseInt(fields[2]),
+					HangmanGame.Status.valueOf(fields[3])));
+			}
+		}
+		finally
+		{
+			input.close();
+		}
+	}
+
+	/**
+	 * Add the code the games are played with to the digest: the jar
+	 * HangmanStrategy was loaded from, or every class file in its
+	 * directory, nested classes included, in the order of their names
+	 */
+	private static void updateCode(MessageDigest digest) throws IOException
+	{
+		URL location = HangmanStrategy.class.getProtectionDomain()
+			.getCodeSource().getLocation();
+
+		File code;
+
+		try
+		{
+			code = new File(location.toURI());
+		}
+		catch(URISyntaxException e)
+		{
+			throw new IOException("Unable to locate the class files at "
+				+ location + ": " + e);
+		}
+
+		if(false == code.isDirectory())
+		{
+			HangmanResultCache.update(digest, code);
+			return;
+		}
+
+		File[] files = code.listFiles();
+
+		if(files == null)
+		{
+			throw new IOException("Unable to list the class files in "
+				+ code);
+		}
+
+		Map<String, File> classes = new TreeMap<String, File>();
+
+		for(File file: files)
+		{
+			if(file.getName().endsWith(CLASS_SUFFIX))
+			{
+				classes.put(file.getName(), file);
+			}
+		}
+
+		for(Map.Entry<String, File> entry: classes.entrySet())
+		{
+			digest.update(entry.getKey().getBytes("UTF-8"));
+
+			HangmanResultCache.update(digest, entry.getValue());
+		}
+	}
+
+	/**
+	 * Add the contents of the file to the digest
+	 */
+	private static void update(MessageDigest digest, File file)
+		throws IOException
+	{
+		HangmanResultCache.update(digest, new FileInputStream(file));
+	}
+
+	/**
+	 * Add the contents of the stream to the digest, closing it
+	 */
+	private static void update(MessageDigest digest, InputStream input)
+		throws IOException
+	{
+		try
+		{
+			byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+			int count;
+
+			while((count = input.read(buffer)) > 0)
+			{
+				digest.update(buffer, 0, count);
+			}
+		}
+		finally
+		{
+			input.close();
+		}
+	}
+
+	/**
+	 * @return A new SHA-256 digest
+	 */
+	private static MessageDigest newDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException("SHA-256 is not available: " + e);
+		}
+	}
+}
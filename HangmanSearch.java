@@ -0,0 +1,575 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/***
+ Bounded lookahead search used by HangmanStrategy once the set of
+ possible words is small (see the -search option).
+
+ Explores letter and word guess sequences against every remaining
+ possible word and picks the guess with the lowest expected final
+ score, scoring the same way as HangmanGame.currentScore().
+ The search is limited in depth and in the number of nodes it may
+ expand, past which a state is valued by simply guessing the
+ remaining words one by one.  Each first guess is searched as its
+ own task on a ForkJoinPool, sharing one memo table.
+***/
+
+public class HangmanSearch
+{
+	/**
+	 * The guess picked by the search, either a letter or a word
+	 */
+	public static class Move
+	{
+		private final Character letter;
+		private final String word;
+
+		private Move(Character letter, String word)
+		{
+			this.letter = letter;
+			this.word = word;
+		}
+
+		/**
+		 * @return The letter to guess, null if guessing a word
+		 */
+		public Character getLetter()
+		{
+			return letter;
+		}
+
+		/**
+		 * @return The word to guess, null if guessing a letter
+		 */
+		public String getWord()
+		{
+			return word;
+		}
+
+		/**
+		 * @return true if the move is a word guess
+		 */
+		public boolean isWord()
+		{
+			return word != null;
+		}
+
+		public String toString()
+		{
+			return isWord() ? "Move[" + word + "]" : "Move[" + letter + "]";
+		}
+	}
+
+	/*
+		A memoized state value along with the number of nodes it took to
+		compute.  A memo hit is charged that many nodes, so every first
+		guess task sees the same result whichever task got there first
+	*/
+	private static class Entry
+	{
+		private final double value;
+		private final long nodes;
+
+		private Entry(double value, long nodes)
+		{
+			this.value = value;
+			this.nodes = nodes;
+		}
+	}
+
+	/*
+		Node budget of a single first guess task
+	*/
+	private static class Budget
+	{
+		private long remaining;
+		private boolean exhausted = false;
+
+		private Budget(long remaining)
+		{
+			this.remaining = remaining;
+		}
+	}
+
+	/*
+		Task valuing one first guess of the search
+	*/
+	private class FirstGuessTask extends RecursiveTask<Double>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int letter;
+		private final int word;
+		private final Budget budget;
+
+		private FirstGuessTask(int letter, int word, long nodes)
+		{
+			this.letter = letter;
+			this.word = word;
+			this.budget = new Budget(nodes);
+		}
+
+		protected Double compute()
+		{
+			double value;
+
+			if(letter >= 0)
+			{
+				value = letterValue(all, letter, rootRemaining, rootScore,
+					maxDepth, budget, Double.MAX_VALUE);
+			}
+			else
+			{
+				value = wordValue(all, word, rootRemaining, rootScore,
+					maxDepth, budget, Double.MAX_VALUE);
+			}
+
+			return value;
+		}
+	}
+
+	/* Static fields */
+
+	//Score of a lost game, as given by HangmanGame.currentScore()
+	private static final int LOST_SCORE = 25;
+
+	//Possible word sets are tracked as int bit masks
+	private static final int MAX_WORDS = 31;
+
+	//Number of guesses looked ahead
+	private static final int MAX_DEPTH = 4;
+
+	//Hard limit of nodes expanded per search, split across first guesses
+	private static final long MAX_NODES = 200000;
+
+	//Pool shared by all searches
+	private static final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+
+	/* Instance member fields */
+
+	//Possible words, sorted so the search does not depend on set order
+	private final String[] words;
+
+	//Letters of the possible words, in alphabetical order
+	private final HangmanAlphabet alphabet;
+
+	//positions[letter][word] is the bit mask of the positions of
+	//the letter of that alphabet id in the word
+	private final int[][] positions;
+
+	//Set of all the possible words
+	private final int all;
+
+	private final int rootRemaining;
+	private final int rootScore;
+	private final int maxDepth;
+	private final long maxNodes;
+
+	private final Map<Long, Entry> memo = new ConcurrentHashMap<Long, Entry>();
+
+	//Total nodes expanded by all the tasks of the search
+	private long nodes = 0;
+
+
+	/**
+	 * Search for the best next guess given the possible words.
+	 * @param Set of possible hangman words (lowercase)
+	 * @param int number of wrong guesses still allowed
+	 * @param int current game score
+	 * @return The best next guess, or null if there are too many
+	 * possible words to search
+	 */
+	public static Move search(Set<String> possible, int wrongRemaining,
+		int score)
+	{
+		Move move = null;
+
+		try
+		{
+			if(possible == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) "
+					+ "can't be null");
+			}
+
+			if(possible.size() > 1 && possible.size() <= MAX_WORDS)
+			{
+				HangmanSearch search = new HangmanSearch(possible,
+					wrongRemaining, score, MAX_DEPTH, MAX_NODES);
+
+				move = search.bestMove(true);
+
+				HangmanUtil.verbose("search picked " + move + " after "
+					+ search.nodes + " nodes");
+			}
+		}
+		catch(Exception e)
+		{
+			System.err.println("Exception: " + e);
+		}
+
+		return move;
+	}
+
+	/**
+	 * Search for the provably best next guess given the possible words,
+	 * with no depth or node limit.  Only meant for a handful of words,
+	 * and run in the calling thread.
+	 * @param Set of possible hangman words (lowercase)
+	 * @param int number of wrong guesses still allowed
+	 * @param int current game score
+	 * @return The best next guess, or null if there are too many
+	 * possible words to search
+	 */
+	public static Move solve(Set<String> possible, int wrongRemaining,
+		int score)
+	{
+		Move move = null;
+
+		try
+		{
+			if(possible == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) "
+					+ "can't be null");
+			}
+
+			if(possible.size() > 1 && possible.size() <= MAX_WORDS)
+			{
+				//Every guess leaves fewer possible words in each of its
+				//outcomes, so no game goes deeper than the set size
+				HangmanSearch search = new HangmanSearch(possible,
+					wrongRemaining, score, possible.size(), Long.MAX_VALUE);
+
+				move = search.bestMove(false);
+			}
+		}
+		catch(Exception e)
+		{
+			System.err.println("Exception: " + e);
+		}
+
+		return move;
+	}
+
+	/**
+	 * Constructor.  Used through the static search and solve methods
+	 */
+	private HangmanSearch(Set<String> possible, int wrongRemaining,
+		int score, int depth, long maxNodes)
+	{
+		this.words = possible.toArray(new String[possible.size()]);
+		Arrays.sort(this.words);
+
+		this.alphabet = new HangmanAlphabet(possible);
+		this.positions = new int[alphabet.size()][words.length];
+
+		for(int i=0; i<words.length; i++)
+		{
+			String word = words[i];
+
+			for(int j=0; j<word.length(); j++)
+			{
+				int letter = alphabet.id(word.charAt(j));
+
+				this.positions[letter][i] |= 1 << j;
+			}
+		}
+
+		this.all = (1 << words.length) - 1;
+		this.rootRemaining = wrongRemaining;
+		this.rootScore = score;
+		this.maxDepth = depth;
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Search every first guess, in parallel if asked, and pick the best 
+	 * one.  Ties go to letters before words, in alphabetical order.
+	 */
+	private Move bestMove(boolean parallel)
+	{
+		List<Integer> letters = splittingLetters(all);
+
+		List<FirstGuessTask> tasks = new ArrayList<FirstGuessTask>();
+
+		int guesses = letters.size() + words.length;
+		long share = maxNodes / guesses;
+
+		for(int letter: letters)
+		{
+			tasks.add(new FirstGuessTask(letter, -1, share));
+		}
+
+		for(int i=0; i<words.length; i++)
+		{
+			tasks.add(new FirstGuessTask(-1, i, share));
+		}
+
+		for(FirstGuessTask task: tasks)
+		{
+			if(parallel)
+			{
+				pool.execute(task);
+			}
+			else
+			{
+				task.invoke();
+			}
+		}
+
+		Move move = null;
+		double best = Double.MAX_VALUE;
+
+		for(FirstGuessTask task: tasks)
+		{
+			double value = task.join();
+
+			nodes += share - Math.max(0, task.budget.remaining);
+
+			if(value < best)
+			{
+				best = value;
+
+				if(task.letter >= 0)
+				{
+					move = new Move(alphabet.letter(task.letter), null);
+				}
+				else
+				{
+					move = new Move(null, words[task.word]);
+				}
+			}
+		}
+
+		return move;
+	}
+
+	/**
+	 * @return The letters whose guess would split the set of words
+	 * into at least two outcomes.  Already guessed letters never do.
+	 */
+	private List<Integer> splittingLetters(int set)
+	{
+		List<Integer> letters = new ArrayList<Integer>();
+
+		int first = Integer.numberOfTrailingZeros(set);
+
+		for(int letter=0; letter<positions.length; letter++)
+		{
+			int[] letterPositions = positions[letter];
+
+			for(int rest = set & (set - 1); rest != 0; rest &= rest - 1)
+			{
+				int i = Integer.numberOfTrailingZeros(rest);
+
+				if(letterPositions[i] != letterPositions[first])
+				{
+					letters.add(letter);
+					break;
+				}
+			}
+		}
+
+		return letters;
+	}
+
+	/**
+	 * @return The expected score still to be added to the game given the
+	 * set of possible words, when playing the best guesses from here.
+	 */
+	private double value(int set, int remaining, int score, int depth,
+		Budget budget)
+	{
+		int size = Integer.bitCount(set);
+
+		//Guess the only word left, which costs nothing
+		if(size == 1) return 0.0;
+
+		if(depth == 0) return wordsOnlyValue(size, remaining, score);
+
+		if(budget.remaining <= 0)
+		{
+			budget.exhausted = true;
+			return wordsOnlyValue(size, remaining, score);
+		}
+
+		long key = (long) set | ((long) remaining << 32)
+			| ((long) score << 40) | ((long) depth << 56);
+
+		Entry entry = memo.get(key);
+
+		if(entry != null && entry.nodes <= budget.remaining)
+		{
+			budget.remaining -= entry.nodes;
+			return entry.value;
+		}
+
+		long start = budget.remaining;
+		boolean exhausted = budget.exhausted;
+		budget.exhausted = false;
+
+		budget.remaining--;
+
+		//Guessing the words one by one is always possible
+		double best = wordsOnlyValue(size, remaining, score);
+
+		for(int letter: splittingLetters(set))
+		{
+			best = Math.min(best, letterValue(set, letter, remaining,
+				score, depth, budget, best));
+		}
+
+		for(int rest = set; rest != 0; rest &= rest - 1)
+		{
+			int i = Integer.numberOfTrailingZeros(rest);
+
+			best = Math.min(best, wordValue(set, i, remaining, score,
+				depth, budget, best));
+		}
+
+		//Only keep values that were not cut short by the node budget
+		if(false == budget.exhausted)
+		{
+			memo.put(key, new Entry(best, start - budget.remaining));
+		}
+
+		budget.exhausted |= exhausted;
+
+		return best;
+	}
+
+	/**
+	 * @return The expected score still to be added after guessing the
+	 * letter, or a value no lower than cutoff if it can't beat cutoff
+	 */
+	private double letterValue(int set, int letter, int remaining,
+		int score, int depth, Budget budget, double cutoff)
+	{
+		int size = Integer.bitCount(set);
+		int[] letterPositions = positions[letter];
+
+		//Split the words by where the letter shows up in them,
+		//outcome 0 being the wrong guess
+		int[] keys = new int[size];
+		int[] outcomes = new int[size];
+		int count = 0;
+
+		for(int rest = set; rest != 0; rest &= rest - 1)
+		{
+			int i = Integer.numberOfTrailingZeros(rest);
+			int j = 0;
+
+			while(j < count && keys[j] != letterPositions[i]) j++;
+
+			if(j == count)
+			{
+				keys[count] = letterPositions[i];
+				count++;
+			}
+
+			outcomes[j] |= 1 << i;
+		}
+
+		//Every outcome costs at least the guess itself, and a wrong
+		//guess with none remaining loses the game
+		double bound = 0.0;
+
+		for(int j=0; j<count; j++)
+		{
+			bound += outcomeBound(keys[j] == 0, outcomes[j], remaining, score);
+		}
+
+		if(bound / size >= cutoff) return bound / size;
+
+		double total = 0.0;
+
+		for(int j=0; j<count; j++)
+		{
+			int outcome = outcomes[j];
+			int weight = Integer.bitCount(outcome);
+
+			bound -= outcomeBound(keys[j] == 0, outcome, remaining, score);
+
+			if(keys[j] != 0)
+			{
+				total += weight * (1 + value(outcome, remaining, score + 1,
+					depth - 1, budget));
+			}
+			else if(remaining == 0)
+			{
+				total += weight * (LOST_SCORE - score);
+			}
+			else
+			{
+				total += weight * (1 + value(outcome, remaining - 1,
+					score + 1, depth - 1, budget));
+			}
+
+			if((total + bound) / size >= cutoff) return (total + bound) / size;
+		}
+
+		return total / size;
+	}
+
+	/**
+	 * @return The expected score still to be added after guessing the
+	 * word, or a value no lower than cutoff if it can't beat cutoff
+	 */
+	private double wordValue(int set, int word, int remaining, int score,
+		int depth, Budget budget, double cutoff)
+	{
+		int size = Integer.bitCount(set);
+		int rest = set & ~(1 << word);
+
+		//Right guess costs nothing, a wrong one costs a guess or the game
+		if(remaining == 0)
+		{
+			return (double) (size - 1) * (LOST_SCORE - score) / size;
+		}
+
+		if((double) (size - 1) / size >= cutoff)
+		{
+			return (double) (size - 1) / size;
+		}
+
+		return (size - 1) * (1 + value(rest, remaining - 1, score + 1,
+			depth - 1, budget)) / size;
+	}
+
+	/**
+	 * @return Lowest possible total cost of an outcome, weighted by the
+	 * number of words in it
+	 */
+	private static double outcomeBound(boolean wrong, int outcome,
+		int remaining, int score)
+	{
+		int weight = Integer.bitCount(outcome);
+
+		if(wrong && remaining == 0) return weight * (LOST_SCORE - score);
+
+		return weight;
+	}
+
+	/**
+	 * @return The expected score still to be added when guessing the
+	 * possible words one by one until the right one comes up
+	 */
+	private static double wordsOnlyValue(int size, int remaining, int score)
+	{
+		if(size <= 1) return 0.0;
+
+		double wrong = (double) (size - 1) / size;
+
+		if(remaining == 0) return wrong * (LOST_SCORE - score);
+
+		return wrong * (1 + wordsOnlyValue(size - 1, remaining - 1, score + 1));
+	}
+}
@@ -0,0 +1,321 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+/***
+ Plays a batch file across several child JVMs, so that a large batch
+ is not limited by the heap and garbage collection of one JVM.
+
+ The batch file is split into shards by byte range, each ending at a
+ line break, and written to temporary files.  One child JVM runs
+ PlayHangman in batch mode on each shard, with the same dictionary
+ and options, its output going to a temporary file.  The per word
+ lines of the children are then printed in the order of the batch
+ file, followed by the combined average score and timing summary.
+ If any child fails, the run fails rather than average a part of the
+ batch.  The children get the JVM options of the parent, such as its
+ heap size.  Files the options name (-trace, -results and -cache) get
+ the shard number as a suffix, one file per child.
+ Implemented exclusively through static class methods.
+***/
+
+public class HangmanShards
+{
+	//Separates a word from its score in the batch output
+	private static final String SCORE_SEPARATOR = ": ";
+
+
+	/**
+	 * Play the batch file in shards and merge their outputs.
+	 * @param RunContext of the coordinating run, for its clock
+	 * @param File dictionary
+	 * @param File batch words file
+	 * @param int number of shards and child JVMs
+	 * @param List of PlayHangman options for every child
+	 */
+	public static void run(RunContext context, File dictionary, File batch,
+		int shards, List<String> options) throws Exception
+	{
+		if(context == null || dictionary == null || batch == null
+			|| options == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		if(shards < 1)
+		{
+			throw new IllegalArgumentException("Number of shards must be "
+				+ "at least 1, not " + shards);
+		}
+
+		List<File> inputs = new ArrayList<File>();
+		List<File> outputs = new ArrayList<File>();
+		List<Process> processes = new ArrayList<Process>();
+
+		try
+		{
+			context.setClockLevel(HangmanUtil.ClockLevel.CLOCK);
+
+			context.clock("Starting " + shards + " batch shards of " + batch);
+
+			long[] bounds = HangmanShards.split(batch, shards);
+
+			for(int i=0; i<shards; i++)
+			{
+				File input = File.createTempFile("hangman-shard", ".txt");
+				File output = File.createTempFile("hangman-shard", ".out");
+
+				inputs.add(input);
+				outputs.add(output);
+
+				HangmanShards.copy(batch, bounds[i], bounds[i + 1], input);
+
+				ProcessBuilder builder = new ProcessBuilder(
+					HangmanShards.command(dictionary, input, i, options));
+				builder.redirectOutput(output);
+				builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+				processes.add(builder.start());
+			}
+
+			List<Integer> failed = new ArrayList<Integer>();
+
+			for(int i=0; i<shards; i++)
+			{
+				int status = processes.get(i).waitFor();
+
+				if(status != 0)
+				{
+					System.err.println("Batch shard " + i + " exited with "
+						+ "status " + status);
+
+					failed.add(i);
+				}
+			}
+
+			if(false == failed.isEmpty())
+			{
+				throw new IOException("Batch shards " + failed + " of "
+					+ shards + " failed, the batch wasn't fully played");
+			}
+
+			double timeElapsed = context.clock("End batch shards");
+
+			int numGames = 0;
+			long scoreSum = 0;
+
+			for(File output: outputs)
+			{
+				BufferedReader reader = new BufferedReader(
+					new FileReader(output));
+
+				try
+				{
+					String line;
+
+					while(null != (line = reader.readLine()))
+					{
+						int score = HangmanShards.parseScore(line);
+
+						if(score < 0) continue;
+
+						context.getOutput().println(line);
+
+						numGames++;
+						scoreSum += score;
+					}
+				}
+				finally
+				{
+					reader.close();
+				}
+			}
+
+			double avg = ((double) scoreSum) / (double) numGames;
+
+			double timePerGame = timeElapsed / (double) numGames;
+
+			context.getOutput().println("Given " + numGames
+				+ " words, average word score is: " + avg);
+
+			context.clock(false, "For " + numGames + " games in " + shards
+				+ " shards, total time was " + timeElapsed
+				+ " ms, average time per game including "
+				+ "initializations was " + timePerGame + " ms");
+		}
+		finally
+		{
+			for(Process process: processes)
+			{
+				process.destroy();
+			}
+
+			for(File file: inputs)
+			{
+				file.delete();
+			}
+
+			for(File file: outputs)
+			{
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * @return The byte offsets the shards start at, followed by the
+	 * size of the file.  Every shard but the last ends just after a
+	 * line break, so no word is cut in two.
+	 */
+	private static long[] split(File batch, int shards) throws IOException
+	{
+		long[] bounds = new long[shards + 1];
+
+		RandomAccessFile file = new RandomAccessFile(batch, "r");
+
+		try
+		{
+			long size = file.length();
+
+			bounds[shards] = size;
+
+			for(int i=1; i<shards; i++)
+			{
+				long offset = Math.max(bounds[i - 1], size * i / shards);
+
+				file.seek(offset);
+
+				int b;
+
+				while((b = file.read()) != -1 && b != '\n')
+				{
+					offset++;
+				}
+
+				bounds[i] = Math.min(size, offset + 1);
+			}
+		}
+		finally
+		{
+			file.close();
+		}
+
+		return bounds;
+	}
+
+	/**
+	 * Copy the byte range of the batch file into the shard file
+	 */
+	private static void copy(File batch, long start, long end, File shard)
+		throws IOException
+	{
+		RandomAccessFile input = new RandomAccessFile(batch, "r");
+		OutputStream output = new FileOutputStream(shard);
+
+		try
+		{
+			byte[] buffer = new byte[64 * 1024];
+
+			input.seek(start);
+
+			long left = end - start;
+
+			while(left > 0)
+			{
+				int n = input.read(buffer, 0,
+					(int) Math.min(buffer.length, left));
+
+				if(n < 0) break;
+
+				output.write(buffer, 0, n);
+				left -= n;
+			}
+		}
+		finally
+		{
+			output.close();
+			input.close();
+		}
+	}
+
+	/**
+	 * @return The command running PlayHangman in batch mode on the
+	 * shard, naming files of the options after the shard
+	 */
+	private static List<String> command(File dictionary, File shard,
+		int index, List<String> options)
+	{
+		List<String> command = new ArrayList<String>();
+
+		command.add(System.getProperty("java.home") + File.separator
+			+ "bin" + File.separator + "java");
+
+		for(String argument: ManagementFactory.getRuntimeMXBean()
+			.getInputArguments())
+		{
+			//A debugger agent's port can only be taken once
+			if(argument.startsWith("-agentlib:jdwp")
+				|| argument.startsWith("-Xrunjdwp")) continue;
+
+			command.add(argument);
+		}
+
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add("PlayHangman");
+		command.add("-f");
+		command.add(dictionary.getPath());
+		command.add("-batch");
+		command.add(shard.getPath());
+
+		for(int i=0; i<options.size(); i++)
+		{
+			String option = options.get(i);
+
+			if(i > 0 && (options.get(i - 1).startsWith("-trace")
+				|| options.get(i - 1).startsWith("-results:")
+				|| options.get(i - 1).equals("-cache")))
+			{
+				option = option + "." + index;
+			}
+
+			command.add(option);
+		}
+
+		return command;
+	}
+
+	/**
+	 * @return The score of a per word batch output line,
+	 * -1 if the line is not one
+	 */
+	private static int parseScore(String line)
+	{
+		int separator = line.lastIndexOf(SCORE_SEPARATOR);
+
+		if(separator <= 0 || line.startsWith("[")) return -1;
+
+		String score = line.substring(separator + SCORE_SEPARATOR.length());
+
+		for(int i=0; i<score.length(); i++)
+		{
+			if(false == Character.isDigit(score.charAt(i))) return -1;
+		}
+
+		return score.length() == 0 ? -1 : Integer.parseInt(score);
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanShards()
+	{
+
+	}
+}
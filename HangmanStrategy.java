@@ -8,14 +8,39 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.TreeSet;
 import java.util.HashMap;
-import java.util.TreeMap;
 import java.util.ArrayDeque;
 import java.util.Iterator;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.Properties;
+import java.io.File;
+import java.io.FileReader;
+import java.io.Reader;
+import java.io.IOException;
 
 
 public class HangmanStrategy implements GuessingStrategy
 {
+	/**
+	 * The ways a guess can be decided, reported by HangmanEvents
+	 */
+	public enum Branch
+	{
+		//Most frequent letter, above MEDIUM_WORD_SET_SIZE possible words
+		FREQUENCY,
+		//Most frequent stumper letter, if among the top letters
+		STUMPER,
+		//Top letter leaving the most outlying word set
+		OUTLIER,
+		//Most frequent letter in at most half the possible words
+		HALF_SET,
+		//Least frequent letter left when none is in half of the words
+		REMAINING,
+		//The only possible word
+		WORD,
+		//Lookahead search and exact endgame solver moves
+		SEARCH, ENDGAME
+	}
+
 	/*
 		SimulatedMostWordsFilteredComparator NOT CURRENTLY USED
 		The class implements the Comparator interface, by 
@@ -34,15 +59,19 @@ public class HangmanStrategy implements GuessingStrategy
 		implements Comparator<Character> 
 	{
 
+		private final RunContext context;
+
 		private Set<String> clone = new HashSet<String>();
 
 		private String hangman = null;
 		private int wordLength = 0;
 
 		// Initialize the instance through the constructor
-		public SimulatedMostWordsFilteredComparator(Set<String> set,
-			String _hangman, int _wordLength)
+		public SimulatedMostWordsFilteredComparator(RunContext context, 
+			Set<String> set, String _hangman, int _wordLength)
 		{
+			this.context = context;
+
 			//copy words collection to clone
 			for(String copy: set)
 			{
@@ -61,14 +90,14 @@ public class HangmanStrategy implements GuessingStrategy
 		//				 for each filterWordsCorrectGuess call
 		public int compare(Character c1, Character c2) {
             
-			int score1 = HangmanStrategy.filterWordsCorrectGuess(c1, clone, 
+			int score1 = HangmanStrategy.filterWordsCorrectGuess(context, c1, clone, 
 				hangman, wordLength, true);
-			int score2 = HangmanStrategy.filterWordsCorrectGuess(c2, clone, 
+			int score2 = HangmanStrategy.filterWordsCorrectGuess(context, c2, clone, 
 				hangman, wordLength, true);
             
-			HangmanUtil.debug("word filtered simulated letter " + c1 
+			context.debug("word filtered simulated letter " + c1 
 				+ ", [score is: " + score1 + "]");
-			HangmanUtil.debug("word filtered simulated letter " + c2 
+			context.debug("word filtered simulated letter " + c2 
 				+ ", [score is: " + score2 + "]");
 
             if (score1 >= score2)
@@ -87,23 +116,102 @@ public class HangmanStrategy implements GuessingStrategy
 		leftover sets of letter guesses and seeing if they are interesting 
 		e.g. as an outlier in some way as compared to the standard set 
 		of english letter frequency distribution using standard deviations
+
+		The leftover set of a wrong letter guess c is never built.  The 
+		number of leftover words containing letter x is the number of 
+		words containing x minus the number containing both c and x, so 
+		one pass over the set filling a co-occurrence table of the 
+		candidate letters is enough to score them.  Letters are counted 
+		by their HangmanAlphabet id.  Scores are cached per letter.
 	*/
 	private static class SimulatedOutlierSetComparator
 			implements Comparator<Character> 
 	{
+		private final RunContext context;
 
-		private Set<String> clone = new HashSet<String>();
+		private final HangmanAlphabet alphabet;
+
+		//Letters that may be compared, the rows of cooccurrences
+		private final List<Character> candidates;
+
+		//containing[x] is the number of words containing the letter of
+		//id x, cooccurrences[k][x] the number containing both candidate
+		//letter k and the letter of id x
+		private final int[] containing;
+		private final int[][] cooccurrences;
+
+		private int size = 0;
+
+		private Map<Character, Double> scores = 
+			new HashMap<Character, Double>();
 
 		// Initialize the instance through the constructor
-		public SimulatedOutlierSetComparator(Set<String> set)
+		public SimulatedOutlierSetComparator(RunContext context, 
+			Set<String> set, HangmanAlphabet alphabet, 
+			List<Character> candidates)
 		{
-			//copy words collection to clone
-			for(String copy: set)
+			this.context = context;
+
+			if(true == context.isValidLevel(HangmanUtil.DisplayLevel.DEBUG))
 			{
-				clone.add(copy);
+				context.debug("In constructor, set is: " + set);
 			}
 
-			HangmanUtil.debug("In constructor, clone is: " + clone);
+			this.alphabet = alphabet;
+			this.candidates = new ArrayList<Character>(candidates);
+
+			size = set.size();
+
+			int numLetters = alphabet.size();
+
+			this.containing = new int[numLetters];
+			this.cooccurrences = new int[candidates.size()][numLetters];
+
+			int[] candidateIds = new int[candidates.size()];
+
+			for(int k=0; k<candidateIds.length; k++)
+			{
+				candidateIds[k] = alphabet.id(candidates.get(k));
+			}
+
+			//Word number each letter was last seen in, to collect the 
+			//unique letters of a word
+			int[] seen = new int[numLetters];
+			int[] letters = new int[numLetters];
+			int stamp = 0;
+
+			for(String word: set)
+			{
+				stamp++;
+
+				int count = 0;
+
+				for(int i=0; i<word.length(); i++)
+				{
+					int id = alphabet.id(word.charAt(i));
+
+					if(seen[id] != stamp)
+					{
+						seen[id] = stamp;
+						letters[count++] = id;
+						containing[id]++;
+					}
+				}
+
+				for(int k=0; k<candidateIds.length; k++)
+				{
+					int candidate = candidateIds[k];
+
+					if(candidate < 0 || seen[candidate] != stamp) continue;
+
+					int[] row = cooccurrences[k];
+
+					for(int j=0; j<count; j++)
+					{
+						row[letters[j]]++;
+					}
+				}
+			}
 		}
 
 		// Compare these two characters based on their set outlier scores
@@ -113,25 +221,16 @@ public class HangmanStrategy implements GuessingStrategy
 		// that can be inferred)
 		public int compare(Character c1, Character c2) {
             
-            Set<String> s1 = cloneSet(clone);
-            Set<String> s2 = cloneSet(clone);
-
-			HangmanStrategy.filterWordsWrongGuess(c1, s1, true);
-			HangmanStrategy.filterWordsWrongGuess(c2, s2, true);
-
-			double score1 = HangmanStrategy.outlierScore(s1);
-            double score2 = HangmanStrategy.outlierScore(s2);
-
-            s1.clear();
-            s2.clear();
-
-            s1 = null;
-            s2 = null;
+			double score1 = score(c1);
+			double score2 = score(c2);
 
-			HangmanUtil.debug("outlier simulated letter " + c1 
-				+ ", [score is: " + score1 + "]");
-			HangmanUtil.debug("outlier simulated letter " + c2 
-				+ ", [score is: " + score2 + "]");
+			if(true == context.isValidLevel(HangmanUtil.DisplayLevel.DEBUG))
+			{
+				context.debug("outlier simulated letter " + c1 
+					+ ", [score is: " + score1 + "]");
+				context.debug("outlier simulated letter " + c2 
+					+ ", [score is: " + score2 + "]");
+			}
 
             if (score1 >= score2)
             {
@@ -143,20 +242,40 @@ public class HangmanStrategy implements GuessingStrategy
 	        }
         }
 
-        // Create a new copy of the set
-        private Set<String> cloneSet(Set<String> set)
+        // Outlier score of the set left over after a wrong guess of c, 
+        // computed once per letter by subtracting the words containing c
+        private double score(Character c)
         {
-        	Set<String> cloned = new HashSet<String>();
-        	for(String copy: set)
+        	Double cached = scores.get(c);
+
+        	if(cached != null) return cached;
+
+        	int k = candidates.indexOf(c);
+
+        	if(k < 0)
         	{
-        		cloned.add(copy);
+        		throw new IllegalArgumentException("Not a candidate letter: " 
+        			+ c);
         	}
 
-        	return cloned;
-        }
-	}
+        	int[] removed = cooccurrences[k];
+        	int[] counts = new int[containing.length];
+
+        	for(int x=0; x<counts.length; x++)
+        	{
+        		counts[x] = containing[x] - removed[x];
+        	}
 
+        	int id = alphabet.id(c);
 
+        	double score = HangmanStrategy.outlierScore(counts, 
+        		size - (id < 0 ? 0 : removed[id]), alphabet);
+
+        	scores.put(c, score);
+
+        	return score;
+        }
+	}
 
 	/*
 	  NOTE: Using the Java HashMap predominately, as it can easily handle 
@@ -208,20 +327,7 @@ public class HangmanStrategy implements GuessingStrategy
 
 	/* Static fields */
 
-	/*
-	  Relative percentage frequency of letters used in English language
-	  From wikipedia http://en.wikipedia.org/wiki/Letter_frequency
-	  Index 0 corresponds to 'a' which is 8.167%, index 1 to 'b' which 
-	  is 1.492% etc..
-	  Letter e is the highest with 12.702% letter frequency
-	*/									
-	private static final double[] relativeLetterFreqEnglishLang = 
-		new double[]{8.167, 1.492, 2.782, 4.253, 12.702, 2.228, 2.015, 
-			6.094, 6.966, 0.153, 0.772, 4.025, 2.406, 6.749, 7.507, 1.929, 
-			0.095, 5.987, 6.327, 9.056, 2.758, 0.978, 2.360, 0.150, 1.974, 
-			0.074};
-
-	//Constants used in determining when to 
+	//Default thresholds used in determining when to 
 	//employ certain guessing strategies
 	private static final int MEDIUM_WORD_SET_SIZE = 550;
 	private static final int SMALL_WORD_SET_SIZE = 20;
@@ -230,39 +336,72 @@ public class HangmanStrategy implements GuessingStrategy
 
 	private static final int TOP_N_THRESHOLD = 3;
 
+	//Guess codes of nextGuessCode(), besides the uppercase letter 
+	//of a letter guess: a guess of the word getWordGuess() and no
+	//guess at all
+	public static final int GUESS_WORD = -1;
+	public static final int NO_GUESS = -2;
 
-	//This map contains the set of words keyed by their size
-	private static Map<Integer, Set<String>> sizeWordMap = 
-	  new HashMap<Integer, Set<String>>();
+	//Names of the thresholds as used in a strategy config file
+	static final String[] THRESHOLD_NAMES = new String[]{
+		"MEDIUM_WORD_SET_SIZE", "SMALL_WORD_SET_SIZE", 
+		"TINY_WORD_SET_SIZE", "MICRO_WORD_SET_SIZE", "TOP_N_THRESHOLD"};
 
-	//This map contains the counts of all the characters in each of 
-	// the word length arranged word sets
-	private static Map<Integer, Map<Character, Integer>> letterCountsMapSets = 
-	  new HashMap<Integer, Map<Character, Integer>>(); 
 
+	/* Instance member fields */	
 
-	//This map contains the counts of all the characters in the dictionary
-	private static Map<Character, Integer> letterCountsMapDictionary = 
-		new HashMap<Character, Integer>();
+	//Context of the run the game is played in
+	private final RunContext context;
 
+	//Thresholds in use, the defaults unless the run's strategy 
+	//config file says otherwise (see loadThresholds)
+	private final int mediumWordSetSize;
+	private final int smallWordSetSize;
+	private final int tinyWordSetSize;
+	private final int microWordSetSize;
 
-	/* Instance member fields */	
+	private final int topNThreshold;
 
-	//Current character counts map of current word set
-	private Map<Character, Integer> letterCountsMap = 
-		new HashMap<Character, Integer>();
+	//Dictionary of the game, holding the per word length word sets
+	//and letter counts shared by all games, and the version of them
+	//the game started with, kept if the dictionary is reloaded
+	private HangmanDictionary dictionary;
+	private HangmanDictionary.Version version;
+
+	//Letters of the words of the answer length, see HangmanAlphabet
+	private HangmanAlphabet alphabet;
+
+	//Current letter counts of current word set, by alphabet id
+	private int[] letterCounts = null;
 
 	//Current set of possible hangman solution words
 	//Used to add and remove words frequently and quickly
 	private Set<String> wordSet = new HashSet<String>();
 
-	//Current set of already guessed letters
-	//Used as a fast lookup for guessed letters
-	private Set<Character> alreadyGuessedLetters = new HashSet<Character>();
+	//Already guessed letters, by alphabet id
+	private boolean[] guessedLetters = null;
+
+	//Current ids of the letters of current word set, most frequent 
+	//first, the number ranked and the first one not yet passed over
+	private int[] rankedLetters = null;
+	private int numRanked = 0;
+	private int rankHead = 0;
+
+	//Scratch space of the tallies and rankings, reused every guess
+	private int[] talliedLetters = null;
+	private int[] foundLetters = null;
+	private long[] rankKeys = null;
 
-	//Current queue of most frequent letters given current word set
-	private Queue<Character> freqLetterQueue = 
-		new ArrayDeque<Character>();
+	//Current subset of possible words which are also stumper words,
+	//in the iteration order of the word set, built on first use and 
+	//then kept in step with the word set
+	private List<String> stumperSet = null;
+
+	//Current letter counts of current stumper subset, by alphabet id,
+	//and its ranking (no exclusions applied, guessed letters are 
+	//skipped on lookup)
+	private int[] stumperLetterCounts = null;
+	private int[] stumperRankedLetters = null;
 
 	//Game state
 	private int answerLength = 0;
@@ -275,6 +414,9 @@ public class HangmanStrategy implements GuessingStrategy
 	private boolean lastGuessIsLetter = false;
 	private boolean lastGuessIsWord = false;
 
+	//How the guess being decided is chosen
+	private Branch branch = null;
+
 	
 	/**
 	 * Create a letter frequency map from the hangman letters 
@@ -337,8 +479,9 @@ public class HangmanStrategy implements GuessingStrategy
 	 * Rather than doing 3 passes of the word, doing 1 pass with 
 	 * all the 3 checks
 	 */
-	private static boolean isValidPossibleWord(Character guessedCorrectLetter, 
-				String word, Map<Character, Integer> map, String hangman)
+	private static boolean isValidPossibleWord(RunContext context, 
+				Character guessedCorrectLetter, String word, 
+				Map<Character, Integer> map, String hangman)
 	{
 		boolean match = false;
 
@@ -372,7 +515,7 @@ public class HangmanStrategy implements GuessingStrategy
 			{
 				Character letter = word.charAt(i);
 
-				HangmanUtil.debug("correct letter is: " 
+				context.debug("correct letter is: " 
 					+ guessedCorrectLetter + ", hangman is: " 
 					+ hangman + ", word is: "+ word + 
 					", word[i] is: " + letter);
@@ -404,10 +547,10 @@ public class HangmanStrategy implements GuessingStrategy
 						if(hangman.charAt(i) 
 								!= Character.toUpperCase(word.charAt(i)))
 						{
-							HangmanUtil.debug("not a valid possible " 
+							context.debug("not a valid possible " 
 								+ "word (no pos match)");
 
-						//	HangmanUtil.debug("hangman is: " + 
+						//	context.debug("hangman is: " + 
 						//		hangman + ", word is: "
 						//		+ word + ", hangman[i] is: " + 
 						//		hangman.charAt(i) 
@@ -425,7 +568,7 @@ public class HangmanStrategy implements GuessingStrategy
 			//in the word return
 			if(guessedCorrectLetterInWord == false) 
 			{
-				HangmanUtil.debug("not a valid possible word (correct " 
+				context.debug("not a valid possible word (correct " 
 					+ "letter not found)");
 
 				return false; 
@@ -446,7 +589,7 @@ public class HangmanStrategy implements GuessingStrategy
     			{
     				//match = false;
     				//break;
-    				HangmanUtil.debug("not a valid possible word " 
+    				context.debug("not a valid possible word " 
     					+ "(hangman letter counts don't match word)");
 
     				return false;
@@ -473,7 +616,7 @@ public class HangmanStrategy implements GuessingStrategy
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
 
 		return match;
@@ -599,7 +742,7 @@ public class HangmanStrategy implements GuessingStrategy
 						if(hangman.charAt(i) != 
 								Character.toUpperCase(word.charAt(i)))
 						{
-						/*	HangmanUtil.debug("hangman is: " 
+						/*	context.debug("hangman is: " 
 								+ hangman + ", word is: "
 								+ word + ", hangman[i] is: " 
 								+ hangman.charAt(i) 
@@ -620,112 +763,89 @@ public class HangmanStrategy implements GuessingStrategy
 	}
 
 	/**
-	 * Records the number of words containing various letters.  
-	 * If an exclusion set is provided, ignore the letters found in the 
-	 * exclusion set.  Takes in an empty queue.
-	 * Returns a map with the letter count frequency and a sorted
-	 * queue with the letters in increasing order of word frequency
+	 * Records the number of words containing various letters, by 
+	 * alphabet id.  Letters marked in the exclusion array are ignored.
+	 * Each letter is tallied once per word.
+	 * Returns the number of letters found, with their ids in the found
+	 * array in the order they were first found.
 	 */
-	private static void tallyLetterWordFrequency(Set<String> set, 
-			Set<Character> exclusion, Map<Character, Integer> map, 
-			Queue<Character> sortedQueue) 
+	private static int tallyLetterWordFrequency(RunContext context, 
+			Set<String> set, HangmanAlphabet alphabet, boolean[] exclusion, 
+			int[] counts, int[] tallied, int[] found) 
 	{
+		int numFound = 0;
+
 		try
 		{
-			if(set == null || map == null)
+			if(set == null || alphabet == null || counts == null 
+				|| tallied == null || found == null)
 			{
 				throw new IllegalArgumentException("input parameter(s)" 
 					+ " can't" + " be null");
 			}
 
+			Arrays.fill(counts, 0);
+
+			//Word number each letter was last tallied in
+			Arrays.fill(tallied, 0);
+
+			int stamp = 0;
+
 			for(String s: set)
 			{
-				if(exclusion != null)
-				{
-					HangmanStrategy.tallyUniqLetterFrequency(s, true, exclusion, map);
-				}
-				else
+				stamp++;
+
+				for(int i=0; i<s.length(); i++)
 				{
-					HangmanStrategy.tallyUniqLetterFrequency(s, false, null, map);
-				}
-			}
+					int id = alphabet.id(s.charAt(i));
 
-			if(sortedQueue != null)
-			{
-				HangmanStrategy.sortLetterMap(map, sortedQueue, null);
+					if(tallied[id] == stamp) continue;
+
+					tallied[id] = stamp;
+
+					if(exclusion != null && true == exclusion[id]) continue;
+
+					if(counts[id]++ == 0) found[numFound++] = id;
+				}
 			}
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
+
+		return numFound;
 	}
 
 	/**
-	 * Given a word, tally the various letters in the word by uniqueness.  
-	 * If there are two a's record only 1 a.  If an exclusion set is 
-	 * provided, ignore the letters found in the exclusion set.  
-	 * Returns a map with the letter count frequency.
+	 * Given a word, tally the various letters in the word by uniqueness,
+	 * by alphabet id.  If there are two a's record only 1 a.  A negative
+	 * amount reverses a previous tally of the word.
 	 */
 	private static void tallyUniqLetterFrequency(String word, 
-				boolean useExclusionSet, Set<Character> exclusion, 
-				Map<Character, Integer> map) 
+				HangmanAlphabet alphabet, int[] counts, int amount) 
 	{
 		try
 		{
-			if(word == null || map == null)
+			if(word == null || alphabet == null || counts == null)
 			{
 				throw new IllegalArgumentException("input parameter(s)" 
 					+ " can't be null");
 			}
 
-			if(useExclusionSet == true && exclusion == null)
-			{
-				throw new IllegalArgumentException("specified exclusion " 
-					+ "set intent, but exclusion set can't be null");
-			}
-
 			//We only want to record one entry for each letter in the word
 			//If a word has two e's for example only mark e once
 			//Thus the word letter frequency for e is '1' word
 
-			Set<Character> processedLetters = new HashSet<Character>();
-
 			for(int i=0; i<word.length(); i++)
 			{
 				char letter = word.charAt(i);
 
-				boolean alreadyProcessed = processedLetters.contains(letter);
-
-				boolean exclude = false;
-
-				//check if we want to ignore certain letters
-				if(true == useExclusionSet)
-				{
-					exclude = exclusion.contains(letter);
-				}
-
-				//We are going to tally only those letters 
-				//that we haven't guessed already
-				if(false == exclude && false == alreadyProcessed)
-				{
-					//check if letter key has a value
-					if(map.get(letter) == null)
-					{
-						map.put(letter, 1);
-					}
-					else
-					{
-						int count = map.get(letter);
-						map.put(letter, count + 1);
-					}
+				//Only the first occurence of a letter is tallied
+				if(word.indexOf(letter) != i) continue;
 
-					processedLetters.add(letter);
-				}
+				counts[alphabet.id(letter)] += amount;
 			}
-
-			processedLetters.clear();
-			processedLetters = null;
 		}
 		catch(Exception e)
 		{
@@ -734,70 +854,68 @@ public class HangmanStrategy implements GuessingStrategy
 	}
 
 	/**
-	 * Take the character frequency count hashmap and sort it using the 
-	 * passed in comparator. If none is provided, the default one 
-	 * will be applied sorting most frequent characters to the 
-	 * head of the output queue.
-	 *
-	 * NOTE: Ignoring the case where there are multiple characters 
-	 * with the same count	
+	 * Display the ranked letters, most frequent first, with their counts.
+	 * Letters are only looked up from their ids if the display is
+	 * verbose enough to show them.
 	 */
-	private static void sortLetterMap(Map<Character, Integer> map, 
-			Queue<Character> queue, Comparator<Character> cmp) 
+	private static void displayRanking(RunContext context, 
+			HangmanAlphabet alphabet, int[] counts, int[] ranked, 
+			int numRanked) 
 	{
 		try
 		{
-			if(map == null || queue == null)
+			if(alphabet == null || counts == null || ranked == null)
 			{
 				throw new IllegalArgumentException("input parameter(s) " 
 					+ "can't be null");
 			}
 
-			boolean useDefaultComparator = false;
-
-			if(cmp == null) 
+			if(false == context.isValidLevel(HangmanUtil.DisplayLevel.VERBOSE))
 			{
-				cmp = new LetterComparator(map);
-				useDefaultComparator = true;
+				return;
 			}
 
-			//We sort a hashmap and construct a queue
-	
-			Map<Character, Integer> sorted_map = 
-				new TreeMap<Character, Integer>(cmp);
-			
-			sorted_map.putAll(map);
+			StringBuilder map = new StringBuilder("{");
+			StringBuilder queue = new StringBuilder("[");
 
-			for (Character key : sorted_map.keySet())
+			for(int i=0; i<numRanked; i++)
 			{
-				queue.add(key);
-			}
-			
-			HangmanUtil.verbose("sorted letter map is " 
-				+ sorted_map.toString().toUpperCase());
+				char letter = alphabet.letter(ranked[i]);
 
-			HangmanUtil.verbose("sorted letter queue is " 
-				+ queue.toString().toUpperCase());
+				if(i > 0)
+				{
+					map.append(", ");
+					queue.append(", ");
+				}
 
-			if(true == useDefaultComparator) cmp = null;
+				map.append(letter).append('=').append(counts[ranked[i]]);
+				queue.append(letter);
+			}
+
+			context.verbose("sorted letter map is " 
+				+ map.append('}').toString().toUpperCase());
 
-			sorted_map.clear();
-			sorted_map = null;
+			context.verbose("sorted letter queue is " 
+				+ queue.append(']').toString().toUpperCase());
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
 	}
 
 	/**
 	 * Remove possible words that do have the incorrect letter.
 	 */
-	private static int filterWordsWrongGuess(Character c, 
-			Set<String> words, boolean verboseDisplayOff)
+	private static int filterWordsWrongGuess(RunContext context, 
+			Character c, Set<String> words, boolean verboseDisplayOff)
 	{
 		int count = 0;
 
+		HangmanEvents.Filter event = HangmanEvents.beginFilter();
+
+		int candidates = null == words ? 0 : words.size();
+
 		try
 		{
 			if(c == null || words == null)
@@ -828,21 +946,24 @@ public class HangmanStrategy implements GuessingStrategy
 
 			if(false == verboseDisplayOff)
 			{
-				HangmanUtil.verbose("removing " + count 
+				context.verbose("removing " + count 
 					+ " words (wrong guess)");
 				
-				HangmanUtil.verbose("possible words set size is now " 
+				context.verbose("possible words set size is now " 
 					+ words.size());
 
-				HangmanUtil.verbose2("possible words set is " 
+				context.verbose2("possible words set is " 
 					+ words.toString().toUpperCase());
 			}
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
 
+		HangmanStrategy.commitFilterEvent(event, c, false, false, 
+			candidates, candidates - count, words);
+
 		return count;
 	}
 
@@ -851,13 +972,17 @@ public class HangmanStrategy implements GuessingStrategy
 	 * after having correctly guessed letter c.
 	 * Updates words collection with new filtered set
 	 */
-	private static int filterWordsCorrectGuess(Character letter, 
-					Set<String> words, String hangman, 
+	private static int filterWordsCorrectGuess(RunContext context, 
+					Character letter, Set<String> words, String hangman, 
 					int validLength, boolean simulate)
 	{
 	
 		int wordsFiltered = 0;
 
+		HangmanEvents.Filter event = HangmanEvents.beginFilter();
+
+		int candidates = null == words ? 0 : words.size();
+
 		try
 		{
 			if(letter == null || words == null 
@@ -872,23 +997,51 @@ public class HangmanStrategy implements GuessingStrategy
 			HangmanStrategy.createHangmanLetterMap(hangman, map, validLength);
 
 			wordsFiltered 
-				= HangmanStrategy.filterWordsCorrectGuessHelper(letter, 
-								words, hangman, map, simulate);
+				= HangmanStrategy.filterWordsCorrectGuessHelper(context, 
+								letter, words, hangman, map, simulate);
 
 	//		#Deprecated, runs slower
 	//		wordsFiltered 
-	//			= HangmanStrategy.filterWordsCorrectGuessRemove(letter, 
+	//			= HangmanStrategy.filterWordsCorrectGuessRemove(context, letter, 
 	//							words, hangman, map, simulate);
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
 
+		HangmanStrategy.commitFilterEvent(event, letter, true, simulate, 
+			candidates, candidates - wordsFiltered, words);
+
 		return wordsFiltered;
 	
 	}
 
+	/**
+	 * Fill in and commit the event of a filtering of the possible 
+	 * words, if it was begun and is being recorded
+	 */
+	private static void commitFilterEvent(HangmanEvents.Filter event, 
+		Character letter, boolean correct, boolean simulate, 
+		int candidatesBefore, int candidatesAfter, Set<String> words)
+	{
+		if(null != event && true == event.shouldCommit())
+		{
+			if(null != words && false == words.isEmpty())
+			{
+				event.wordLength = words.iterator().next().length();
+			}
+
+			if(null != letter) event.letter = letter;
+
+			event.correct = correct;
+			event.simulated = simulate;
+			event.candidatesBefore = candidatesBefore;
+			event.candidatesAfter = candidatesAfter;
+			event.commit();
+		}
+	}
+
 	
 
 	/**
@@ -898,8 +1051,8 @@ public class HangmanStrategy implements GuessingStrategy
 	 * Can also be used in simulation mode without making any 
 	 * possible word set changes.
 	 */
-	private static int filterWordsCorrectGuessRemove(Character c, 
-						Set<String> words, String hangman, 
+	private static int filterWordsCorrectGuessRemove(RunContext context, 
+						Character c, Set<String> words, String hangman, 
 						Map<Character, Integer> map, boolean simulate) 
 	{
 		int count = 0;
@@ -917,7 +1070,8 @@ public class HangmanStrategy implements GuessingStrategy
 			for(String word: words)
 			{
 				//Check if word is a possible valid word, if not remove it
-				if(false == HangmanStrategy.isValidPossibleWord(c, word, map, hangman))
+				if(false == HangmanStrategy.isValidPossibleWord(context, c, word, 
+					map, hangman))
 				{
 					if(simulate == false) removeWords.add(word);
 					count++;
@@ -936,16 +1090,16 @@ public class HangmanStrategy implements GuessingStrategy
 			removeWords.clear();
 			removeWords = null;
 
-			HangmanUtil.verbose("[Deprecated] removing " 
+			context.verbose("[Deprecated] removing " 
 				+ count + " words (correct guess)");
-			HangmanUtil.verbose("[Deprecated] possible words set size is " 
+			context.verbose("[Deprecated] possible words set size is " 
 				+ words.size());
-			HangmanUtil.verbose2("[Deprecated] possible words set is " 
+			context.verbose2("[Deprecated] possible words set is " 
 				+ words.toString().toUpperCase());
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
 
 		return count;
@@ -958,8 +1112,8 @@ public class HangmanStrategy implements GuessingStrategy
 	 * letter counts.  Can also be used in simulation mode without 
 	 * making any possible word set changes
 	 */
-	private static int filterWordsCorrectGuessHelper(Character c, 
-							Set<String> words, String hangman, 
+	private static int filterWordsCorrectGuessHelper(RunContext context, 
+							Character c, Set<String> words, String hangman, 
 							Map<Character, Integer> map, boolean simulate) 
 	{
 		int count = 0;
@@ -1022,16 +1176,16 @@ public class HangmanStrategy implements GuessingStrategy
 			removeWords.clear();
 			removeWords = null;
 
-			HangmanUtil.verbose("removing " + count 
+			context.verbose("removing " + count 
 				+ " words (correct guess)");
-			HangmanUtil.verbose("possible words set size is " 
+			context.verbose("possible words set size is " 
 				+ words.size());
-			HangmanUtil.verbose2("possible words set is " 
+			context.verbose2("possible words set is " 
 				+ words.toString().toUpperCase());
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
 
 		return count;
@@ -1043,8 +1197,8 @@ public class HangmanStrategy implements GuessingStrategy
 	 * it was a correct choice in a simulated game. 
 	 * The simulation does not change the game state.
 	 */
-	private static Character simulatedLetterStrength(List<Character> list, 
-			Comparator<Character> simComparator) 
+	private static Character simulatedLetterStrength(RunContext context, 
+			List<Character> list, Comparator<Character> simComparator) 
 	{
 		Character strongLetter = null;
 
@@ -1058,7 +1212,7 @@ public class HangmanStrategy implements GuessingStrategy
 					+ " can't be null");
 			}
 
-			HangmanUtil.debug("Simulating letter guess " 
+			context.debug("Simulating letter guess " 
 				+ "(not actually guessing right now)");
 
 			Set<Character> sortedSet = 
@@ -1066,7 +1220,7 @@ public class HangmanStrategy implements GuessingStrategy
 			
 			sortedSet.addAll(list);
 
-			HangmanUtil.debug("Sorted letter strengths map is: " 
+			context.debug("Sorted letter strengths map is: " 
 				+ sortedSet);
 
 			Queue<Character> sortedQueue = new ArrayDeque<Character>();
@@ -1076,9 +1230,9 @@ public class HangmanStrategy implements GuessingStrategy
 				sortedQueue.add(key);
 			}
 
-			HangmanUtil.debug("End simulating letter guess");
+			context.debug("End simulating letter guess");
 
-			HangmanUtil.debug("Strong simulated letter guess winner is: " 
+			context.debug("Strong simulated letter guess winner is: " 
 				+ sortedQueue.peek());
 
 			strongLetter = sortedQueue.remove();
@@ -1091,7 +1245,7 @@ public class HangmanStrategy implements GuessingStrategy
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
 
 		return strongLetter;
@@ -1110,24 +1264,53 @@ public class HangmanStrategy implements GuessingStrategy
 	 * NOTE: Observation - the smaller the set the higher the standard
 	 *		 deviation because there are less characters 
 	 */
-	private static double outlierScore(Set<String> set)
+	private static double outlierScore(RunContext context, 
+		Set<String> set, HangmanAlphabet alphabet)
 	{
 		double standardDeviation = 0;
 
 		try
 		{	
-			if(set == null)
+			if(set == null || alphabet == null)
 			{
 				throw new IllegalArgumentException("input parameter(s) " 
 					+ "can't be null");
 			}
 
-			Map<Character, Integer> map = new HashMap<Character, Integer>();
+			int[] counts = new int[alphabet.size()];
+
+			HangmanStrategy.tallyLetterWordFrequency(context, set, alphabet, 
+				null, counts, new int[alphabet.size()], 
+				new int[alphabet.size()]);
+
+			standardDeviation = 
+				HangmanStrategy.outlierScore(counts, set.size(), alphabet);
+		}
+		catch(Exception e)
+		{
+			HangmanUtil.errors(context).println("Exception: " + e);
+		}
+
+		return standardDeviation;
+	}
+
+	/*
+	 * Outlier score given the number of words containing each letter, 
+	 * indexed by alphabet id, and the word set size.  See outlierScore(Set)
+	 */
+	private static double outlierScore(int[] counts, int size, 
+		HangmanAlphabet alphabet)
+	{
+		double standardDeviation = 0;
+
+		try
+		{	
+			if(counts == null || alphabet == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) " 
+					+ "can't be null");
+			}
 
-			HangmanStrategy.tallyLetterWordFrequency(set, null, map, null);
-			
-			int size = set.size();
-			
 			int count = 0;
 			double sumSqDiff = 0.0;
 
@@ -1144,13 +1327,15 @@ public class HangmanStrategy implements GuessingStrategy
 				from the mean
 			*/
 
-			for(Character key: map.keySet())
+			for(int i=0; i<counts.length; i++)
 			{
+				//Only letters that occur in the set are considered
+				if(counts[i] <= 0) continue;
+
 				double letterFreqDist = 
-					(double) map.get(key) / (double) size;
+					(double) counts[i] / (double) size;
 
-				double standard = 
-					HangmanStrategy.relativeLetterFreqEnglishLang[ ((char) key - 'a') ];
+				double standard = alphabet.getReferenceFrequency(i);
 
 				double diff = Math.abs(standard - letterFreqDist);
 
@@ -1173,6 +1358,113 @@ public class HangmanStrategy implements GuessingStrategy
 		return standardDeviation;
 	}
 
+	/**
+	 * @return The default thresholds, ordered as THRESHOLD_NAMES
+	 */
+	static int[] defaultThresholds()
+	{
+		return new int[]{MEDIUM_WORD_SET_SIZE, SMALL_WORD_SET_SIZE, 
+			TINY_WORD_SET_SIZE, MICRO_WORD_SET_SIZE, TOP_N_THRESHOLD};
+	}
+
+	/**
+	 * Load the strategy thresholds from a config file in 
+	 * java.util.Properties format, keyed by THRESHOLD_NAMES.  
+	 * Thresholds missing from the file keep their default value.
+	 * @param File strategy config file
+	 * @return The thresholds, ordered as THRESHOLD_NAMES
+	 * @throws IOException, IllegalArgumentException for a bad file
+	 */
+	public static int[] loadThresholds(File file) 
+		throws IOException, IllegalArgumentException
+	{
+		int[] thresholds = null;
+
+		Reader reader = null;
+
+		try
+		{
+			if(file == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) " 
+					+ "can't be null");
+			}
+
+			Properties config = new Properties();
+
+			reader = new FileReader(file);
+			config.load(reader);
+
+			reader.close();
+			reader = null;
+
+			thresholds = HangmanStrategy.loadThresholds(config, 
+				file.toString());
+
+			HangmanUtil.verbose("strategy thresholds loaded from " + file 
+				+ ": " + config);
+		}
+		finally
+		{
+			if(null != reader) reader.close();
+		}
+
+		return thresholds;
+	}
+
+	/**
+	 * Read the strategy thresholds from properties keyed by 
+	 * THRESHOLD_NAMES.  Thresholds missing from them keep their 
+	 * default value.
+	 * @param Properties strategy thresholds
+	 * @param String where the properties came from, for error messages
+	 * @return The thresholds, ordered as THRESHOLD_NAMES
+	 * @throws IllegalArgumentException for a bad threshold
+	 */
+	static int[] loadThresholds(Properties config, String source)
+	{
+		for(String name: config.stringPropertyNames())
+		{
+			if(false == Arrays.asList(THRESHOLD_NAMES).contains(name))
+			{
+				throw new IllegalArgumentException("Unknown strategy "
+					+ "threshold " + name + " in " + source);
+			}
+		}
+
+		int[] thresholds = defaultThresholds();
+
+		for(int i=0; i<THRESHOLD_NAMES.length; i++)
+		{
+			thresholds[i] = threshold(config, THRESHOLD_NAMES[i], 
+				thresholds[i]);
+		}
+
+		return thresholds;
+	}
+
+	/**
+	 * @return The named threshold from the config, or the default value
+	 * if the config does not have it
+	 */
+	private static int threshold(Properties config, String name, 
+		int defaultValue)
+	{
+		String value = config.getProperty(name);
+
+		if(value == null) return defaultValue;
+
+		int threshold = Integer.parseInt(value.trim());
+
+		if(threshold < 1)
+		{
+			throw new IllegalArgumentException("Strategy threshold " + name 
+				+ " must be positive");
+		}
+
+		return threshold;
+	}
+
 
 
 	/** Instance methods **/
@@ -1180,17 +1472,73 @@ public class HangmanStrategy implements GuessingStrategy
 	/**
 	 * Public constructor for HangmanStrategy
 	 * Initializes recordkeeping strategy structures
+	 * in the context of the command line run
 	 * @params HangmanGame instance
 	 */
 	public HangmanStrategy(HangmanGame game) throws Exception
 	{
+		this(game, HangmanUtil.getContext());
+	}
+
+	/**
+	 * Public constructor for HangmanStrategy
+	 * Initializes recordkeeping strategy structures
+	 * using the dictionary of the run
+	 * @params HangmanGame instance
+	 * @params RunContext of the run the game is played in
+	 */
+	public HangmanStrategy(HangmanGame game, RunContext context) 
+		throws Exception
+	{
+		this(game, context.getHangmanDictionary(), context);
+	}
+
+	/**
+	 * Public constructor for HangmanStrategy
+	 * Initializes recordkeeping strategy structures
+	 * in the context of the command line run
+	 * @params HangmanGame instance
+	 * @params HangmanDictionary to draw the possible words from,
+	 * 			retained until end()
+	 */
+	public HangmanStrategy(HangmanGame game, HangmanDictionary dictionary) 
+		throws Exception
+	{
+		this(game, dictionary, HangmanUtil.getContext());
+	}
+
+	/**
+	 * Public constructor for HangmanStrategy
+	 * Initializes recordkeeping strategy structures
+	 * @params HangmanGame instance
+	 * @params HangmanDictionary to draw the possible words from,
+	 * 			retained until end()
+	 * @params RunContext of the run the game is played in
+	 */
+	public HangmanStrategy(HangmanGame game, HangmanDictionary dictionary, 
+		RunContext context) throws Exception
+	{
+		if(game == null || dictionary == null || context == null)
+		{
+			throw new IllegalArgumentException("input parameter" 
+				+ " can't be null");
+		}
+
+		this.context = context;
+
+		int[] thresholds = context.getThresholds();
+
+		this.mediumWordSetSize = thresholds[0];
+		this.smallWordSetSize = thresholds[1];
+		this.tinyWordSetSize = thresholds[2];
+		this.microWordSetSize = thresholds[3];
+		this.topNThreshold = thresholds[4];
+
 		try
 		{
-			if(game == null)
-			{
-				throw new IllegalArgumentException("input parameter" 
-					+ " can't be null");
-			}
+
+			this.dictionary = dictionary.retain();
+			this.version = dictionary.getVersion();
 
 			this.answerLength = game.getSecretWordLength();
 			this.numWrongGuessesRemaining = game.numWrongGuessesRemaining();
@@ -1205,22 +1553,118 @@ public class HangmanStrategy implements GuessingStrategy
 		}
 	}
 
+	/**
+	 * Copy constructor, see copy()
+	 */
+	private HangmanStrategy(HangmanStrategy other)
+	{
+		this.context = other.context;
+
+		this.mediumWordSetSize = other.mediumWordSetSize;
+		this.smallWordSetSize = other.smallWordSetSize;
+		this.tinyWordSetSize = other.tinyWordSetSize;
+		this.microWordSetSize = other.microWordSetSize;
+		this.topNThreshold = other.topNThreshold;
+
+		this.dictionary = other.dictionary.retain();
+		this.version = other.version;
+		this.alphabet = other.alphabet;
+
+		this.answerLength = other.answerLength;
+		this.numWrongGuessesRemaining = other.numWrongGuessesRemaining;
+		this.hangman = other.hangman;
+
+		//Ties between letters are broken by iteration order, so the 
+		//hashed collections are given the capacity the originals grew 
+		//to when first filled and are filled in their iteration order
+		this.wordSet = new HashSet<String>(HangmanStrategy.grownCapacity(
+			this.version.getWords(this.answerLength).size()));
+		this.wordSet.addAll(other.wordSet);
+
+		this.letterCounts = other.letterCounts.clone();
+		this.guessedLetters = other.guessedLetters.clone();
+
+		this.rankedLetters = other.rankedLetters.clone();
+		this.numRanked = other.numRanked;
+		this.rankHead = other.rankHead;
+
+		this.talliedLetters = new int[this.alphabet.size()];
+		this.foundLetters = new int[this.alphabet.size()];
+		this.rankKeys = new long[this.alphabet.size()];
+
+		if(null != other.stumperSet)
+		{
+			this.stumperSet = new ArrayList<String>(other.stumperSet);
+
+			this.stumperLetterCounts = other.stumperLetterCounts.clone();
+			this.stumperRankedLetters = 
+				new int[other.stumperRankedLetters.length];
+		}
+
+		this.lastLetterGuessed = other.lastLetterGuessed;
+		this.lastWordGuessed = other.lastWordGuessed;
+		this.lastGuessIsLetter = other.lastGuessIsLetter;
+		this.lastGuessIsWord = other.lastGuessIsWord;
+
+		this.branch = other.branch;
+	}
+
+	/**
+	 * @return A strategy in the same state as this one, deciding the 
+	 * same guesses for the same games from now on.  Retains the 
+	 * dictionary until its own end().
+	 */
+	public HangmanStrategy copy()
+	{
+		return new HangmanStrategy(this);
+	}
+
+	/**
+	 * @return The capacity a HashMap or HashSet of default capacity 
+	 * grows to holding the given number of entries
+	 */
+	private static int grownCapacity(int entries)
+	{
+		int capacity = 16;
+
+		while(entries > capacity * 3 / 4)
+		{
+			capacity *= 2;
+		}
+
+		return capacity;
+	}
+
 	/**
 	 * Explicit destructor for HangmanStrategy instance
 	 */
 	public void end()
 	{
-		this.letterCountsMap.clear();
-		this.letterCountsMap = null;
+		if(null != this.dictionary) this.dictionary.release();
+		this.dictionary = null;
+		this.version = null;
+		this.alphabet = null;
+
+		this.letterCounts = null;
 
 		this.wordSet.clear();
 		this.wordSet = null;
 
-		this.alreadyGuessedLetters.clear();
-		this.alreadyGuessedLetters = null;
+		this.guessedLetters = null;
+
+		this.rankedLetters = null;
+		this.numRanked = 0;
+		this.rankHead = 0;
 
-		this.freqLetterQueue.clear();
-		this.freqLetterQueue = null;
+		this.talliedLetters = null;
+		this.foundLetters = null;
+		this.rankKeys = null;
+
+		if(null != this.stumperSet) this.stumperSet.clear();
+		this.stumperSet = null;
+
+		this.stumperLetterCounts = null;
+		this.stumperRankedLetters = null;
 
 		this.lastLetterGuessed = null;
 		this.lastWordGuessed = null;
@@ -1235,104 +1679,66 @@ public class HangmanStrategy implements GuessingStrategy
 	}
 
 	/**
-	 * If this answer length's word set or letters count info is not 
-	 * already stored, generate it and store it for this instance 
-	 * and for subsequent games
+	 * @return The number of words still possible
+	 */
+	public int getNumPossibleWords()
+	{
+		return this.wordSet.size();
+	}
+
+	/**
+	 * Copy this answer length's word set and letter counts from the
+	 * dictionary version, which loads them for the first game of 
+	 * the length
 	 */
 	private void initialize()
 	{
-		Scanner input = null;
+		HangmanEvents.Initialize event = HangmanEvents.beginInitialize();
 
 		try
 		{
-			Set<String> words = this.sizeWordMap.get(this.answerLength);
+			Set<String> words = this.version.getWords(this.answerLength);
 
-			Map<Character, Integer> letterCounts = 
-				this.letterCountsMapSets.get(this.answerLength);
+			this.alphabet = this.version.getAlphabet(this.answerLength);
 
-			//check if we already have the wordset pre-stored and the 
-			//letter frequency pre-stored if so then just copy to
-			// instance variables
-			if(words != null && letterCounts != null)
-			{
-				for(String s: words)
-				{
-					this.wordSet.add(s);
-				}
+			HangmanDictionary.LetterCounts counts = 
+				this.version.getLetterCounts(this.answerLength);
 
-				for(Character key : letterCounts.keySet())
-				{
-					this.letterCountsMap.put(key, letterCounts.get(key));
-				}
-	  
-				HangmanStrategy.sortLetterMap(this.letterCountsMap, 
-					this.freqLetterQueue, null);
-			}
-			else //if we don't have the wordset pre-stored read in the dictionary words
+			for(String s: words)
 			{
-				input = HangmanUtil.getDictionary();
-
-				if(input != null)
-				{
-					//Load words into hashset
-					while(input.hasNext())
-					{
-						String word = input.next();
-
-						//We are only interested in words of answer length size
-						if(word.length() == this.answerLength)
-						{
-							this.wordSet.add(word);
-						}
-					}
-					
-					input.close();
-					input = null;
-
-					//Store our new wordSet into the HashMap of HashSets  
-					//for future retrieval to avoid initializing again
-					if(sizeWordMap.get(this.answerLength) == null)
-	  				{
-	   					Set<String> set = new HashSet<String>();
-
-	   					for(String s: this.wordSet)
-	   					{
-		 					set.add(s);
-						}
-
-					   sizeWordMap.put(this.answerLength, set);
-	  				}
+				this.wordSet.add(s);
+			}
 
-					tallyLetterFrequency();
+			//Sized to the alphabet once, then reused every guess
+			int numLetters = this.alphabet.size();
 
-					//Extract the letters and counts and then put it into 
-					//the HashMap of HashMap to avoid computing this again
-					if(null == this.letterCountsMapSets.get(this.answerLength))
-					{
-						Map<Character, Integer> lCounts = 
-							new HashMap<Character, Integer>();
+			this.letterCounts = new int[numLetters];
+			this.guessedLetters = new boolean[numLetters];
+			this.rankedLetters = new int[numLetters];
+			this.talliedLetters = new int[numLetters];
+			this.foundLetters = new int[numLetters];
+			this.rankKeys = new long[numLetters];
 
-						for(Character key : this.letterCountsMap.keySet())
-						{
-							lCounts.put(key, this.letterCountsMap.get(key));
-						}
+			counts.copyInto(this.letterCounts, this.rankedLetters);
 
-						this.letterCountsMapSets.put(this.answerLength, lCounts);
-					}
-				}
-				else
-				{
-					throw new IllegalStateException("Expecting a non-null scanner object");
-				}
-			}
+			this.numRanked = counts.size();
+			this.rankHead = 0;
+  
+			HangmanStrategy.displayRanking(this.context, this.alphabet, 
+				this.letterCounts, this.rankedLetters, this.numRanked);
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			this.context.getErrors().println("Exception: " + e);
 		}
-		finally
+
+		if(null != event && true == event.shouldCommit())
 		{
-			if(null != input) input.close();
+			event.wordLength = this.answerLength;
+			event.candidates = this.wordSet.size();
+			event.alphabetSize = 
+				null == this.alphabet ? 0 : this.alphabet.size();
+			event.commit();
 		}
 	}
 
@@ -1343,17 +1749,25 @@ public class HangmanStrategy implements GuessingStrategy
 	{
 		try
 		{
-			this.letterCountsMap.clear();
-			this.freqLetterQueue.clear();
+			int numFound = HangmanStrategy.tallyLetterWordFrequency(
+				this.context, this.wordSet, this.alphabet, 
+				this.guessedLetters, this.letterCounts, this.talliedLetters, 
+				this.foundLetters);
+
+			//Ranked as the tally filling a map of the whole alphabet
+			this.alphabet.rank(this.letterCounts, this.foundLetters, 
+				numFound, this.alphabet.size(), this.rankKeys, 
+				this.rankedLetters);
 
-			HangmanStrategy.tallyLetterWordFrequency(this.wordSet, 
-				this.alreadyGuessedLetters, this.letterCountsMap, 
-				this.freqLetterQueue);
+			this.numRanked = numFound;
+			this.rankHead = 0;
 
+			HangmanStrategy.displayRanking(this.context, this.alphabet, 
+				this.letterCounts, this.rankedLetters, this.numRanked);
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			this.context.getErrors().println("Exception: " + e);
 		}
 	}
 
@@ -1362,12 +1776,31 @@ public class HangmanStrategy implements GuessingStrategy
 	 * @param HangmanGame instance
 	 * @return Guess, the strategized guess
 	 * Given a hangman game instance, determine the next 
+	 * guessing strategy.  Adapts nextGuessCode() to the Guess 
+	 * interface.
+	 */
+	public Guess nextGuess(HangmanGame game)
+	{
+		return toGuess(nextGuessCode(game));
+	}
+
+	/**
+	 * @param HangmanGame instance
+	 * @return int, the strategized guess encoded as the uppercase
+	 * letter to guess, GUESS_WORD to guess getWordGuess() or NO_GUESS
+	 * Given a hangman game instance, determine the next 
 	 * guessing strategy.  Record information related to the last guess 
 	 * and use that to prepare the strategy for the next guess.
 	 */
-	public Guess nextGuess(HangmanGame game)
+	public int nextGuessCode(HangmanGame game)
 	{
-		Guess guess = null;
+		int guess = NO_GUESS;
+
+		HangmanEvents.Guess event = HangmanEvents.beginGuess();
+
+		int candidates = this.wordSet.size();
+
+		this.branch = null;
 
 		try
 		{
@@ -1381,16 +1814,48 @@ public class HangmanStrategy implements GuessingStrategy
 			//last guess and update accordingly
 			processLastGuess(game);
 
-			if(HangmanUtil.isValidLevel(HangmanUtil.DisplayLevel.VERBOSE))
+			if(this.context.isValidLevel(HangmanUtil.DisplayLevel.VERBOSE))
 			{
 				Set<Character> guesses = game.getAllGuessedLetters();
-				HangmanUtil.verbose("all guessed letters so far are " 
+				this.context.verbose("all guessed letters so far are " 
 					+ guesses);
 			}
 
-			Character guessCharacter = getNextLetter();
+			HangmanSearch.Move move = null;
+
+			//Solve tiny possible word sets exactly if asked to, 
+			//otherwise search ahead for small ones if asked to
+			if(true == this.context.useEndgame() && 
+				this.wordSet.size() > 1 &&
+				this.wordSet.size() <= this.tinyWordSetSize)
+			{
+				move = this.context.getEndgame().solve(this.wordSet, 
+					game.numWrongGuessesRemaining(), game.currentScore());
+
+				if(null != move) this.branch = Branch.ENDGAME;
+			}
+			else if(true == this.context.useSearch() && 
+				this.wordSet.size() > 1 &&
+				this.wordSet.size() <= this.smallWordSetSize)
+			{
+				move = HangmanSearch.search(this.wordSet, 
+					game.numWrongGuessesRemaining(), game.currentScore());
+
+				if(null != move) this.branch = Branch.SEARCH;
+			}
+
+			Character guessCharacter = null;
+
+			if(null == move)
+			{
+				guessCharacter = getNextLetter();
+			}
+			else
+			{
+				guessCharacter = move.getLetter();
+			}
 
-			HangmanUtil.debug("guess character is: " + guessCharacter);
+			this.context.debug("guess character is: " + guessCharacter);
 
 			//only 1 possible word left, we are done!
 			if(1 == this.wordSet.size())
@@ -1398,7 +1863,20 @@ public class HangmanStrategy implements GuessingStrategy
 				Iterator<String> iter = this.wordSet.iterator();
 				String word = iter.next();
 
-				guess = new GuessWord(word.toUpperCase());
+				guess = GUESS_WORD;
+				
+				this.lastWordGuessed = word;
+				this.lastGuessIsWord = true;
+				this.lastGuessIsLetter = false;
+
+				this.branch = Branch.WORD;
+			}
+			//the search would rather guess one of the words
+			else if(null != move && move.isWord())
+			{
+				String word = move.getWord();
+
+				guess = GUESS_WORD;
 				
 				this.lastWordGuessed = word;
 				this.lastGuessIsWord = true;
@@ -1406,93 +1884,154 @@ public class HangmanStrategy implements GuessingStrategy
 			}
 			else if(null != guessCharacter)
 			{
-				this.alreadyGuessedLetters.add(guessCharacter);
+				int id = this.alphabet.id(guessCharacter);
+
+				if(id >= 0) this.guessedLetters[id] = true;
 
 				//Letter c should be lowercase for processing and
 				//matching purposes but uppercase for display 
 				//as easier to read
 
-				guess = 
-					new GuessLetter(Character.toUpperCase(guessCharacter));
+				guess = Character.toUpperCase(guessCharacter);
 
 				this.lastLetterGuessed = guessCharacter;
 				this.lastGuessIsLetter = true;
 				this.lastGuessIsWord = false;
 			}
 
-			HangmanUtil.verbose();
-			HangmanUtil.verbose();
-			HangmanUtil.lessterse(guess.toString());
+			this.context.verbose();
+			this.context.verbose();
+
+			if(this.context.isValidLevel(HangmanUtil.DisplayLevel.LESS_TERSE))
+			{
+				this.context.lessterse(toGuess(guess).toString());
+			}
 		}
 		catch(Exception e)
 		{
-			e.printStackTrace(System.err);
+			e.printStackTrace(this.context.getErrors());
+		}
+
+		if(null != event && true == event.shouldCommit())
+		{
+			event.wordLength = this.answerLength;
+			event.candidatesBefore = candidates;
+			event.candidatesAfter = this.wordSet.size();
+			event.branch = String.valueOf(this.branch);
+
+			if(true == this.lastGuessIsWord)
+			{
+				event.word = this.lastWordGuessed;
+			}
+			else if(null != this.lastLetterGuessed)
+			{
+				event.letter = this.lastLetterGuessed;
+			}
+
+			event.commit();
 		}
 		
 		return guess;
 	}
 
+	/**
+	 * @return The word of the last GUESS_WORD guess code, as in the
+	 * dictionary
+	 */
+	public String getWordGuess()
+	{
+		return this.lastWordGuessed;
+	}
+
+	/**
+	 * @return The Guess of the guess code, null for NO_GUESS
+	 */
+	private Guess toGuess(int code)
+	{
+		if(code == GUESS_WORD)
+		{
+			return new GuessWord(this.lastWordGuessed.toUpperCase());
+		}
+
+		if(code == NO_GUESS) return null;
+
+		return new GuessLetter((char) code);
+	}
+
 	/**
 	 * Top level get next letter function, asks for the next letter to guess
 	 */
 	private Character getNextLetter()
 	{
 		Character letter = null;
+
+		HangmanProfile profile = this.context.getProfile();
+
+		long start = null == profile ? 0 : System.nanoTime();
 		
 		try
 		{
-			letter = getNextLetter(this.freqLetterQueue, this.wordSet, 
-						this.letterCountsMap, this.alreadyGuessedLetters);
+			letter = getNextLetter(this.wordSet, this.guessedLetters);
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			this.context.getErrors().println("Exception: " + e);
+		}
+
+		//With a single possible word left no letter is needed
+		if(null != profile)
+		{
+			profile.record(null == this.branch ? Branch.WORD : this.branch,
+				this.answerLength, System.nanoTime() - start);
 		}
 
 		return letter;
 	}
 
 	/**
-	 * Using the frequent letter queues, the set of possible words, 
-	 * the character counts determine the next letter to guess.
+	 * Using the ranked letters, the set of possible words, 
+	 * the letter counts determine the next letter to guess.
+	 * Letters passed over are not looked at again until the next tally.
 	 *
 	 * EXTRA: varies the next letter to guess by looking at interesting 
 	 * things like standard deviation of a word set after having guessed
 	 * a letter, choosing the most frequent letter and also looking at which
 	 * letter occurs most frequently in the stumper words
 	 */
-	private Character getNextLetter(Queue<Character> letterQ, 
-					Set<String> words, Map<Character, Integer> lookup, 
-					Set<Character> exclusion)
+	private Character getNextLetter(Set<String> words, boolean[] exclusion)
 	{
 		Character letter = null;
 		
 		try
 		{
-			if(letterQ == null || words == null || lookup == null)
+			if(words == null || exclusion == null)
 			{
 				throw new IllegalArgumentException("input parameter(s)" 
 					+ " can't be null");
 			}
 
-			if(letterQ.isEmpty())
+			if(this.rankHead == this.numRanked)
 			{ 
 				String bewildered = "Strange, no more letters in " 
 				 + "frequent letter queue, this shouldn't be happening!\n" 
-				 + "Is the dictionary and word to guess both in english?";
+				 + "Is the word to guess made of the dictionary's letters?";
 
 				throw new Exception(bewildered);
 			}
 			
 			if(words.size() > 1)
 			{
-				while(false == letterQ.isEmpty() && 
-					null != (letter = letterQ.peek()) )
+				while(this.rankHead < this.numRanked)
 				{
-					int letterCounts = lookup.get(letter);
+					int id = this.rankedLetters[this.rankHead];
+
+					//Only looked up as a letter once it is looked at
+					letter = this.alphabet.letter(id);
+
+					int letterCounts = this.letterCounts[id];
 					int possibleWords = words.size();
 
-					HangmanUtil.debug("letter is: " + letter 
+					this.context.debug("letter is: " + letter 
 						+ ", counts is: " + letterCounts 
 						+ ", set size is: " + possibleWords);
 
@@ -1501,8 +2040,9 @@ public class HangmanStrategy implements GuessingStrategy
 					  guessing the most frequent letter
 					*/
 
-					if(possibleWords > HangmanStrategy.MEDIUM_WORD_SET_SIZE) 
+					if(possibleWords > this.mediumWordSetSize) 
 					{
+						this.branch = Branch.FREQUENCY;
 						break;  
 					}
 
@@ -1513,26 +2053,24 @@ public class HangmanStrategy implements GuessingStrategy
 					  it will eliminate the most possible words.
 					  Interesting meaning unique set outlier score
 					*/
-					else if(possibleWords <= HangmanStrategy.MEDIUM_WORD_SET_SIZE && 
-						possibleWords > HangmanStrategy.MICRO_WORD_SET_SIZE)
+					else if(possibleWords <= this.mediumWordSetSize && 
+						possibleWords > this.microWordSetSize)
 					{
 						Character alternate = null;
 
-						List<Character> letters 
-							= new ArrayList<Character>(letterQ);
-
-						List<Character> subList = null;
-
-						//Only look at the TOP_N_THRESHOLD 
+						//Only look at the topNThreshold 
 						//characters, if list is less than that
 						//than use that
-						if(letters.size() >= HangmanStrategy.TOP_N_THRESHOLD)
-						{
-							subList = letters.subList(0, HangmanStrategy.TOP_N_THRESHOLD);
-						}
-						else
+						int top = Math.min(this.numRanked, 
+							this.rankHead + this.topNThreshold);
+
+						List<Character> subList 
+							= new ArrayList<Character>(top - this.rankHead);
+
+						for(int i=this.rankHead; i<top; i++)
 						{
-							subList = letters;
+							subList.add(this.alphabet.letter(
+								this.rankedLetters[i]));
 						}
 
 						alternate = 
@@ -1545,36 +2083,40 @@ public class HangmanStrategy implements GuessingStrategy
 						if(alternate != null && subList.contains(alternate)) 
 						{
 							letter = new Character(alternate);
+							this.branch = Branch.STUMPER;
+
+							HangmanMetrics.getInstance().stumperHit();
 							break;
 						}
 
 
-						HangmanUtil.debug("sublist is: " + subList);
+						this.context.debug("sublist is: " + subList);
 
 						/*
 							#Not fully baked yet
 
 							Comparator<Character> simComparator = 
-							new SimulatedMostWordsFilteredComparator(words, 
-						 			this.hangman, this.answerLength);
+							new SimulatedMostWordsFilteredComparator(
+									this.context, words, this.hangman, 
+									this.answerLength);
 						*/
 
 						Comparator<Character> simComparator = 
-							new SimulatedOutlierSetComparator(words);
+							new SimulatedOutlierSetComparator(
+								this.context, words, this.alphabet, subList);
 
-						alternate = HangmanStrategy.simulatedLetterStrength(subList, 
-															simComparator);
+						alternate = HangmanStrategy.simulatedLetterStrength(
+							this.context, subList, simComparator);
 
-						HangmanUtil.debug("Picking alternate letter: " 
+						this.context.debug("Picking alternate letter: " 
 							+ alternate);
 								
 						letter = new Character(alternate);
+						this.branch = Branch.OUTLIER;
 
 						subList.clear();
-						letters.clear();
 						
 						subList = null;
-						letters = null;
 						
 
 						break;
@@ -1592,12 +2134,13 @@ public class HangmanStrategy implements GuessingStrategy
 
 					else if(letterCounts <= possibleWords / 2)
 					{
+						this.branch = Branch.HALF_SET;
 						break; 
 					}
 
-					//at the end of the while loop, remove the "peeked" 
+					//at the end of the while loop, pass over the "peeked" 
 					//at letter, to advance to the next letter
-					letterQ.remove();
+					this.rankHead++;
 				}
 
 				/* 
@@ -1607,9 +2150,11 @@ public class HangmanStrategy implements GuessingStrategy
 				  count is > possible words set size / 2
 				*/
 
-				if(null == letter && letterQ.size() > 0)
+				if(null == letter && this.rankHead < this.numRanked)
 				{
-					letter = letterQ.remove();
+					letter = this.alphabet.letter(
+						this.rankedLetters[this.rankHead++]);
+					this.branch = Branch.REMAINING;
 				}
 				else 
 				{
@@ -1625,8 +2170,8 @@ public class HangmanStrategy implements GuessingStrategy
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
-			e.printStackTrace(System.err);
+			this.context.getErrors().println("Exception: " + e);
+			e.printStackTrace(this.context.getErrors());
 		}
 
 		return letter;
@@ -1639,7 +2184,7 @@ public class HangmanStrategy implements GuessingStrategy
 	 * word itself
 	 */
 	private Character getNextLetterFromStumperSet(Set<String> words, 
-												Set<Character> exclusion)
+												boolean[] exclusion)
 	{
 		Character letter = null;
 		
@@ -1651,49 +2196,180 @@ public class HangmanStrategy implements GuessingStrategy
 					+ "can't be null");
 			}
 
-			int possibleWords = words.size();
-
-			if(true == HangmanUtil.useStumpers()) 
+			if(true == this.context.useStumpers()) 
 			{
-				Set<String> localStumpers = new HashSet<String>();
-
-				Map<Character, Integer> map = 
-					new HashMap<Character, Integer>();
-				
-				Queue<Character> sortedQ = new ArrayDeque<Character>();
-				
-				//First check if there is a stumper word in our wordSet
-				for(String possibleStumper: words)
+				if(null == this.stumperSet)
 				{
-					if(true == HangmanUtil.isStumper(possibleStumper))
-					{
-						localStumpers.add(possibleStumper);
-					}
+					initializeStumperSet(words);
 				}
-				
+
 				//If any stumpers are left
-				if(localStumpers.size() > 0)
+				if(this.stumperSet.size() > 0)
 				{
-					HangmanUtil.verbose2("Stumper word set: " + 
-						localStumpers.toString().toUpperCase());
+					//Ties between letters are broken by the order they
+					//are met in, which is the order of a set of the 
+					//stumpers put in the iteration order of the word set
+					Set<String> stumpers = new HashSet<String>();
+
+					for(String stumper: this.stumperSet)
+					{
+						stumpers.add(stumper);
+					}
+
+					if(true == this.context.isValidLevel(
+						HangmanUtil.DisplayLevel.MORE_VERBOSE))
+					{
+						this.context.verbose2("Stumper word set: " + 
+							stumpers.toString().toUpperCase());
+					}
+
+					int[] counts = this.stumperLetterCounts;
+					int[] found = this.foundLetters;
+					int[] met = this.talliedLetters;
+
+					int letters = 0;
+
+					for(int id=0; id<counts.length; id++)
+					{
+						met[id] = 0;
+
+						if(counts[id] > 0 
+							&& (exclusion == null || false == exclusion[id]))
+						{
+							letters++;
+						}
+					}
 
-					HangmanStrategy.tallyLetterWordFrequency(localStumpers, 
-						exclusion, map, sortedQ);
+					int numFound = 0;
+
+					//Rank the kept up stumper letter counts, skipping 
+					//the letters we have already guessed. Letters are 
+					//ranked in the order they are first met in the stumper
+					//words, so ties sort the same as a full tally of the 
+					//subset would. Usually only a few words need to be 
+					//looked at
+					for(String stumper: stumpers)
+					{
+						if(numFound == letters) break;
+
+						for(int i=0; i<stumper.length(); i++)
+						{
+							int id = this.alphabet.id(stumper.charAt(i));
+
+							if((exclusion == null || false == exclusion[id])
+								&& met[id] == 0)
+							{
+								met[id] = 1;
+								found[numFound++] = id;
+							}
+						}
+					}
+
+					//Ranked as a map filled with just these letters
+					this.alphabet.rank(counts, found, numFound, numFound, 
+						this.rankKeys, this.stumperRankedLetters);
+
+					HangmanStrategy.displayRanking(this.context, 
+						this.alphabet, counts, this.stumperRankedLetters, 
+						numFound);
 
 					//return most frequent letter
-					letter = sortedQ.remove();
+					if(numFound > 0)
+					{
+						letter = this.alphabet.letter(
+							this.stumperRankedLetters[0]);
+					}
 				}
 			}
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
-			e.printStackTrace(System.err);
+			this.context.getErrors().println("Exception: " + e);
+			e.printStackTrace(this.context.getErrors());
 		}
 
 		return letter;
 	}
 
+	/**
+	 * Build the subset of possible words that are stumper words along 
+	 * with its letter counts, in the iteration order of the word set.
+	 * Only done once per game, afterwards the subset is kept in step 
+	 * with the word set by filterStumperSet
+	 */
+	private void initializeStumperSet(Set<String> words)
+	{
+		try
+		{
+			if(words == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) " 
+					+ "can't be null");
+			}
+
+			this.stumperSet = new ArrayList<String>();
+			this.stumperLetterCounts = new int[this.alphabet.size()];
+			this.stumperRankedLetters = new int[this.alphabet.size()];
+
+			Set<String> stumpers = 
+				this.context.getStumperWords(this.answerLength, 
+					this.version);
+
+			for(String word: words)
+			{
+				if(stumpers.contains(word)) this.stumperSet.add(word);
+			}
+
+			for(String stumper: this.stumperSet)
+			{
+				HangmanStrategy.tallyUniqLetterFrequency(stumper, 
+					this.alphabet, this.stumperLetterCounts, 1);
+			}
+		}
+		catch(Exception e)
+		{
+			this.context.getErrors().println("Exception: " + e);
+		}
+	}
+
+	/**
+	 * Drop the stumper words no longer in the possible word set and
+	 * take their letters out of the stumper letter counts. The stumper 
+	 * subset is never larger than the word set so this is cheaper than 
+	 * rebuilding it from the word set.  Words are only ever removed from
+	 * the word set, so the words kept stay in its iteration order
+	 */
+	private void filterStumperSet()
+	{
+		try
+		{
+			if(null == this.stumperSet) return;
+
+			int kept = 0;
+
+			for(int i=0; i<this.stumperSet.size(); i++)
+			{
+				String stumper = this.stumperSet.get(i);
+
+				if(false == this.wordSet.contains(stumper))
+				{
+					HangmanStrategy.tallyUniqLetterFrequency(stumper, 
+						this.alphabet, this.stumperLetterCounts, -1);
+				}
+				else
+				{
+					this.stumperSet.set(kept++, stumper);
+				}
+			}
+
+			this.stumperSet.subList(kept, this.stumperSet.size()).clear();
+		}
+		catch(Exception e)
+		{
+			this.context.getErrors().println("Exception: " + e);
+		}
+	}
+
 	/**
 	 * Capture whether the last guess was correct or wrong 
 	 * and update the strategy state accordingly
@@ -1718,7 +2394,7 @@ public class HangmanStrategy implements GuessingStrategy
 							game.numWrongGuessesRemaining())
 				{
 					//We got a correct guess
-					HangmanUtil.verbose("<Correct guess>");
+					this.context.verbose("<Correct guess>");
 					madeCorrectGuess();
 					
 				}
@@ -1727,14 +2403,14 @@ public class HangmanStrategy implements GuessingStrategy
 					this.numWrongGuessesRemaining =
 						 game.numWrongGuessesRemaining();
 
-					HangmanUtil.verbose("<Wrong guess>");
+					this.context.verbose("<Wrong guess>");
 					madeWrongGuess();
 				}
 			}
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			this.context.getErrors().println("Exception: " + e);
 		}
 	}
 
@@ -1750,16 +2426,18 @@ public class HangmanStrategy implements GuessingStrategy
 			//otherwise we would have won and would not be here
 			if(true == this.lastGuessIsLetter)
 			{
-				HangmanStrategy.filterWordsCorrectGuess(this.lastLetterGuessed,
-					this.wordSet, this.hangman, this.answerLength, false);
+				HangmanStrategy.filterWordsCorrectGuess(this.context, 
+					this.lastLetterGuessed, this.wordSet, this.hangman, 
+					this.answerLength, false);
 
 				//Perform the appropriate record keeping
+				filterStumperSet();
 				tallyLetterFrequency();
 			}
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			this.context.getErrors().println("Exception: " + e);
 		}
 	}
 
@@ -1776,8 +2454,8 @@ public class HangmanStrategy implements GuessingStrategy
 			if(true == this.lastGuessIsLetter 
 					&& false == this.lastGuessIsWord)
 			{
-				HangmanStrategy.filterWordsWrongGuess(this.lastLetterGuessed, 
-													this.wordSet, false);
+				HangmanStrategy.filterWordsWrongGuess(this.context, 
+					this.lastLetterGuessed, this.wordSet, false);
 			}
 			
 			//If the last incorrect guess was a word
@@ -1787,19 +2465,20 @@ public class HangmanStrategy implements GuessingStrategy
 				//simply remove it from the word set
 				this.wordSet.remove(this.lastWordGuessed);	
 
-				HangmanUtil.verbose("removing 1 word (wrong guess)");
-				HangmanUtil.verbose("possible words set size is now " + 
+				this.context.verbose("removing 1 word (wrong guess)");
+				this.context.verbose("possible words set size is now " + 
 					this.wordSet.size());
-				HangmanUtil.verbose2("possible words set is " + 
+				this.context.verbose2("possible words set is " + 
 					this.wordSet.toString().toUpperCase());	
 			}
 
 			//Perform the appropriate record keeping
+			filterStumperSet();
 			tallyLetterFrequency();
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			this.context.getErrors().println("Exception: " + e);
 		}		
 	}	
 }
\ No newline at end of file
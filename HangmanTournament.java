@@ -0,0 +1,301 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Constructor;
+import java.io.File;
+import java.io.IOException;
+
+/***
+ Head to head tournament between GuessingStrategy implementations.
+
+ Every word of a words file is played under every strategy, the words
+ being spread over as many threads as there are cores.  Each game gets
+ its own strategy instance on the thread playing it.  Reports for each
+ strategy the average score, the median and 99th percentile time per
+ game and the bytes allocated per game, then every word on which the
+ strategies scored differently from HangmanStrategy.  Implemented
+ exclusively through static class methods.
+***/
+
+public class HangmanTournament
+{
+	//Strategy the others are compared against
+	static final String REFERENCE_STRATEGY = "HangmanStrategy";
+
+	//Guard against a strategy that never finishes a game
+	static final int MAX_GUESSES = 100;
+
+	//Score of a game the strategy didn't finish, as for a lost game
+	private static final int UNFINISHED_SCORE = 25;
+
+	private static final ThreadMXBean threads =
+		ManagementFactory.getThreadMXBean();
+
+
+	/**
+	 * Play the words under every strategy.
+	 * @param File words to play
+	 * @param List of GuessingStrategy class names, HangmanStrategy is
+	 * 				added first if missing.  Each needs either a
+	 * 				HangmanGame or a no argument constructor.
+	 */
+	public static void run(File words, List<String> strategyNames)
+		throws IOException
+	{
+		ExecutorService executor = null;
+
+		try
+		{
+			if(words == null || strategyNames == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) "
+					+ "can't be null");
+			}
+
+			final List<String> names = new ArrayList<String>(strategyNames);
+
+			if(false == names.contains(REFERENCE_STRATEGY))
+			{
+				names.add(0, REFERENCE_STRATEGY);
+			}
+
+			final List<Constructor<?>> constructors =
+				new ArrayList<Constructor<?>>();
+
+			for(String name: names)
+			{
+				constructors.add(HangmanReplay.strategyConstructor(name));
+			}
+
+			HangmanUtil.prepareStumpers();
+
+			final List<String> secrets = HangmanTournament.readWords(words);
+
+			int numGames = secrets.size();
+			int numStrategies = names.size();
+
+			final int[][] scores = new int[numStrategies][numGames];
+			final long[][] nanos = new long[numStrategies][numGames];
+			final long[][] bytes = new long[numStrategies][numGames];
+
+			HangmanUtil.clock("Tournament of " + numStrategies
+				+ " strategies over " + numGames + " words of " + words);
+
+			int cores = Runtime.getRuntime().availableProcessors();
+			executor = Executors.newFixedThreadPool(cores);
+
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+
+			for(int i=0; i<numGames; i++)
+			{
+				final int game = i;
+
+				futures.add(executor.submit(new Callable<Void>()
+				{
+					public Void call() throws Exception
+					{
+						for(int s=0; s<constructors.size(); s++)
+						{
+							HangmanTournament.play(secrets.get(game),
+								constructors.get(s), game, scores[s],
+								nanos[s], bytes[s]);
+						}
+
+						return null;
+					}
+				}));
+			}
+
+			for(Future<?> future: futures)
+			{
+				future.get();
+			}
+
+			HangmanUtil.clock("End tournament");
+
+			HangmanTournament.report(names, secrets, scores, nanos, bytes);
+		}
+		catch(IOException ioe)
+		{
+			throw ioe;
+		}
+		catch(Exception e)
+		{
+			e.printStackTrace(System.err);
+		}
+		finally
+		{
+			if(null != executor) executor.shutdown();
+		}
+	}
+
+	/**
+	 * Play one game, recording its score, time and bytes allocated
+	 * at the index of the arrays
+	 */
+	private static void play(String secret, Constructor<?> constructor,
+		int index, int[] scores, long[] nanos, long[] bytes)
+	{
+		long thread = Thread.currentThread().getId();
+
+		long startBytes = HangmanTournament.allocatedBytes(thread);
+		long start = System.nanoTime();
+
+		HangmanGame game = new HangmanGame(secret,
+			PlayHangman.MAX_WRONG_GUESSES);
+
+		GuessingStrategy strategy = HangmanReplay.newStrategy(constructor,
+			game);
+
+		int numGuesses = 0;
+
+		while(game.gameStatus() == HangmanGame.Status.KEEP_GUESSING
+			&& numGuesses < MAX_GUESSES)
+		{
+			strategy.nextGuess(game).makeGuess(game);
+			numGuesses++;
+		}
+
+		if(strategy instanceof HangmanStrategy)
+		{
+			((HangmanStrategy) strategy).end();
+		}
+
+		nanos[index] = System.nanoTime() - start;
+
+		long endBytes = HangmanTournament.allocatedBytes(thread);
+
+		bytes[index] = (startBytes < 0 || endBytes < 0)
+			? -1 : endBytes - startBytes;
+
+		scores[index] = game.gameStatus() == HangmanGame.Status.KEEP_GUESSING
+			? UNFINISHED_SCORE : game.currentScore();
+	}
+
+	/**
+	 * Print the per strategy figures and the per word score differences
+	 */
+	private static void report(List<String> names, List<String> secrets,
+		int[][] scores, long[][] nanos, long[][] bytes)
+	{
+		int numGames = secrets.size();
+
+		for(int s=0; s<names.size(); s++)
+		{
+			long scoreSum = 0;
+			long bytesSum = 0;
+
+			for(int i=0; i<numGames; i++)
+			{
+				scoreSum += scores[s][i];
+				bytesSum += bytes[s][i];
+			}
+
+			long[] sorted = nanos[s].clone();
+			Arrays.sort(sorted);
+
+			double games = Math.max(1, numGames);
+
+			System.out.println(names.get(s) + ": average word score is: "
+				+ scoreSum / games + ", p50 "
+				+ HangmanTournament.percentile(sorted, 50) / 1e6 + " ms, p99 "
+				+ HangmanTournament.percentile(sorted, 99) / 1e6
+				+ " ms per game, " + (bytes[s].length > 0 && bytes[s][0] < 0
+					? "unknown" : "" + Math.round(bytesSum / games))
+				+ " bytes allocated per game");
+		}
+
+		int differing = 0;
+
+		for(int i=0; i<numGames; i++)
+		{
+			StringBuilder line = new StringBuilder();
+
+			for(int s=1; s<names.size(); s++)
+			{
+				int diff = scores[s][i] - scores[0][i];
+
+				if(diff != 0)
+				{
+					line.append(", ").append(names.get(s)).append(' ')
+						.append(scores[s][i]).append(" (")
+						.append(diff > 0 ? "+" : "").append(diff).append(')');
+				}
+			}
+
+			if(line.length() > 0)
+			{
+				System.out.println(secrets.get(i).toUpperCase() + ": "
+					+ names.get(0) + " " + scores[0][i] + line);
+				differing++;
+			}
+		}
+
+		System.out.println("[TOURNAMENT] " + differing + " of " + numGames
+			+ " words scored differently from " + names.get(0));
+	}
+
+	/**
+	 * @return The words of the file, in order
+	 */
+	private static List<String> readWords(File words) throws IOException
+	{
+		List<String> secrets = new ArrayList<String>();
+
+		Scanner input = new Scanner(words);
+
+		try
+		{
+			while(input.hasNext())
+			{
+				secrets.add(input.next());
+			}
+		}
+		finally
+		{
+			input.close();
+		}
+
+		return secrets;
+	}
+
+	/**
+	 * @return The bytes allocated by the thread so far,
+	 * -1 if the JVM can't tell
+	 */
+	static long allocatedBytes(long thread)
+	{
+		if(threads instanceof com.sun.management.ThreadMXBean)
+		{
+			return ((com.sun.management.ThreadMXBean) threads)
+				.getThreadAllocatedBytes(thread);
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @return The nearest rank percentile of the sorted values
+	 */
+	private static long percentile(long[] sorted, int percent)
+	{
+		if(sorted.length == 0) return 0;
+
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanTournament()
+	{
+
+	}
+}
@@ -0,0 +1,375 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/***
+ Tunes the HangmanStrategy thresholds for a dictionary.
+
+ Every combination of the threshold values in a parameter grid is
+ played over a sample words file, each in its own RunContext and with
+ its own strategy instances, with as many running at once as there are
+ cores.  An untimed warm up run first loads the dictionary and lets the
+ JIT compile the strategy, so that the first timed runs aren't charged
+ for them.  The runs share the cores, so their times per game are
+ comparable with each other rather than with a run played alone.
+ Reports the average score versus the time per game of every run,
+ marks the Pareto front, and writes the thresholds with the best
+ score to the strategy config file.
+ Implemented exclusively through static class methods.
+***/
+
+public class HangmanTuner
+{
+	/*
+		Outcome of playing the sample words with one set of thresholds
+	*/
+	private static class Result
+	{
+		private final Properties thresholds;
+		private double score = Double.NaN;
+		private double msPerGame = Double.NaN;
+		private boolean pareto = false;
+
+		private Result(Properties thresholds)
+		{
+			this.thresholds = thresholds;
+		}
+
+		private boolean isValid()
+		{
+			return !Double.isNaN(score) && !Double.isNaN(msPerGame);
+		}
+
+		//@return whether this result is at least as good on both
+		//score and time as the other, and better on one of them
+		private boolean dominates(Result other)
+		{
+			return score <= other.score && msPerGame <= other.msPerGame
+				&& (score < other.score || msPerGame < other.msPerGame);
+		}
+	}
+
+
+	/**
+	 * Tune the strategy thresholds.
+	 * @param File dictionary
+	 * @param File sample words to play for each set of thresholds
+	 * @param File grid in java.util.Properties format, mapping threshold
+	 * 				names to comma separated values to try
+	 * @param List of extra PlayHangman options for every run
+	 * @param File strategy config file to write the chosen thresholds to
+	 */
+	public static void tune(File dictionary, File sample, File grid,
+		List<String> options, File output) throws IOException
+	{
+		RunContext warm = new RunContext();
+
+		ExecutorService executor = null;
+
+		List<RunContext> contexts = new ArrayList<RunContext>();
+
+		try
+		{
+			if(dictionary == null || sample == null || grid == null
+				|| options == null || output == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) "
+					+ "can't be null");
+			}
+
+			if(false == sample.exists() || false == grid.exists())
+			{
+				throw new IOException("[Unable to load tuning sample "
+					+ sample + " or grid " + grid + "]");
+			}
+
+			List<Properties> configs = HangmanTuner.expandGrid(grid);
+
+			HangmanUtil.clock("Tuning " + configs.size()
+				+ " threshold configurations over " + sample);
+
+			//Hold on to the dictionary between the runs
+			warm.setDictionary(dictionary);
+			warm.getHangmanDictionary();
+
+			//Options are processed up front, some of them are kept
+			//outside of the run context
+			for(Properties config: configs)
+			{
+				contexts.add(HangmanTuner.newContext(dictionary, options,
+					config));
+			}
+
+			HangmanTuner.run(HangmanTuner.newContext(dictionary, options,
+				configs.get(0)), sample, configs.get(0));
+
+			HangmanUtil.clock("End tuning warm up");
+
+			int cores = Runtime.getRuntime().availableProcessors();
+			executor = Executors.newFixedThreadPool(cores);
+
+			List<Future<Result>> futures = new ArrayList<Future<Result>>();
+
+			for(int i=0; i<configs.size(); i++)
+			{
+				final RunContext context = contexts.get(i);
+				final Properties config = configs.get(i);
+
+				futures.add(executor.submit(new Callable<Result>()
+				{
+					public Result call() throws Exception
+					{
+						return HangmanTuner.run(context, sample, config);
+					}
+				}));
+			}
+
+			List<Result> results = new ArrayList<Result>();
+
+			for(Future<Result> future: futures)
+			{
+				results.add(future.get());
+			}
+
+			HangmanUtil.clock("End tuning runs");
+
+			Result chosen = HangmanTuner.paretoFront(results);
+
+			for(Result result: results)
+			{
+				System.out.println((result.pareto ? "* " : "  ")
+					+ "score " + result.score + ", " + result.msPerGame
+					+ " ms per game, " + result.thresholds);
+			}
+
+			System.out.println("(* on the score versus time Pareto front)");
+
+			if(chosen == null)
+			{
+				throw new IllegalStateException("No tuning run finished");
+			}
+
+			HangmanTuner.write(chosen, sample, output);
+
+			System.out.println("Chose " + chosen.thresholds + ", written to "
+				+ output);
+		}
+		catch(IOException ioe)
+		{
+			throw ioe;
+		}
+		catch(Exception e)
+		{
+			e.printStackTrace(System.err);
+		}
+		finally
+		{
+			if(null != executor) executor.shutdown();
+
+			for(RunContext context: contexts)
+			{
+				context.releaseDictionary();
+			}
+
+			warm.releaseDictionary();
+		}
+	}
+
+	/**
+	 * @return Every combination of the threshold values in the grid file
+	 */
+	private static List<Properties> expandGrid(File grid) throws IOException
+	{
+		Properties values = new Properties();
+
+		Reader reader = new FileReader(grid);
+
+		try
+		{
+			values.load(reader);
+		}
+		finally
+		{
+			reader.close();
+		}
+
+		List<Properties> configs = new ArrayList<Properties>();
+		configs.add(new Properties());
+
+		for(String name: values.stringPropertyNames())
+		{
+			if(false == Arrays.asList(HangmanStrategy.THRESHOLD_NAMES)
+				.contains(name))
+			{
+				throw new IllegalArgumentException("Unknown strategy "
+					+ "threshold " + name + " in " + grid);
+			}
+
+			List<Properties> expanded = new ArrayList<Properties>();
+
+			for(Properties config: configs)
+			{
+				for(String value: values.getProperty(name).split(","))
+				{
+					Properties copy = new Properties();
+					copy.putAll(config);
+					copy.setProperty(name, value.trim());
+
+					expanded.add(copy);
+				}
+			}
+
+			configs = expanded;
+		}
+
+		return configs;
+	}
+
+	/**
+	 * @return A run context of its own for playing with the given
+	 * thresholds
+	 */
+	private static RunContext newContext(File dictionary,
+		List<String> options, Properties config)
+	{
+		RunContext context = new RunContext();
+
+		context.setDictionary(dictionary);
+
+		HangmanUtil.processArgs(context, options.toArray(
+			new String[options.size()]), 0);
+
+		context.clearPrintFlags();
+		context.setThresholds(HangmanStrategy.loadThresholds(config,
+			"tuning grid"));
+
+		return context;
+	}
+
+	/**
+	 * Play the sample words in the run context, which is released
+	 * afterwards
+	 * @return The average score and time per game of the run
+	 */
+	private static Result run(RunContext context, File sample,
+		Properties config) throws IOException
+	{
+		Result result = new Result(config);
+
+		Scanner input = new Scanner(sample);
+
+		try
+		{
+			long start = System.nanoTime();
+
+			int games = 0;
+			long score = 0;
+
+			while(input.hasNext())
+			{
+				String word = input.next();
+
+				context.prepareStumpers();
+
+				PlayHangman play = PlayHangman.newInstance(context);
+
+				play.init(word);
+
+				score += play.run();
+				games++;
+
+				play.end();
+			}
+
+			if(games > 0)
+			{
+				result.score = score / (double) games;
+				result.msPerGame = (System.nanoTime() - start) / 1000000.0
+					/ games;
+			}
+
+			HangmanUtil.verbose("tuning run " + config + " scored "
+				+ result.score);
+		}
+		finally
+		{
+			input.close();
+
+			context.releaseDictionary();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Mark the results on the score versus time Pareto front
+	 * @return The result with the best score, the faster on ties
+	 */
+	private static Result paretoFront(List<Result> results)
+	{
+		Result chosen = null;
+
+		for(Result result: results)
+		{
+			if(false == result.isValid()) continue;
+
+			result.pareto = true;
+
+			for(Result other: results)
+			{
+				if(other.isValid() && other.dominates(result))
+				{
+					result.pareto = false;
+					break;
+				}
+			}
+
+			if(result.pareto && (chosen == null || result.score < chosen.score
+				|| (result.score == chosen.score
+					&& result.msPerGame < chosen.msPerGame)))
+			{
+				chosen = result;
+			}
+		}
+
+		return chosen;
+	}
+
+	/**
+	 * Write the chosen thresholds out as the strategy config file
+	 */
+	private static void write(Result chosen, File sample, File output)
+		throws IOException
+	{
+		Writer writer = new FileWriter(output);
+
+		try
+		{
+			chosen.thresholds.store(writer, "Chosen by -tune over " + sample
+				+ ": score " + chosen.score + ", " + chosen.msPerGame
+				+ " ms per game");
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	// Suppress default constructor for noninstantiability
+	private HangmanTuner()
+	{
+
+	}
+}
@@ -5,18 +5,24 @@ import java.util.Scanner;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Collections;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.PrintStream;
 
 /*** 
  Utility class for PlayHangman and HangmanStrategy classes 
  Implemented exclusively through static class methods.
 
- Used to group static methods and state dealing with text display output, 
- timing, dictionary, hangman word collection, stumper state, 
- and batch processing state
+ Used to group static methods dealing with command line processing and 
+ the program modes.  The state of the command line run (text display 
+ output, timing, dictionary, hangman word collection, stumper state, 
+ and batch processing state) is kept in its RunContext, which the 
+ display, timing and state methods here act on.
 ***/
 
 public class HangmanUtil
@@ -78,44 +84,73 @@ public class HangmanUtil
 	    }
 	}
 
-	/* Static fields managing timing state, dictionary, hangman 
-		word collection, stumper state, and batch processing state */
+	/* Static fields managing the command line run: its RunContext, 
+		and the options of the modes other than playing words */
 
-	//set default output to TERSE 
-	private static DisplayLevel textDisplay = DisplayLevel.TERSE;
+	//context of the run started from the command line
+	private static RunContext context = new RunContext();
 
-	//set default timing to NO_CLOCK
-	private static ClockLevel clockDisplay = ClockLevel.NO_CLOCK;
+	//file of the stumper words, see initStumpers
+	static final String STUMPERS_FILE_NAME = "stumpers.txt";
 
-	//fields to manage timing state
-	//Note: Either clock is used or clock2 is used
-	//		both can't be used at the same time
-	//		so we have one set of fields
-	private static int clockCounter = 1;
-	private static long lastClockTime = -1;
-	private static long startClockTime = -1;
-
-	//data structure to hold dictionary file info
-	private static File dictionary;
-
-	//data structure to store hangman word(s)
-	private static List<String> hangmanWords = new ArrayList<String>();
-
-	//state (flags, data structures, ids) to handle stumper program logic
-	private static final String STUMPERS_FILE_NAME = "stumpers.txt";
-	private static boolean initStumpersMode = false;
-	private static File stumpers;
-	private static boolean useStumpers = false;
+	//batch file of words to play
+	private static File batch;
 
-	private static Set<String> stumperWords = new HashSet<String>();
+	//number of child JVMs to play the batch in, and the options 
+	//passed on to them
+	private static int batchShards = 1;
+	private static List<String> batchOptions = new ArrayList<String>();
+
+	//strategy thresholds config file, loaded at startup if present
+	static final String STRATEGY_FILE_NAME = "strategy.properties";
+	private static File strategyConfig = new File(STRATEGY_FILE_NAME);
+	private static boolean explicitStrategyConfig = false;
+
+	//replay of a guess trace file against a strategy
+	private static boolean replayMode = false;
+	private static File replayTraces;
+	private static String replayStrategy = HangmanReplay.DEFAULT_STRATEGY;
+	private static int replayCount = 1;
+
+	//head to head tournament of strategies
+	private static boolean tournamentMode = false;
+	private static File tournamentWords;
+	private static List<String> tournamentStrategies = 
+		new ArrayList<String>();
+
+	//state to handle benchmarking against a baseline
+	private static boolean benchMode = false;
+	private static File benchWords;
+	private static File benchResults;
+	private static File benchBaseline;
+	private static double benchLatencyPercent = 
+		HangmanBenchmark.DEFAULT_LATENCY_PERCENT;
+
+	//state to handle the allocation budget gate
+	private static boolean allocMode = false;
+	private static File allocWords;
+	private static File allocBudget;
+
+	//state to handle tuning the strategy thresholds
+	private static boolean tuneMode = false;
+	private static File tuneSample;
+	private static File tuneGrid;
+	private static List<String> tuneOptions = new ArrayList<String>();
+
+	//state to handle the warm daemon and its clients
+	private static boolean daemonMode = false;
+	private static boolean clientMode = false;
+	private static File daemonSocket;
+	private static List<String> daemonArgs = new ArrayList<String>();
 
-	//state (flags, data structures, ids) to handle batch file
-	//program logic
-	private static File batch;
-	private static boolean useBatchWords = false;
-	private static int batchWordsCount = 0;
-	private static int batchScoreCount = 0;
 
+	/**
+	 * @return The context of the run started from the command line
+	 */
+	public static RunContext getContext()
+	{
+		return HangmanUtil.context;
+	}
 
 	/**
 	 * Determines if any hangman words left to process
@@ -123,12 +158,7 @@ public class HangmanUtil
 	 */
 	public static boolean anyHangmanWords()
 	{
-		if(HangmanUtil.hangmanWords.size() > 0)
-		{
-			return true;
-		}
-	
-		return false;
+		return HangmanUtil.context.anyHangmanWords();
 	}
 
 	/**
@@ -136,12 +166,7 @@ public class HangmanUtil
 	 */
 	public static int getNumHangmans()
 	{
-		if(HangmanUtil.anyHangmanWords()) 
-		{
-			return HangmanUtil.hangmanWords.size();
-		}
-
-		return -1; 
+		return HangmanUtil.context.getNumHangmans();
 	}
 
 	/**
@@ -150,7 +175,7 @@ public class HangmanUtil
 	 */
 	public static void addHangmanWord(String word)
 	{
-		if(word != null) HangmanUtil.hangmanWords.add(word);
+		HangmanUtil.context.addHangmanWord(word);
 	}
 
 	/**
@@ -158,7 +183,7 @@ public class HangmanUtil
 	 */
 	public static void clearHangmanWords()
 	{
-		HangmanUtil.hangmanWords.clear();
+		HangmanUtil.context.clearHangmanWords();
 	}
 
 	/**
@@ -166,7 +191,7 @@ public class HangmanUtil
 	 */
 	public static void clearStumperWords()
 	{
-		HangmanUtil.stumperWords.clear();
+		HangmanUtil.context.clearStumperWords();
 	}
 
 	/**
@@ -174,7 +199,7 @@ public class HangmanUtil
 	 */
 	public static void clearPrintFlags()
 	{
-		HangmanUtil.textDisplay = DisplayLevel.NONE;
+		HangmanUtil.context.clearPrintFlags();
 	}
 
 	/**
@@ -183,7 +208,7 @@ public class HangmanUtil
 	 */
 	public static boolean isValidLevel(DisplayLevel other)
 	{
-		return HangmanUtil.textDisplay.isValidLevel(other);
+		return HangmanUtil.context.isValidLevel(other);
 	}
 
 	/**
@@ -192,7 +217,7 @@ public class HangmanUtil
 	 */
 	public static boolean isValidLevel(ClockLevel other)
 	{
-		return HangmanUtil.clockDisplay.isValidLevel(other);
+		return HangmanUtil.context.isValidLevel(other);
 	}
 
 	/**
@@ -200,7 +225,7 @@ public class HangmanUtil
 	 */
 	public static void setInitStumpers()
 	{
-		HangmanUtil.initStumpersMode = true;
+		HangmanUtil.context.setInitStumpers();
 	}
 
 	/**
@@ -208,7 +233,7 @@ public class HangmanUtil
 	 */
 	public static boolean isInitStumpers()
 	{
-		return HangmanUtil.initStumpersMode;
+		return HangmanUtil.context.isInitStumpers();
 	}
 
 	/**
@@ -217,16 +242,17 @@ public class HangmanUtil
 	 */
 	public static boolean isStumper(String word)
 	{
-		boolean valid = false;
-
-		if(null != word &&
-			false == HangmanUtil.stumperWords.isEmpty() &&
-			true == HangmanUtil.useStumpers)
-		{
-			valid = HangmanUtil.stumperWords.contains(word);
-		}
+		return HangmanUtil.context.isStumper(word);
+	}
 
-		return valid;
+	/**
+	 * @return The stumper words of the given word length, or an empty
+	 * set if we are not using stumpers or there are none of that length
+	 * @param int word length of the stumpers to look up
+	 */
+	public static Set<String> getStumperWords(int length)
+	{
+		return HangmanUtil.context.getStumperWords(length);
 	}
 
 	/**
@@ -234,7 +260,7 @@ public class HangmanUtil
 	 */
 	public static boolean useStumpers()
 	{
-		return HangmanUtil.useStumpers;
+		return HangmanUtil.context.useStumpers();
 	}
 
 	/**
@@ -249,13 +275,40 @@ public class HangmanUtil
 		System.exit(1);
 	}
 
+	/**
+	 * @return The stream the errors of the run are printed to,
+	 * standard error without a run context
+	 */
+	static PrintStream errors(RunContext context)
+	{
+		return null == context ? System.err : context.getErrors();
+	}
+
 	/**
 	 * Invoke scanner object from dictionary file object
 	 * @return Scanner object of dictionary 
 	 */
 	public static Scanner getDictionary() throws IOException
 	{
-		return new Scanner(HangmanUtil.dictionary);
+		return HangmanUtil.context.getDictionary();
+	}
+
+	/**
+	 * @return The dictionary given at startup, acquired from the 
+	 * dictionary registry on first use
+	 */
+	public static HangmanDictionary getHangmanDictionary() 
+		throws IOException
+	{
+		return HangmanUtil.context.getHangmanDictionary();
+	}
+
+	/**
+	 * Release the dictionary given at startup back to the registry
+	 */
+	public static void releaseDictionary()
+	{
+		HangmanUtil.context.releaseDictionary();
 	}
 
 	/**
@@ -271,7 +324,7 @@ public class HangmanUtil
 
 		try
 		{
-			HangmanUtil.textDisplay = DisplayLevel.NONE;
+			HangmanUtil.context.clearPrintFlags();
 					
 			input = HangmanUtil.getDictionary();
 
@@ -289,16 +342,13 @@ public class HangmanUtil
 			{
 				String word = input.next();
 				
-				HangmanUtil.addHangmanWord(word);
-
-				if(HangmanGame.Status.GAME_LOST == HangmanUtil.singleRun())
+				if(HangmanGame.Status.GAME_LOST == 
+					HangmanUtil.singleRun(HangmanUtil.context, word))
 				{
 					bwriter.write(word);
 					bwriter.newLine();
 				}
 
-				HangmanUtil.clearHangmanWords();
-
 				count++;
 
 				if(count % 5000 == 0) bwriter.flush();
@@ -330,144 +380,395 @@ public class HangmanUtil
 	}
 
 	/**
-	 * Load stumper words from STUMPERS_FILE_NAME file and store
-	 * into collection for easy lookup 
+	 * @return true if the strategy should search ahead once the 
+	 * possible word set is small 
 	 */
-	private static void loadStumpers() 
-		throws IOException
+	public static boolean useSearch()
 	{
-		Scanner input = null;
-		
-		try
-		{	
-			if(true == HangmanUtil.useStumpers && 
-				true == HangmanUtil.stumperWords.isEmpty())
-			{
-
-				HangmanUtil.stumpers = new File(STUMPERS_FILE_NAME);
+		return HangmanUtil.context.useSearch();
+	}
 
-				if(null == HangmanUtil.stumpers ||
-					false == HangmanUtil.stumpers.exists())
-				{
-					throw new IOException("[Unable to load stumpers file\n" 
-						+ "Please re-generate file for optimal results " +
-						"(see usage with -h)]");
-				}
-				else
-				{
-					input = new Scanner(HangmanUtil.stumpers);
+	/**
+	 * @return true if the strategy should solve the endgame exactly 
+	 * once the possible word set is tiny 
+	 */
+	public static boolean useEndgame()
+	{
+		return HangmanUtil.context.useEndgame();
+	}
 
-					if(null != input)
-					{
-						//Load words into hashset
-						while(input.hasNext())
-						{
-							//minimize local variable scope
-							String word = input.next();
+	/**
+	 * @return The boolean flag indicating if we are in 
+	 * strategy threshold tuning mode
+	 */
+	public static boolean isTuning()
+	{
+		return HangmanUtil.tuneMode;
+	}
 
-							HangmanUtil.stumperWords.add(word);
-						}
+	/**
+	 * Tune the strategy thresholds over the sample words file
+	 * with the parameter grid file specified at startup
+	 */
+	public static void tune() throws IOException
+	{
+		HangmanUtil.context.setClockLevel(ClockLevel.CLOCK);
 
-						input.close();
-						input = null;
-					}
+		HangmanTuner.tune(HangmanUtil.context.getDictionaryFile(), HangmanUtil.tuneSample, 
+			HangmanUtil.tuneGrid, HangmanUtil.tuneOptions, 
+			new File(STRATEGY_FILE_NAME));
+	}
 
-					HangmanUtil.verbose2("Finished loading stumper words");
-				}
-			}
-		}
-		catch(IOException e)
+	/**
+	 * Load the strategy thresholds config file, if there is one.
+	 * A config file named on the command line must exist.
+	 */
+	private static void loadStrategyConfig() throws IOException
+	{
+		if(HangmanUtil.strategyConfig.exists())
 		{
-			throw e;
+			HangmanUtil.context.setThresholds(
+				HangmanStrategy.loadThresholds(HangmanUtil.strategyConfig));
 		}
-		finally
+		else if(true == HangmanUtil.explicitStrategyConfig)
 		{
-			if(null != input) input.close();
+			throw new IOException("[Unable to load strategy config file " 
+				+ HangmanUtil.strategyConfig + "]");
 		}
 	}
 
+	/**
+	 * Turn on stumpers for the guessing strategy and load the 
+	 * stumper words, unless we are initializing them
+	 */
+	public static void prepareStumpers() throws IOException
+	{
+		HangmanUtil.context.prepareStumpers();
+	}
+
+	/**
+	 * @return The boolean flag indicating if we are in 
+	 * benchmark mode
+	 */
+	public static boolean isBenchmark()
+	{
+		return HangmanUtil.benchMode;
+	}
+
+	/**
+	 * Benchmark the words file specified at startup, writing the 
+	 * results file and comparing against the baseline file if any
+	 * @return false if the comparison found any regression
+	 */
+	public static boolean benchmark() throws IOException
+	{
+		return HangmanBenchmark.run(HangmanUtil.benchWords, 
+			HangmanUtil.benchResults, HangmanUtil.benchBaseline, 
+			HangmanUtil.benchLatencyPercent);
+	}
+
+	/**
+	 * @return The boolean flag indicating if we are in 
+	 * allocation budget mode
+	 */
+	public static boolean isAllocationBudget()
+	{
+		return HangmanUtil.allocMode;
+	}
+
+	/**
+	 * Measure the bytes allocated by the strategy over the words 
+	 * file specified at startup, against the budget file if any
+	 * @return false if any call was over budget
+	 */
+	public static boolean allocationBudget() throws Exception
+	{
+		return HangmanAllocationBudget.run(HangmanUtil.allocWords, 
+			HangmanUtil.allocBudget);
+	}
+
+	/**
+	 * @return The boolean flag indicating if the games played
+	 * are traced guess by guess
+	 */
+	public static boolean isTracing()
+	{
+		return HangmanUtil.context.isTracing();
+	}
+
+	/**
+	 * Record the trace of a finished game in the trace file, 
+	 * creating the file with the first game
+	 */
+	public static void trace(GuessTrace trace)
+	{
+		HangmanUtil.context.trace(trace);
+	}
+
+	/**
+	 * Flush and close the guess trace file, if any
+	 */
+	public static void closeTrace()
+	{
+		HangmanUtil.context.closeTrace();
+	}
+
+	/**
+	 * @return The boolean flag indicating if we are in 
+	 * guess trace replay mode
+	 */
+	public static boolean isReplay()
+	{
+		return HangmanUtil.replayMode;
+	}
+
+	/**
+	 * Replay the guess trace file specified at startup against
+	 * the strategy specified at startup
+	 */
+	public static void replay() throws IOException
+	{
+		HangmanUtil.context.setClockLevel(ClockLevel.CLOCK);
+
+		HangmanReplay.replay(HangmanUtil.replayTraces, 
+			HangmanUtil.replayStrategy, HangmanUtil.replayCount);
+	}
+
+	/**
+	 * @return The boolean flag indicating if we are in 
+	 * strategy tournament mode
+	 */
+	public static boolean isTournament()
+	{
+		return HangmanUtil.tournamentMode;
+	}
+
+	/**
+	 * Play the tournament words file specified at startup under 
+	 * every strategy specified at startup
+	 */
+	public static void tournament() throws IOException
+	{
+		HangmanUtil.context.setClockLevel(ClockLevel.CLOCK);
+
+		HangmanTournament.run(HangmanUtil.tournamentWords, 
+			HangmanUtil.tournamentStrategies);
+	}
+
+	/**
+	 * @return The boolean flag indicating if we are in 
+	 * warm daemon mode
+	 */
+	public static boolean isDaemon()
+	{
+		return HangmanUtil.daemonMode;
+	}
+
+	/**
+	 * Serve the runs of daemon clients on the socket specified 
+	 * at startup until the JVM is stopped
+	 */
+	public static void daemon() throws IOException
+	{
+		HangmanUtil.context.setClockLevel(ClockLevel.CLOCK);
+
+		HangmanMetrics.register();
+
+		HangmanDaemon.serve(HangmanUtil.daemonSocket, 
+			HangmanUtil.context.getDictionaryFile(), HangmanUtil.daemonArgs);
+	}
+
+	/**
+	 * @return The boolean flag indicating if we are a 
+	 * client of the warm daemon
+	 */
+	public static boolean isClient()
+	{
+		return HangmanUtil.clientMode;
+	}
+
+	/**
+	 * Have the daemon on the socket specified at startup play the 
+	 * run of the remaining arguments, printing its output
+	 * @return false if the daemon couldn't be reached
+	 */
+	public static boolean client()
+	{
+		return HangmanDaemon.client(HangmanUtil.daemonSocket, 
+			HangmanUtil.daemonArgs);
+	}
+
 	/**
 	 * @return The boolean flag indicating if we are in 
 	 * batch words processing mode
 	 */
 	public static boolean useBatchWords()
 	{
-		return HangmanUtil.useBatchWords;
+		return HangmanUtil.context.useBatchWords();
 	}
 
 	/**
 	 * Process the batch words listed in the batch file specified
 	 * at startup.  Iterate through words while running hangman on 
+	 * each of the words, or have child JVMs play shards of the file
+	 * if asked to.
+	 * @return false if the shards of the file couldn't all be played
+	 */
+	public static boolean processBatchWords()
+	{
+		if(HangmanUtil.batchShards > 1)
+		{
+			try
+			{
+				HangmanShards.run(HangmanUtil.context, 
+					HangmanUtil.context.getDictionaryFile(), 
+					HangmanUtil.batch, HangmanUtil.batchShards, 
+					HangmanUtil.batchOptions);
+			}
+			catch(Exception e)
+			{
+				e.printStackTrace(System.err);
+
+				return false;
+			}
+		}
+		else
+		{
+			HangmanUtil.processBatchWords(HangmanUtil.context, 
+				HangmanUtil.batch);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Process the batch words listed in the batch file in the run
+	 * context.  Iterate through words while running hangman on 
 	 * each of the words.
+	 * @param RunContext of the run
+	 * @param File batch file of words
 	 */
-	public static void processBatchWords()
+	public static void processBatchWords(RunContext context, File batch)
 	{
-		Scanner input = null;
+		HangmanBatchReader input = null;
 
 		try
 		{
-			HangmanUtil.clockDisplay = HangmanUtil.ClockLevel.CLOCK;
+			if(context == null)
+			{
+				throw new IllegalArgumentException("input parameter(s) " 
+					+ "can't be null");
+			}
+
+			context.setClockLevel(ClockLevel.CLOCK);
 
-			if(true == HangmanUtil.useBatchWords)
+			if(true == context.useBatchWords())
 			{
-				if(null == HangmanUtil.batch)
+				if(null == batch)
 				{
 					throw new IOException("[Unable to load batch file.");
 				}
 				else
 				{
-					input = new Scanner(HangmanUtil.batch);
+					input = new HangmanBatchReader(batch);
+
+					context.openResults();
+					context.openResultCache();
+
+					HangmanMetrics.getInstance().batchStarted(
+						HangmanBatchReader.countWords(batch));
 
 					if(null != input)
 					{
-						HangmanUtil.clock("Starting Batch hangman games");
+						context.clock("Starting Batch hangman games");
+
+						if(true == context.groupBatch())
+						{
+							HangmanBatchScheduler.play(context, input);
+						}
 
 						//Load words into hashset
 						while(input.hasNext())
 						{
 							String word = input.next();
 
-							HangmanUtil.addHangmanWord(word);
+							if(true == context.isWatchingDictionary())
+							{
+								//Reloads in the background, games keep
+								//playing on the current version meanwhile
+								context.getHangmanDictionary()
+									.reloadIfChanged();
+							}
 
-							HangmanUtil.singleRun();
+							HangmanUtil.singleRun(context, word);
 
-							HangmanUtil.clearHangmanWords();
-
-							HangmanUtil.batchWordsCount++;
+							HangmanMetrics.getInstance().batchWordPlayed();
 						}
 
 						double timeElapsed = 
-							HangmanUtil.clock("End batch games");
+							context.clock("End batch games");
 
 						input.close();
 						input = null;
 					
-						int numGames = HangmanUtil.batchWordsCount;
+						int numGames = context.getBatchWordsCount();
 						
-						double avg = ((double) HangmanUtil.batchScoreCount)
+						double avg = ((double) context.getBatchScoreCount())
 										 / (double) numGames;
 			
 						double timePerGame = 
 							timeElapsed / (double) numGames;
 
-						System.out.println("Given " + numGames 
+						context.getOutput().println("Given " + numGames 
 							+ " words, average word score is: " + avg);
 
-						HangmanUtil.clock(false, "For " + numGames
+						context.clock(false, "For " + numGames
 							+ " games, total time was " + timeElapsed
 							+ " ms, average time per game including " 
 							+ "initializations was " + timePerGame + " ms");
+
+						if(true == context.useEndgame())
+						{
+							context.clock(false, "Endgame table had " 
+								+ context.getEndgame().getHits() + " hits and " 
+								+ context.getEndgame().getMisses() + " misses");
+						}
+
+						if(null != context.getProfile())
+						{
+							context.getProfile().print(context.getOutput());
+						}
+
+						context.clock(false, "Dictionary loads " 
+							+ context.getHangmanDictionary().getVersion()
+								.getLoadMetrics());
 					}
 				}
 			}
 		}
 		catch(Exception e)
 		{
-			e.printStackTrace(System.err);
+			e.printStackTrace(HangmanUtil.errors(context));
 		}
 		finally
 		{
-			if(null != input) input.close();
+			if(null != input)
+			{
+				try
+				{
+					input.close();
+				}
+				catch(IOException e)
+				{
+					System.err.println("Exception: " + e);
+				}
+			}
+
+			if(null != context)
+			{
+				context.closeResults();
+				context.closeResultCache();
+			}
 		}
 	}
 
@@ -482,13 +783,9 @@ public class HangmanUtil
 
 		try
 		{
-			HangmanUtil.useStumpers = true;
+			String word = HangmanUtil.context.getHangmanWords().get(0);
 
-			if(!HangmanUtil.isInitStumpers()) HangmanUtil.loadStumpers();
-
-			String word = HangmanUtil.hangmanWords.get(0);
-
-			status = singleRun(word);
+			status = singleRun(HangmanUtil.context, word);
 		}
 		catch(Exception e)
 		{
@@ -499,44 +796,76 @@ public class HangmanUtil
 	}
 
 	/**
-	 * Run a single game of hangman.  
+	 * Run a single game of hangman in the run context.  Stumpers 
+	 * are used in the guessing strategy.
+	 * @param RunContext of the run
+	 * @param String secret (the hangman word)
 	 * @return The game status of the single game
  	 */
-	private static HangmanGame.Status singleRun(String secret)
+	public static HangmanGame.Status singleRun(RunContext context, 
+		String secret)
 	{
 		HangmanGame.Status status = HangmanGame.Status.GAME_LOST;
 
 		try
 		{
-			if(secret == null)
+			if(context == null || secret == null)
 			{
 				throw new IllegalArgumentException("input parameter(s)" 
 					+ " can't be null");
 			}
 
-			PlayHangman play = PlayHangman.newInstance();
+			context.prepareStumpers();
+
+			HangmanResultCache cache = context.getResultCache();
+
+			if(null != cache && true == context.useBatchWords())
+			{
+				HangmanResultCache.Result result = cache.get(secret);
+
+				if(null != result)
+				{
+					context.bulk(secret.toUpperCase() + ": " 
+						+ result.getScore());
+					
+					context.addBatchScore(result.getScore());
+
+					return result.getStatus();
+				}
+			}
+
+			PlayHangman play = PlayHangman.newInstance(context);
 
 			play.init(secret);
 			
 			int score = play.run();
 			
 			status = play.status();
+
+			context.record(play);
+
+			if(null != cache && true == context.useBatchWords()
+				&& score != PlayHangman.ERROR_SCORE)
+			{
+				cache.put(secret, score, play.record().getNumGuesses(),
+					status);
+			}
 			
 			play.end();
 
 			play = null;
 
-			if(true == HangmanUtil.isInitStumpers() || 
-				true == HangmanUtil.useBatchWords())
+			if(true == context.isInitStumpers() || 
+				true == context.useBatchWords())
 			{
-				HangmanUtil.bulk(secret.toUpperCase() + ": " + score);
+				context.bulk(secret.toUpperCase() + ": " + score);
 				
-				HangmanUtil.batchScoreCount += score;
+				context.addBatchScore(score);
 			}
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
 
 		return status;		
@@ -550,34 +879,44 @@ public class HangmanUtil
 	 * 		 use the batch option and a file of hangman words
  	 */
 	public static void multipleHangmans()
+	{
+		HangmanUtil.multipleHangmans(HangmanUtil.context);
+	}
+
+	/**
+	 * Run multiple games of hangman for the words of the run context
+	 * @param RunContext of the run
+ 	 */
+	public static void multipleHangmans(RunContext context)
 	{
 		try
 		{
 			List<PlayHangman> plays = new ArrayList<PlayHangman>();
 			List<Integer> scores = new ArrayList<Integer>();
 
-			HangmanUtil.clock("Multiple hangman games");
-			HangmanUtil.clock("Start multiple inits");
+			context.clock("Multiple hangman games");
+			context.clock("Start multiple inits");
 
-			HangmanUtil.multipleInits(plays);
+			HangmanUtil.multipleInits(context, plays);
 			
-			HangmanUtil.clock("End multiple inits");
-			HangmanUtil.clock("Start multiple runs");
+			context.clock("End multiple inits");
+			context.clock("Start multiple runs");
 			
 			HangmanUtil.multipleRuns(plays, scores);
 			plays.clear();
 			
-			HangmanUtil.clock("End multiple runs");
+			context.clock("End multiple runs");
 			
-			HangmanUtil.multipleScores(HangmanUtil.hangmanWords, scores);
+			HangmanUtil.multipleScores(context, context.getHangmanWords(), 
+				scores);
 			scores.clear();
 			
-			double timeElapsed = HangmanUtil.clock("End multiple scoring");
+			double timeElapsed = context.clock("End multiple scoring");
 
-			int numGames = HangmanUtil.getNumHangmans();
+			int numGames = context.getNumHangmans();
 			double timePerGame = (double) timeElapsed / (double) numGames;
 
-			HangmanUtil.clock(false, "For " + numGames 
+			context.clock(false, "For " + numGames 
 				+ " games, total time was " + timeElapsed 
 				+ " ms, average time per game including " 
 				+ "initializations was " + timePerGame + " ms");
@@ -585,38 +924,38 @@ public class HangmanUtil
 		}
 		catch(IllegalStateException ise)
 		{
-			ise.printStackTrace(System.err);
+			ise.printStackTrace(HangmanUtil.errors(context));
 		}
 		catch(Exception e)
 		{
-			System.err.println(e);
+			HangmanUtil.errors(context).println(e);
 		}
 	}
 
 	/**
 	 * Run multiple initializations for multiple games.
  	 */
-	private static void multipleInits(List<PlayHangman> plays) 
+	private static void multipleInits(RunContext context, 
+		List<PlayHangman> plays) 
 		throws IllegalStateException, IOException, IllegalArgumentException
 	{
-		if(plays == null)
+		if(context == null || plays == null)
 		{
 			throw new IllegalArgumentException("input parameter(s) " 
 				+ "can't be null");
 		}
 
-		HangmanUtil.multipleInits(HangmanUtil.hangmanWords, plays);
-
-		HangmanUtil.useStumpers = true;
+		HangmanUtil.multipleInits(context, context.getHangmanWords(), 
+			plays);
 
-		HangmanUtil.loadStumpers();
+		context.prepareStumpers();
 	}
 
 	/**
 	 * Run multiple initializations for multiple games given two parameters.
  	 */
-	private static void multipleInits(List<String> words, 
-									List<PlayHangman> plays) 
+	private static void multipleInits(RunContext context, 
+		List<String> words, List<PlayHangman> plays) 
 		throws IllegalStateException, IllegalArgumentException
 	{
 		try
@@ -630,7 +969,7 @@ public class HangmanUtil
 			{
 				for(String secret: words)
 				{
-					PlayHangman play = PlayHangman.newInstance();
+					PlayHangman play = PlayHangman.newInstance(context);
 					play.init(secret);
 					plays.add(play);
 				}
@@ -638,6 +977,14 @@ public class HangmanUtil
 		}
 		catch(IllegalStateException ise)
 		{
+			//The run may outlive its games, as a daemon client's does
+			for(PlayHangman play: plays)
+			{
+				play.end();
+			}
+
+			plays.clear();
+
 			throw ise;
 		}
 	}
@@ -683,8 +1030,8 @@ public class HangmanUtil
 	 * @param list of the hangman words
 	 * @param pre-created collection of scores
  	 */
-	private static void multipleScores(List<String> secrets, 
-									   List<Integer> scores) 
+	private static void multipleScores(RunContext context, 
+		List<String> secrets, List<Integer> scores) 
 	{
 		try
 		{
@@ -714,14 +1061,14 @@ public class HangmanUtil
 
 					sum += score;
 
-					System.out.println(secret + ": " + score);
+					context.getOutput().println(secret + ": " + score);
 
 					i++;
 				}
 
 				double avg = ((double) sum / (double) count);
 
-				System.out.println("Given " + count 
+				context.getOutput().println("Given " + count 
 					+ " words, average word score is: " + avg);
 				
 				itr = null;
@@ -729,7 +1076,7 @@ public class HangmanUtil
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception: " + e);
+			HangmanUtil.errors(context).println("Exception: " + e);
 		}
 	}
 
@@ -755,7 +1102,7 @@ public class HangmanUtil
 				(args[2]).equals("-init:stumpers"))
 			{
 				String dictionaryFileName = args[1];
-				HangmanUtil.dictionary = new File(dictionaryFileName);
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
 
 				HangmanUtil.setInitStumpers();
 			}
@@ -764,7 +1111,7 @@ public class HangmanUtil
 				(args[2]).equals("-baseline"))
 			{
 				String dictionaryFileName = args[1];
-				HangmanUtil.dictionary = new File(dictionaryFileName);
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
 
 				HangmanUtil.addHangmanWord("comaker");
 				HangmanUtil.addHangmanWord("cumulate");
@@ -782,26 +1129,186 @@ public class HangmanUtil
 				HangmanUtil.addHangmanWord("triose");
 				HangmanUtil.addHangmanWord("uniformed");
 
-				HangmanUtil.clockDisplay = ClockLevel.CLOCK;
+				HangmanUtil.context.setClockLevel(ClockLevel.CLOCK);
 			}
-			//Check for java PlayHangman -f dictionary.txt -bulkfile
-			else if(args.length == 4 && 
+			//Check for java PlayHangman -f dictionary.txt -bulkfile 
+			//[-search] [-endgame] [-config strategy.properties]
+			//[-results:csv|-results:bin results.file]
+			else if(args.length >= 4 && 
 				(args[0]).equals("-f") &&
 				(args[2]).equals("-batch"))
 			{
 				String dictionaryFileName = args[1];
-				HangmanUtil.dictionary = new File(dictionaryFileName);
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
 
 				String batchWordsFileName = args[3];
 				HangmanUtil.batch = new File(batchWordsFileName);
 
-				HangmanUtil.useBatchWords = true;
+				HangmanUtil.context.setUseBatchWords(true);
+
+				//Options are passed on to the shards, if any
+				for(int i=4; i<args.length; i++)
+				{
+					if(false == (args[i]).startsWith("-shards:"))
+					{
+						HangmanUtil.batchOptions.add(args[i]);
+					}
+				}
+
+				HangmanUtil.processArgs(args, 4);
+			}
+			//Check for java PlayHangman -f dictionary.txt -tune 
+			//sample.txt grid.properties [options]
+			else if(args.length >= 5 && 
+				(args[0]).equals("-f") &&
+				(args[2]).equals("-tune"))
+			{
+				String dictionaryFileName = args[1];
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
+
+				HangmanUtil.tuneSample = new File(args[3]);
+				HangmanUtil.tuneGrid = new File(args[4]);
+
+				//Remaining options are passed on to every tuning run
+				for(int i=5; i<args.length; i++)
+				{
+					HangmanUtil.tuneOptions.add(args[i]);
+				}
+
+				HangmanUtil.tuneMode = true;
+			}
+			//Check for java PlayHangman -f dictionary.txt -bench 
+			//words.txt results.txt [baseline.txt] [options]
+			else if(args.length >= 5 && 
+				(args[0]).equals("-f") &&
+				(args[2]).equals("-bench"))
+			{
+				String dictionaryFileName = args[1];
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
+
+				HangmanUtil.benchWords = new File(args[3]);
+				HangmanUtil.benchResults = new File(args[4]);
+
+				int offset = 5;
+
+				if(args.length > 5 && (args[5]).indexOf("-") != 0)
+				{
+					HangmanUtil.benchBaseline = new File(args[5]);
+					offset = 6;
+				}
+
+				HangmanUtil.benchMode = true;
+
+				HangmanUtil.processArgs(args, offset);
+			}
+			//Check for java PlayHangman -f dictionary.txt -alloc 
+			//words.txt [budget.properties] [options]
+			else if(args.length >= 4 && 
+				(args[0]).equals("-f") &&
+				(args[2]).equals("-alloc"))
+			{
+				String dictionaryFileName = args[1];
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
+
+				HangmanUtil.allocWords = new File(args[3]);
+
+				int offset = 4;
+
+				if(args.length > 4 && (args[4]).indexOf("-") != 0)
+				{
+					HangmanUtil.allocBudget = new File(args[4]);
+					offset = 5;
+				}
+
+				HangmanUtil.allocMode = true;
+
+				HangmanUtil.processArgs(args, offset);
+			}
+			//Check for java PlayHangman -f dictionary.txt -replay 
+			//trace.file [StrategyClass] [options]
+			else if(args.length >= 4 && 
+				(args[0]).equals("-f") &&
+				(args[2]).equals("-replay"))
+			{
+				String dictionaryFileName = args[1];
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
+
+				HangmanUtil.replayTraces = new File(args[3]);
+
+				int offset = 4;
+
+				if(args.length > 4 && (args[4]).indexOf("-") != 0)
+				{
+					HangmanUtil.replayStrategy = args[4];
+					offset = 5;
+				}
+
+				HangmanUtil.replayMode = true;
+
+				HangmanUtil.processArgs(args, offset);
+			}
+			//Check for java PlayHangman -f dictionary.txt -tournament 
+			//words.txt [StrategyClass ...] [options]
+			else if(args.length >= 4 && 
+				(args[0]).equals("-f") &&
+				(args[2]).equals("-tournament"))
+			{
+				String dictionaryFileName = args[1];
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
+
+				HangmanUtil.tournamentWords = new File(args[3]);
+
+				int offset = 4;
+
+				while(offset < args.length && (args[offset]).indexOf("-") != 0)
+				{
+					HangmanUtil.tournamentStrategies.add(args[offset]);
+					offset++;
+				}
+
+				HangmanUtil.tournamentMode = true;
+
+				HangmanUtil.processArgs(args, offset);
+			}
+			//Check for java PlayHangman -f dictionary.txt -daemon 
+			//hangman.sock [options]
+			else if(args.length >= 4 && 
+				(args[0]).equals("-f") &&
+				(args[2]).equals("-daemon"))
+			{
+				String dictionaryFileName = args[1];
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
+
+				HangmanUtil.daemonSocket = new File(args[3]);
+
+				//Remaining options are passed on to every request
+				for(int i=4; i<args.length; i++)
+				{
+					HangmanUtil.daemonArgs.add(args[i]);
+				}
+
+				HangmanUtil.daemonMode = true;
+
+				HangmanUtil.processArgs(args, 4);
+			}
+			//Check for java PlayHangman -client hangman.sock arg1 ... argN
+			else if(args.length >= 3 && 
+				(args[0]).equals("-client"))
+			{
+				HangmanUtil.daemonSocket = new File(args[1]);
+
+				for(int i=2; i<args.length; i++)
+				{
+					HangmanUtil.daemonArgs.add(args[i]);
+				}
+
+				HangmanUtil.clientMode = true;
 			}
 			//Check for java PlayHangman -f dictionary.txt arg2 .... argN
 			else if(args.length >= 3 && (args[0]).equals("-f"))
 			{
 				String dictionaryFileName = args[1];
-				HangmanUtil.dictionary = new File(dictionaryFileName);
+				HangmanUtil.context.setDictionary(new File(dictionaryFileName));
 						
 				HangmanUtil.processArgs(args, 2);
 			}
@@ -810,6 +1317,14 @@ public class HangmanUtil
 				PlayHangman.usage();
 				HangmanUtil.abort();
 			}
+
+			//Tuning runs pick their own thresholds, the daemon 
+			//loads them for its clients
+			if(false == HangmanUtil.tuneMode && 
+				false == HangmanUtil.clientMode)
+			{
+				HangmanUtil.loadStrategyConfig();
+			}
 		}
 		catch(Exception e)
 		{
@@ -826,6 +1341,19 @@ public class HangmanUtil
 	 * @param offset is the starting index into string array
  	 */
 	private static void processArgs(String[] args, int offset) 
+	{
+		HangmanUtil.processArgs(HangmanUtil.context, args, offset);
+	}
+
+	/**
+	 * Process command line arguments into the run context
+	 * and set various program modes, clock levels, display text modes,
+	 * batch file and so forth.
+	 * @param RunContext to configure
+	 * @param args is a string array of command line options
+	 * @param offset is the starting index into string array
+ 	 */
+	static void processArgs(RunContext context, String[] args, int offset) 
 	{
 		try
 		{
@@ -835,48 +1363,139 @@ public class HangmanUtil
 			{
 				if((args[i]).indexOf("-") == -1)
 				{
-					HangmanUtil.addHangmanWord(args[i]);
+					context.addHangmanWord(args[i]);
 				}
 
 				if((args[i]).equals("-v"))
 				{
-					HangmanUtil.textDisplay = DisplayLevel.VERBOSE;
+					context.setDisplayLevel(DisplayLevel.VERBOSE);
 				}
 
 				if((args[i]).equals("-v2"))
 				{
-					HangmanUtil.textDisplay = DisplayLevel.MORE_VERBOSE;
+					context.setDisplayLevel(DisplayLevel.MORE_VERBOSE);
 				}
 
 				if((args[i]).equals("-lt"))
 				{
-					HangmanUtil.textDisplay = DisplayLevel.LESS_TERSE;
+					context.setDisplayLevel(DisplayLevel.LESS_TERSE);
 				}
 
 				if((args[i]).equals("-dbg") ||
 					(args[i]).equals("-debug"))
 				{
-					HangmanUtil.textDisplay = DisplayLevel.DEBUG;
+					context.setDisplayLevel(DisplayLevel.DEBUG);
 				}
 
 				if((args[i]).equals("-clk"))
 				{
-					HangmanUtil.clockDisplay = ClockLevel.CLOCK;
+					context.setClockLevel(ClockLevel.CLOCK);
 				}
 
 				if((args[i]).equals("-clk2"))
 				{
-					HangmanUtil.clockDisplay = ClockLevel.CLOCK2;
+					context.setClockLevel(ClockLevel.CLOCK2);
 				}
 
-				if((args[i]).equals("-clk2"))
+				if((args[i]).equals("-load:stumpers"))
 				{
-					HangmanUtil.clockDisplay = ClockLevel.CLOCK2;
+					context.setUseStumpers(true);
 				}
 
-				if((args[i]).equals("-load:stumpers"))
+				if((args[i]).equals("-search"))
+				{
+					context.setUseSearch(true);
+				}
+
+				if((args[i]).equals("-watch"))
+				{
+					context.setWatchDictionary(true);
+				}
+
+				if((args[i]).equals("-endgame"))
+				{
+					context.setUseEndgame(true);
+				}
+
+				if((args[i]).equals("-profile"))
+				{
+					context.setProfiling(true);
+				}
+
+				if((args[i]).equals("-grouped"))
+				{
+					context.setGroupBatch(true);
+				}
+
+				if((args[i]).equals("-lockstep"))
 				{
-					HangmanUtil.useStumpers = true;
+					context.setLockstep(true);
+				}
+
+				if((args[i]).startsWith("-latency:"))
+				{
+					HangmanUtil.benchLatencyPercent = Double.parseDouble(
+						(args[i]).substring("-latency:".length()));
+				}
+
+				if((args[i]).equals("-jmx"))
+				{
+					HangmanMetrics.register();
+				}
+
+				if((args[i]).equals("-cache") && i + 1 < args.length)
+				{
+					//Consume the file name so it isn't taken as a word
+					i++;
+					context.setResultCache(new File(args[i]));
+				}
+
+				if(((args[i]).equals("-results:csv") || 
+					(args[i]).equals("-results:bin")) && i + 1 < args.length)
+				{
+					GameRecordWriter.Format format = (args[i]).endsWith("csv") 
+						? GameRecordWriter.Format.CSV 
+						: GameRecordWriter.Format.BINARY;
+
+					//Consume the file name so it isn't taken as a word
+					i++;
+					context.setResults(new File(args[i]), format);
+				}
+
+				if(((args[i]).equals("-trace") || 
+					(args[i]).startsWith("-trace:")) && i + 1 < args.length)
+				{
+					int slots = GuessTraceFile.DEFAULT_SLOTS;
+
+					if((args[i]).startsWith("-trace:"))
+					{
+						slots = Integer.parseInt(
+							(args[i]).substring("-trace:".length()));
+					}
+
+					//Consume the file name so it isn't taken as a word
+					i++;
+					context.setTrace(new File(args[i]), slots);
+				}
+
+				if((args[i]).startsWith("-shards:"))
+				{
+					HangmanUtil.batchShards = Integer.parseInt(
+						(args[i]).substring("-shards:".length()));
+				}
+
+				if((args[i]).startsWith("-repeat:"))
+				{
+					HangmanUtil.replayCount = Integer.parseInt(
+						(args[i]).substring("-repeat:".length()));
+				}
+
+				if((args[i]).equals("-config") && i + 1 < args.length)
+				{
+					//Consume the file name so it isn't taken as a word
+					i++;
+					HangmanUtil.strategyConfig = new File(args[i]);
+					HangmanUtil.explicitStrategyConfig = true;
 				}
 
 				i++;
@@ -896,10 +1515,7 @@ public class HangmanUtil
  	 */
 	public static void terse(String s)
 	{
-		if(HangmanUtil.isValidLevel(DisplayLevel.TERSE)) 
-		{
-			System.out.println(s);
-		}
+		HangmanUtil.context.terse(s);
 	}
 
 	/**
@@ -908,10 +1524,7 @@ public class HangmanUtil
  	 */
 	public static void terse()
 	{
-		if(HangmanUtil.isValidLevel(DisplayLevel.TERSE))
-		{
-			System.out.println("");
-		}
+		HangmanUtil.context.terse();
 	}
 	
 	/**
@@ -921,10 +1534,7 @@ public class HangmanUtil
  	 */
 	public static void lessterse(String s)
 	{
-		if(HangmanUtil.isValidLevel(DisplayLevel.LESS_TERSE))
-		{
-			System.out.println(s);
-		}
+		HangmanUtil.context.lessterse(s);
 	}
 
 	/**
@@ -933,10 +1543,7 @@ public class HangmanUtil
  	 */
 	public static void verbose()
 	{
-		if(HangmanUtil.isValidLevel(DisplayLevel.VERBOSE)) 
-		{
-			System.out.println("");
-		}
+		HangmanUtil.context.verbose();
 	}
 
 	/**
@@ -946,10 +1553,7 @@ public class HangmanUtil
  	 */
 	public static void verbose(String s)
 	{
-		if(HangmanUtil.isValidLevel(DisplayLevel.VERBOSE))
-		{
-			System.out.println("[H_] " + s);
-		}
+		HangmanUtil.context.verbose(s);
 	}
 
 	/**
@@ -961,17 +1565,7 @@ public class HangmanUtil
  	 */
 	public static void verbose(boolean header, String s)
 	{
-		if(HangmanUtil.isValidLevel(DisplayLevel.VERBOSE)) 
-		{
-			if(!header)
-			{
-				System.out.println(s);
-			}
-			else 
-			{
-				verbose(s);
-			}
-		}
+		HangmanUtil.context.verbose(header, s);
 	}
 
 	/**
@@ -981,10 +1575,7 @@ public class HangmanUtil
  	 */
 	public static void verbose2(String s)
 	{
-		if(HangmanUtil.isValidLevel(DisplayLevel.MORE_VERBOSE))
-		{
-			System.out.println("[H_] " + s);
-		}
+		HangmanUtil.context.verbose2(s);
 	}
 
 	/**
@@ -994,10 +1585,7 @@ public class HangmanUtil
  	 */
 	public static void debug(String s)
 	{
-		if(HangmanUtil.isValidLevel(DisplayLevel.DEBUG)) 
-		{
-			System.out.println("[DBG] " + s);
-		}
+		HangmanUtil.context.debug(s);
 	}
 
 	/**
@@ -1007,11 +1595,7 @@ public class HangmanUtil
  	 */
 	public static void bulk(String s)
 	{
-		if(true == HangmanUtil.isInitStumpers() || 
-				true == HangmanUtil.useBatchWords()) 
-		{
-			System.out.println(s);
-		}
+		HangmanUtil.context.bulk(s);
 	}			
 
 	/**
@@ -1039,28 +1623,7 @@ public class HangmanUtil
  	 */
 	public static long clock(boolean normal, String msg) 
 	{
-		long value = 0;
-
-		try
-		{
-			if(HangmanUtil.isValidLevel(ClockLevel.CLOCK))
-			{
-				if(normal == false)
-				{
-					System.out.println("[CLK] " + msg);
-				}
-				else
-				{
-					value = clock(msg);
-				}
-			}
-		}
-		catch(Exception e)
-		{
-			System.err.println("Exception: " + e);
-		}
-
-		return value;
+		return HangmanUtil.context.clock(normal, msg);
 	}
 
 	/**
@@ -1077,39 +1640,7 @@ public class HangmanUtil
  	 */
 	public static long clock(String msg) 
 	{
-		long diffFromStart = 0;
-
-		try
-		{
-			if(HangmanUtil.isValidLevel(ClockLevel.CLOCK))
-			{
-				long now = System.currentTimeMillis();
-
-				if(HangmanUtil.lastClockTime != -1)
-				{
-					long diff = now - HangmanUtil.lastClockTime;
-					diffFromStart = now - HangmanUtil.startClockTime;
-
-					System.out.println("[CLK][" + HangmanUtil.clockCounter++ 
-						+ "][" + now + "][" + diffFromStart + "][" 
-						+ diff + "] " + msg);
-					HangmanUtil.lastClockTime = now;
-				}
-				else
-				{
-					HangmanUtil.startClockTime = now;
-					System.out.println("[CLK][" + HangmanUtil.clockCounter++ 
-						+ "][" + now + "] " + msg);
-					HangmanUtil.lastClockTime = now;
-				}
-			}
-		}
-		catch(Exception e)
-		{
-			System.err.println("Exception: " + e);
-		}
-
-		return diffFromStart;
+		return HangmanUtil.context.clock(msg);
 	}
 
 
@@ -1138,38 +1669,7 @@ public class HangmanUtil
  	 */
 	public static long clock2(String msg) 
 	{
-		long diffFromStart = 0;
-		
-		try
-		{
-			if(HangmanUtil.isValidLevel(ClockLevel.CLOCK2))
-			{
-				long now = System.currentTimeMillis();
-				if(HangmanUtil.lastClockTime != -1)
-				{
-					long diff = now - HangmanUtil.lastClockTime;
-					diffFromStart = now - HangmanUtil.startClockTime;
-
-					System.out.println("[CLK2][" + HangmanUtil.clockCounter++ 
-						+ "][" + now + "][" + diffFromStart + "][" 
-						+ diff + "] " + msg);
-					HangmanUtil.lastClockTime = now;
-				}
-				else
-				{
-					HangmanUtil.startClockTime = now;
-					System.out.println("[CLK2][" + HangmanUtil.clockCounter++ 
-						+ "][" + now + "] " + msg);
-					HangmanUtil.lastClockTime = now;
-				}
-			}
-		}
-		catch(Exception e)
-		{
-			System.err.println("Exception: " + e);
-		}
-
-		return diffFromStart;
+		return HangmanUtil.context.clock2(msg);
 	}
 
 
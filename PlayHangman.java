@@ -1,3 +1,5 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*** 
  PlayHangman encapsulates both HangmanGame and HangmanStrategy
@@ -8,16 +10,19 @@
 public class PlayHangman
 {
 	//game playing has a constant number of wrong guesses
-	private static final int MAX_WRONG_GUESSES = 5;
+	static final int MAX_WRONG_GUESSES = 5;
 	
-	private static final int ERROR_SCORE = -1;
+	static final int ERROR_SCORE = -1;
 
 	//Using a conservative number to limit 
 	//the number of PlayHangman objects created
 	private static final int MAX_PH_OBJECTS = 1100;
 
 	//Counter to keep track of number of object instances
-	private static int instances = 0;
+	private static final AtomicInteger instances = new AtomicInteger();
+
+	//context of the run the game is played in
+	private final RunContext context;
 	
 	//one game instance for each PlayHangman object
 	private HangmanGame game;
@@ -27,6 +32,15 @@ public class PlayHangman
 	//an explicit destructor method such as end()
 	private HangmanStrategy strategy;
 
+	//the hangman word of the game
+	private String secret;
+
+	//per game statistics gathered by run, see record()
+	private int numGuesses = 0;
+	private long nextGuessNanos = 0;
+	private long initStartNanos = 0;
+	private int[] candidateSizes = new int[8];
+
 	/**
 	 * Run various PlayHangman modes 
 	 * (initalize stumpers, batch file, single game, multiple games)
@@ -35,19 +49,60 @@ public class PlayHangman
 	 */
 	public static void main(String[] args)
 	{
+		int exitStatus = 0;
+
 		try
 		{			
 			HangmanUtil.config(args);
 
-			if(HangmanUtil.isInitStumpers() == true)
+			if(HangmanUtil.isClient() == true)
+			{
+				if(false == HangmanUtil.client()) exitStatus = 1;
+			}
+			else if(HangmanUtil.isDaemon() == true)
+			{
+				HangmanUtil.daemon();
+			}
+			else if(HangmanUtil.isInitStumpers() == true)
 			{
 				HangmanUtil.initStumpers();
 			}
+			else if(HangmanUtil.isTuning() == true)
+			{
+				HangmanUtil.tune();
+			}
+			else if(HangmanUtil.isReplay() == true)
+			{
+				// Turn off print display options
+				HangmanUtil.clearPrintFlags();
+				HangmanUtil.replay();
+			}
+			else if(HangmanUtil.isTournament() == true)
+			{
+				// Turn off print display options
+				HangmanUtil.clearPrintFlags();
+				HangmanUtil.tournament();
+			}
+			else if(HangmanUtil.isBenchmark() == true)
+			{
+				// Turn off print display options
+				HangmanUtil.clearPrintFlags();
+
+				if(false == HangmanUtil.benchmark()) exitStatus = 1;
+			}
+			else if(HangmanUtil.isAllocationBudget() == true)
+			{
+				// Turn off print display options
+				HangmanUtil.clearPrintFlags();
+
+				if(false == HangmanUtil.allocationBudget()) exitStatus = 1;
+			}
 			else if(HangmanUtil.useBatchWords() == true)
 			{
 				// Turn off print display options
 				HangmanUtil.clearPrintFlags();
-				HangmanUtil.processBatchWords();
+
+				if(false == HangmanUtil.processBatchWords()) exitStatus = 1;
 			}
 
 			else if(HangmanUtil.anyHangmanWords() == false)
@@ -72,13 +127,20 @@ public class PlayHangman
 			}
 
 			// Clear state
+			HangmanUtil.closeTrace();
 			HangmanUtil.clearHangmanWords();
 			HangmanUtil.clearStumperWords();
+			HangmanUtil.getContext().getEndgame().clear();
+			HangmanUtil.releaseDictionary();
 		}
 		catch(Exception e)
 		{
 			e.printStackTrace(System.err);
+			exitStatus = 1;
 		}
+
+		// Let scripts see a failed benchmark comparison or run
+		if(exitStatus != 0) System.exit(exitStatus);
 	}
 
 	/**
@@ -114,31 +176,166 @@ public class PlayHangman
 		System.out.println("		(lt = less terse output)");
 		System.out.println("		(clk = high level timing output)");
 
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt " + 
+			"[-search] [-endgame] $word1 ... $wordN");
+		System.out.println("	java PlayHangman -f dictionary.txt -batch " 
+			+ "large.txt [-search] [-endgame] [-profile]");
+		System.out.println("");
+		System.out.println("		(search = look ahead once few words are left)");
+		System.out.println("		(endgame = solve exactly once a handful " 
+			+ "of words are left)");
+		System.out.println("		(profile = time spent per letter choosing " 
+			+ "branch and word length, ranked)");
+
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt " + 
+			"[-config strategy.properties] $word1 ... $wordN");
+		System.out.println("");
+		System.out.println("		(config = strategy thresholds file, " 
+			+ "strategy.properties is used if present)");
+
 		System.out.println("");
 		System.out.println("	java PlayHangman -f dictionary.txt " + 
 			"[[-clk][-clk2]] $word1 ... $wordN");
 		System.out.println("");
 		System.out.println("		(clk2 = lower level timing output)");
 
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt -batch " 
+			+ "large.txt [[-results:csv][-results:bin] results.file]");
+		System.out.println("");
+		System.out.println("		(results = one record per game, as CSV " 
+			+ "or compact binary)");
+
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt " 
+			+ "[-trace[:4096] trace.file] $word1 ... $wordN");
+		System.out.println("	java PlayHangman -f dictionary.txt -batch " 
+			+ "large.txt [-trace[:4096] trace.file]");
+		System.out.println("	java PlayHangman -f dictionary.txt -batch " 
+			+ "large.txt [-watch]");
+		System.out.println("	java PlayHangman -f dictionary.txt -batch " 
+			+ "large.txt [-shards:4]");
+		System.out.println("	java PlayHangman -f dictionary.txt -batch " 
+			+ "large.txt [-grouped]");
+		System.out.println("	java PlayHangman -f dictionary.txt -batch " 
+			+ "large.txt [-lockstep]");
+		System.out.println("	java PlayHangman -f dictionary.txt -batch " 
+			+ "large.txt [-cache results.cache]");
+		System.out.println("	java PlayHangman -f dictionary.txt -batch " 
+			+ "large.txt [-jmx]");
+		System.out.println("");
+		System.out.println("		(trace = guess by guess binary trace of " 
+			+ "the last 4096 games)");
+		System.out.println("		(watch = reload the dictionary in the " 
+			+ "background when its file changes)");
+		System.out.println("		(shards = play the batch in that many child " 
+			+ "JVMs and merge their output)");
+		System.out.println("		(grouped = play the words grouped by " 
+			+ "length, output in batch order)");
+		System.out.println("		(lockstep = play the words of a length " 
+			+ "together, one guess per shared game state)");
+		System.out.println("		(cache = skip words already played with " 
+			+ "the same dictionary, stumpers and strategy)");
+		System.out.println("		(jmx = publish live metrics as the MBean " 
+			+ "hangman:type=Metrics, the daemon always does)");
+
 		/*	args[]								 a0        a1       a2     a3	 	*/
 		
 		System.out.println("");
 		System.out.println("<Initialize stumper finding strategy>\n(for 175k words takes ~ 45 mins)");
 		System.out.println("");
 		System.out.println("	java PlayHangman -f dictionary.txt -init:stumpers");
+
+		System.out.println("");
+		System.out.println("<Replay a guess trace>\n(reports where the " 
+			+ "strategy parts from the trace and the slowest games)");
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt -replay " 
+			+ "trace.file [StrategyClass] [-repeat:N]");
+		System.out.println("");
+		System.out.println("		(repeat = replay N times, e.g. while " 
+			+ "profiling)");
+
+		System.out.println("");
+		System.out.println("<Strategy tournament>\n(plays every word " 
+			+ "under every strategy, compared with HangmanStrategy)");
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt " 
+			+ "-tournament words.txt StrategyClass1 ... [StrategyClassN]");
+
+		System.out.println("");
+		System.out.println("<Benchmark against a baseline>\n(exits with " 
+			+ "status 1 on any score change or latency regression)");
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt -bench " 
+			+ "words.txt results.txt [baseline.txt] [-latency:10]");
+		System.out.println("");
+		System.out.println("		(latency = allowed slowdown in percent, " 
+			+ "default 10)");
+
+		System.out.println("");
+		System.out.println("<Allocation budget>\n(exits with status 1 " 
+			+ "if any call allocates more than its budget)");
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt -alloc " 
+			+ "words.txt [budget.properties]");
+		System.out.println("");
+		System.out.println("		(budget = most bytes per call on average, " 
+			+ "e.g. nextGuess=20000)");
+
+		System.out.println("");
+		System.out.println("<Tune strategy thresholds>\n(writes the chosen " 
+			+ "thresholds to strategy.properties)");
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt -tune " 
+			+ "sample.txt grid.properties [-search] [-endgame]");
+		System.out.println("");
+		System.out.println("		(grid lists values per threshold, " 
+			+ "e.g. MEDIUM_WORD_SET_SIZE=350,550,750)");
+
+		System.out.println("");
+		System.out.println("<Warm daemon>\n(keeps the dictionary and the " 
+			+ "strategy loaded, clients take the usual arguments)");
+		System.out.println("");
+		System.out.println("	java PlayHangman -f dictionary.txt -daemon " 
+			+ "hangman.sock [options]");
+		System.out.println("	java PlayHangman -client hangman.sock " 
+			+ "[-f dictionary.txt] word1 ... wordN [options]");
+		System.out.println("	java PlayHangman -client hangman.sock " 
+			+ "[-f dictionary.txt] -batch words.txt [options]");
 	}
 
 
+	/**
+	 * Factory method to return PlayHangman instances of the 
+	 * command line run
+	 * @throws IllegalStateException if maximum amount of instances has been surpassed
+	 */
+	public static PlayHangman newInstance() throws IllegalStateException
+	{
+		return PlayHangman.newInstance(HangmanUtil.getContext());
+	}
+
 	/**
 	 * Factory method to return PlayHangman instances
 	 * Regulates number of instances to be under MAX_PH_OBJECTS 
+	 * @param RunContext of the run the game is played in
 	 * @throws IllegalStateException if maximum amount of instances has been surpassed
 	 */
-	public static PlayHangman newInstance() throws IllegalStateException
+	public static PlayHangman newInstance(RunContext context) 
+		throws IllegalStateException
 	{
-		if(PlayHangman.instances <= MAX_PH_OBJECTS) 
+		if(context == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) " 
+				+ "can't be null");
+		}
+
+		if(PlayHangman.instances.get() <= MAX_PH_OBJECTS) 
 		{
-			return new PlayHangman();
+			return new PlayHangman(context);
 		}
 		else
 		{
@@ -156,11 +353,13 @@ public class PlayHangman
 	 * in order to regulate how many PlayHangman instances are created 
 	 */
 
-	private PlayHangman()
+	private PlayHangman(RunContext context)
 	{
-		PlayHangman.instances++;
+		PlayHangman.instances.incrementAndGet();
 
-		HangmanUtil.verbose(false, "!!Play Hangman!!");
+		this.context = context;
+
+		this.context.verbose(false, "!!Play Hangman!!");
 	}
 
 	/**
@@ -178,7 +377,7 @@ public class PlayHangman
 		else
 		{
 			msg = "Uninitialized PlayHangman object #" 
-				+ PlayHangman.instances;
+				+ PlayHangman.instances.get();
 		}
 
 		return msg;
@@ -188,29 +387,44 @@ public class PlayHangman
 	 * Initialize single hangman game
 	 * The clock2 option displays detailed timing information
 	 * @param String secret (the hangman word)
+	 * @throws IllegalStateException if the game of a daemon client's
+	 * request can't be started, other runs are aborted
 	 */
 	public void init(String secret)
 	{
 		try
 		{
-			HangmanUtil.clock2("Start PlayHangman init");
+			this.context.clock2("Start PlayHangman init");
+
+			this.initStartNanos = System.nanoTime();
 
-			HangmanUtil.verbose(false, "secret: " + secret);
+			this.context.verbose(false, "secret: " + secret);
+
+			this.secret = secret;
 
 			this.game = new HangmanGame(secret, MAX_WRONG_GUESSES); 
 
-			HangmanUtil.clock2("Instantiated HangmanGame, now " 
+			this.context.clock2("Instantiated HangmanGame, now " 
 				+ "creating strategy");
 
 			//Initialize hangman strategy
-			this.strategy = new HangmanStrategy(game);
+			this.strategy = new HangmanStrategy(game, this.context);
 
-			HangmanUtil.clock2("Instantiated Strategy");
+			this.context.clock2("Instantiated Strategy");
 
-			HangmanUtil.clock2("End PlayHangman init");
+			this.context.clock2("End PlayHangman init");
 		}
 		catch(Exception e)
 		{
+			//A daemon keeps serving its other clients
+			if(true == this.context.isClientRequest())
+			{
+				end();
+
+				throw new IllegalStateException("Unable to start the game "
+					+ "of " + secret + ": " + e, e);
+			}
+
 			e.printStackTrace(System.err);
 			HangmanUtil.abort();
 		}
@@ -229,10 +443,10 @@ public class PlayHangman
 	 * Run hangman game along with provided guessing strategy.
 	 * The clock2 option displays detailed timing information 
 	 * @param HangmanGame
-	 * @param GuessingStrategy
+	 * @param HangmanStrategy
 	 * @return game score
 	 */
-	public int run(HangmanGame game, GuessingStrategy strategy)
+	public int run(HangmanGame game, HangmanStrategy strategy)
 	{
 		try
 		{
@@ -242,39 +456,155 @@ public class PlayHangman
 					"can't be null");
 			}
 
-			HangmanUtil.clock2("Starting new game");
+			this.context.clock2("Starting new game");
+
+			HangmanEvents.Game event = HangmanEvents.beginGame();
+
+			int guesses = 0;
+
+			//Guess by guess trace of the game, with the -trace option
+			GuessTrace trace = null;
+
+			if(true == this.context.isTracing())
+			{
+				trace = new GuessTrace(this.secret, game.getMaxWrongGuesses());
+			}
 
 			//Java note: apparently enums are implicitly static
 			while(status() == HangmanGame.Status.KEEP_GUESSING)
 			{
-				HangmanUtil.clock2("Deciding next guess");
+				this.context.clock2("Deciding next guess");
 
-				//Ask the strategy for the next guess
-				Guess guess = strategy.nextGuess(game);
+				long start = System.nanoTime();
 
-				HangmanUtil.clock2("Made next guess");
+				//Ask the strategy for the next guess, int encoded so
+				//that no Guess object is made per turn
+				int code = strategy.nextGuessCode(game);
+
+				long nanos = System.nanoTime() - start;
+
+				this.nextGuessNanos += nanos;
+
+				int size = recordCandidateSize(strategy);
+
+				this.context.clock2("Made next guess");
+
+				int wrong = game.numWrongGuessesMade();
 				
-				//Apply the next guess to the game
-				guess.makeGuess(game);
+				//Apply the next guess to the game, without building
+				//a game state string
+				PlayHangman.applyGuess(game, code, strategy);
 
-				HangmanUtil.clock2("Applied guess to game");
+				this.context.clock2("Applied guess to game");
+
+				if(null != trace)
+				{
+					boolean isWord = code == HangmanStrategy.GUESS_WORD;
+
+					trace.add(isWord ? '\0' : (char) code, 
+						isWord ? strategy.getWordGuess() : null, 
+						wrong == game.numWrongGuessesMade(), size, nanos);
+				}
 				
-				HangmanUtil.terse(game.toString());
-				HangmanUtil.terse();
-				HangmanUtil.terse();
+				guesses++;
+
+				if(this.context.isValidLevel(HangmanUtil.DisplayLevel.TERSE))
+				{
+					this.context.terse(game.toString());
+					this.context.terse();
+					this.context.terse();
+				}
+			}
+
+			this.context.clock2("Finished game");
+
+			if(null != event && true == event.shouldCommit())
+			{
+				event.wordLength = this.secret.length();
+				event.score = game.currentScore();
+				event.guesses = guesses;
+				event.won = status() == HangmanGame.Status.GAME_WON;
+				event.commit();
 			}
 
-			HangmanUtil.clock2("Finished game");
+			HangmanMetrics.getInstance().gameCompleted(this.secret.length(),
+				System.nanoTime() - this.initStartNanos, guesses);
+
+			if(null != trace)
+			{
+				trace.setScore(game.currentScore());
+				this.context.trace(trace);
+			}
 		}
 		catch(Exception e)
 		{
-			System.err.println("Exception received: " + e);
+			this.context.getErrors().println("Exception received: " + e);
 			return PlayHangman.ERROR_SCORE;
 		}
 
 		return game.currentScore();
 	}
 
+	/**
+	 * Apply the int encoded guess of the strategy to the game
+	 * @param HangmanGame
+	 * @param int guess code, see HangmanStrategy.nextGuessCode
+	 * @param HangmanStrategy that made the guess
+	 */
+	private static void applyGuess(HangmanGame game, int code,
+		HangmanStrategy strategy)
+	{
+		if(code == HangmanStrategy.GUESS_WORD)
+		{
+			game.applyWord(strategy.getWordGuess());
+		}
+		else if(code == HangmanStrategy.NO_GUESS)
+		{
+			throw new IllegalStateException("Strategy made no guess");
+		}
+		else
+		{
+			game.applyLetter((char) code);
+		}
+	}
+
+	/**
+	 * Keep count of the guesses made and the number of possible words
+	 * the strategy had for each, if it is one that keeps track of them
+	 * @return The number of possible words, -1 if not tracked
+	 */
+	private int recordCandidateSize(GuessingStrategy strategy)
+	{
+		int size = -1;
+
+		if(strategy instanceof HangmanStrategy)
+		{
+			size = ((HangmanStrategy) strategy).getNumPossibleWords();
+		}
+
+		if(this.numGuesses == this.candidateSizes.length)
+		{
+			this.candidateSizes = 
+				Arrays.copyOf(this.candidateSizes, 2 * this.numGuesses);
+		}
+
+		this.candidateSizes[this.numGuesses] = size;
+		this.numGuesses++;
+
+		return size;
+	}
+
+	/**
+	 * @return The record of the game played by run
+	 */
+	public GameRecord record()
+	{
+		return new GameRecord(this.secret, this.game.currentScore(), 
+			this.numGuesses, this.game.numWrongGuessesMade(), 
+			this.nextGuessNanos, 
+			Arrays.copyOf(this.candidateSizes, this.numGuesses));
+	}
+
 	/**
 	 * @return hangman game status
 	 */
@@ -290,10 +620,11 @@ public class PlayHangman
 	 */
 	public void end()
 	{
-		strategy.end();
+		if(null != strategy) strategy.end();
 		strategy = null;
 		game = null;
+		secret = null;
 
-		PlayHangman.instances--;
+		PlayHangman.instances.decrementAndGet();
 	}
 }
\ No newline at end of file
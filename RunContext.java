@@ -0,0 +1,1217 @@
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/***
+ The state of one hangman run: its configuration (display and clock
+ levels, dictionary, stumper, search and endgame options, strategy
+ thresholds), the dictionary and stumper words it plays with, its
+ batch counters and clocks, and its trace and results files.
+
+ Passed explicitly to PlayHangman and HangmanStrategy, so that any
+ number of runs can play side by side in one JVM without sharing
+ mutable state.  Games of one run may be played on several threads:
+ the counters are atomic and the clocks, stumper loading and output
+ files are synchronized.  HangmanUtil keeps the context of the
+ command line run.
+***/
+
+public class RunContext
+{
+	/* Configuration */
+
+	//set default output to TERSE
+	private volatile HangmanUtil.DisplayLevel textDisplay =
+		HangmanUtil.DisplayLevel.TERSE;
+
+	//set default timing to NO_CLOCK
+	private volatile HangmanUtil.ClockLevel clockDisplay =
+		HangmanUtil.ClockLevel.NO_CLOCK;
+
+	//data structure to hold dictionary file info
+	private File dictionary;
+
+	//reload the dictionary between batch games if its file changed
+	private boolean watchDictionary = false;
+
+	//flags to handle stumper program logic
+	private boolean initStumpersMode = false;
+	private volatile boolean useStumpers = false;
+
+	//flag to handle batch file program logic
+	private boolean useBatchWords = false;
+
+	//flag to turn on the lookahead search for small possible word sets
+	private boolean useSearch = false;
+
+	//flag to turn on the exact solver for tiny possible word sets
+	private boolean useEndgame = false;
+
+	//flag to play batch words grouped by length, see 
+	//HangmanBatchScheduler
+	private boolean groupBatch = false;
+
+	//flag to play the batch words of a length in lockstep, see
+	//HangmanLockstep
+	private boolean lockstep = false;
+
+	//profile of getNextLetter's branches, null unless profiling
+	private volatile HangmanProfile profile = null;
+
+	//strategy thresholds, ordered as HangmanStrategy.THRESHOLD_NAMES
+	private int[] thresholds = HangmanStrategy.defaultThresholds();
+
+	//optional ring buffered guess trace file of every game played
+	private File traceFile;
+	private int traceSlots = GuessTraceFile.DEFAULT_SLOTS;
+
+	//optional per game results file of batch processing
+	private File resultsFile;
+	private GameRecordWriter.Format resultsFormat;
+
+	//where display and clock output is printed
+	private volatile PrintStream output = System.out;
+
+	//where the errors of the games of the run are printed
+	private volatile PrintStream errors = System.err;
+
+	//set when the run is a daemon client's request, whose failures
+	//are reported to the client instead of stopping the JVM
+	private volatile boolean clientRequest = false;
+
+
+	/* Run state */
+
+	//fields to manage timing state
+	//Note: Either clock is used or clock2 is used
+	//		both can't be used at the same time
+	//		so we have one set of fields
+	private int clockCounter = 1;
+	private long lastClockTime = -1;
+	private long startClockTime = -1;
+
+	//the dictionary's word indices, acquired from the registry
+	//on first use
+	private HangmanDictionary hangmanDictionary;
+
+	//data structure to store hangman word(s)
+	private final List<String> hangmanWords = new ArrayList<String>();
+
+	private final Set<String> stumperWords = new HashSet<String>();
+
+	//stumper words indexed by their word length, so a game only
+	//ever looks at the stumpers of its own answer length
+	private final Map<Integer, Set<String>> stumperLengthMap =
+		new HashMap<Integer, Set<String>>();
+
+	//stumper words of each length that are in the dictionary version
+	//they were last looked up for, found on first use
+	private final Map<Integer, Set<String>> versionStumperMap =
+		new HashMap<Integer, Set<String>>();
+	private HangmanDictionary.Version stumperVersion;
+
+	//the run's table of solved endgames, see -endgame
+	private final HangmanEndgame endgame = new HangmanEndgame(this);
+
+	private final AtomicInteger batchWordsCount = new AtomicInteger();
+	private final AtomicInteger batchScoreCount = new AtomicInteger();
+
+	private GuessTraceFile traceWriter;
+	private GameRecordWriter resultsWriter;
+
+	//optional cache of batch game results across runs
+	private File resultCacheFile;
+	private HangmanResultCache resultCache;
+
+	//traces and records of the games played while holding, kept
+	//instead of written until the batch scheduler gets to them
+	private boolean holding = false;
+	private final List<GuessTrace> heldTraces = new ArrayList<GuessTrace>();
+	private final List<GameRecord> heldRecords = 
+		new ArrayList<GameRecord>();
+
+
+	/* Configuration */
+
+	/**
+	 * Set the dictionary file of the run
+	 */
+	public void setDictionary(File dictionary)
+	{
+		this.dictionary = dictionary;
+	}
+
+	/**
+	 * @return The dictionary file of the run
+	 */
+	public File getDictionaryFile()
+	{
+		return dictionary;
+	}
+
+	/**
+	 * Set the display output level
+	 */
+	public void setDisplayLevel(HangmanUtil.DisplayLevel level)
+	{
+		this.textDisplay = level;
+	}
+
+	/**
+	 * Set the clock display level
+	 */
+	public void setClockLevel(HangmanUtil.ClockLevel level)
+	{
+		this.clockDisplay = level;
+	}
+
+	/**
+	 * Set display print text flag to NONE
+	 */
+	public void clearPrintFlags()
+	{
+		this.textDisplay = HangmanUtil.DisplayLevel.NONE;
+	}
+
+	/**
+	 * @return Indicate whether passed in display level is valid
+	 * @param DisplayLevel to compare against
+	 */
+	public boolean isValidLevel(HangmanUtil.DisplayLevel other)
+	{
+		return this.textDisplay.isValidLevel(other);
+	}
+
+	/**
+	 * @return Indicate whether passed in clock level is valid
+	 * @param ClockLevel to compare against
+	 */
+	public boolean isValidLevel(HangmanUtil.ClockLevel other)
+	{
+		return this.clockDisplay.isValidLevel(other);
+	}
+
+	/**
+	 * Reload the dictionary between batch games if its file changed
+	 */
+	public void setWatchDictionary(boolean watch)
+	{
+		this.watchDictionary = watch;
+	}
+
+	/**
+	 * @return true if the dictionary is reloaded when its file changes
+	 */
+	public boolean isWatchingDictionary()
+	{
+		return watchDictionary;
+	}
+
+	/**
+	 * Mark that the mode is to initialize stumper words
+	 */
+	public void setInitStumpers()
+	{
+		this.initStumpersMode = true;
+	}
+
+	/**
+	 * @return The boolean flag if we are in initialize stumper mode
+	 */
+	public boolean isInitStumpers()
+	{
+		return initStumpersMode;
+	}
+
+	/**
+	 * Turn stumpers on or off for the guessing strategy
+	 */
+	public void setUseStumpers(boolean use)
+	{
+		this.useStumpers = use;
+	}
+
+	/**
+	 * @return true if we are indeed using stumpers
+	 */
+	public boolean useStumpers()
+	{
+		return useStumpers;
+	}
+
+	/**
+	 * Mark that the words are played from a batch file
+	 */
+	public void setUseBatchWords(boolean use)
+	{
+		this.useBatchWords = use;
+	}
+
+	/**
+	 * @return The boolean flag indicating if we are in
+	 * batch words processing mode
+	 */
+	public boolean useBatchWords()
+	{
+		return useBatchWords;
+	}
+
+	/**
+	 * Turn the lookahead search on or off
+	 */
+	public void setUseSearch(boolean use)
+	{
+		this.useSearch = use;
+	}
+
+	/**
+	 * @return true if the strategy should search ahead once the
+	 * possible word set is small
+	 */
+	public boolean useSearch()
+	{
+		return useSearch;
+	}
+
+	/**
+	 * Turn the exact endgame solver on or off
+	 */
+	public void setUseEndgame(boolean use)
+	{
+		this.useEndgame = use;
+	}
+
+	/**
+	 * @return true if the strategy should solve the endgame exactly
+	 * once the possible word set is tiny
+	 */
+	public boolean useEndgame()
+	{
+		return useEndgame;
+	}
+
+	/**
+	 * @return The exact endgame solver of the run, with its table
+	 * of solved endgames
+	 */
+	public HangmanEndgame getEndgame()
+	{
+		return endgame;
+	}
+
+	/**
+	 * Turn playing batch words grouped by length on or off
+	 */
+	public void setGroupBatch(boolean group)
+	{
+		this.groupBatch = group;
+	}
+
+	/**
+	 * @return true if batch words should be played grouped by length,
+	 * their output still following the order of the batch file
+	 */
+	public boolean groupBatch()
+	{
+		return groupBatch || lockstep;
+	}
+
+	/**
+	 * Turn playing the batch words of each length in lockstep on or
+	 * off, which also groups them by length
+	 */
+	public void setLockstep(boolean lockstep)
+	{
+		this.lockstep = lockstep;
+	}
+
+	/**
+	 * @return true if the batch words of each length should be played
+	 * in lockstep
+	 */
+	public boolean useLockstep()
+	{
+		return lockstep;
+	}
+
+	/**
+	 * Turn the profile of the strategy's letter branches on or off,
+	 * starting a new profile
+	 */
+	public void setProfiling(boolean profiling)
+	{
+		this.profile = profiling ? new HangmanProfile() : null;
+	}
+
+	/**
+	 * @return The profile of the strategy's letter branches, 
+	 * null unless profiling
+	 */
+	public HangmanProfile getProfile()
+	{
+		return profile;
+	}
+
+	/**
+	 * Set the strategy thresholds, ordered as
+	 * HangmanStrategy.THRESHOLD_NAMES
+	 */
+	public void setThresholds(int[] thresholds)
+	{
+		if(thresholds == null ||
+			thresholds.length != HangmanStrategy.THRESHOLD_NAMES.length)
+		{
+			throw new IllegalArgumentException("Expected "
+				+ HangmanStrategy.THRESHOLD_NAMES.length + " thresholds");
+		}
+
+		this.thresholds = thresholds.clone();
+	}
+
+	/**
+	 * @return The strategy thresholds, ordered as
+	 * HangmanStrategy.THRESHOLD_NAMES
+	 */
+	public int[] getThresholds()
+	{
+		return thresholds.clone();
+	}
+
+	/**
+	 * Trace every game played guess by guess to the file,
+	 * keeping the given number of games
+	 */
+	public void setTrace(File file, int slots)
+	{
+		this.traceFile = file;
+		this.traceSlots = slots;
+	}
+
+	/**
+	 * Write a record of every batch game played to the file
+	 */
+	public void setResults(File file, GameRecordWriter.Format format)
+	{
+		this.resultsFile = file;
+		this.resultsFormat = format;
+	}
+
+
+	/* Hangman words */
+
+	/**
+	 * Determines if any hangman words left to process
+	 * @return boolean if any words left
+	 */
+	public boolean anyHangmanWords()
+	{
+		return hangmanWords.size() > 0;
+	}
+
+	/**
+	 * @return Returns the number of hangman words to play
+	 */
+	public int getNumHangmans()
+	{
+		if(anyHangmanWords())
+		{
+			return hangmanWords.size();
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Add a new hangman word to the collection
+	 * @params String hangman word
+	 */
+	public void addHangmanWord(String word)
+	{
+		if(word != null) hangmanWords.add(word);
+	}
+
+	/**
+	 * @return The hangman words to play
+	 */
+	public List<String> getHangmanWords()
+	{
+		return hangmanWords;
+	}
+
+	/**
+	 * Reset collection of hangman words
+	 */
+	public void clearHangmanWords()
+	{
+		hangmanWords.clear();
+	}
+
+
+	/* Dictionary */
+
+	/**
+	 * @return The dictionary of the run, acquired from the
+	 * dictionary registry on first use
+	 */
+	public synchronized HangmanDictionary getHangmanDictionary()
+		throws IOException
+	{
+		if(null == this.hangmanDictionary)
+		{
+			this.hangmanDictionary = HangmanDictionary.acquire(dictionary);
+		}
+
+		return this.hangmanDictionary;
+	}
+
+	/**
+	 * Invoke scanner object from dictionary file object
+	 * @return Scanner object of dictionary
+	 */
+	public Scanner getDictionary() throws IOException
+	{
+		return getHangmanDictionary().scan();
+	}
+
+	/**
+	 * Release the dictionary of the run back to the registry
+	 */
+	public synchronized void releaseDictionary()
+	{
+		if(null != this.hangmanDictionary)
+		{
+			this.hangmanDictionary.release();
+			this.hangmanDictionary = null;
+		}
+	}
+
+
+	/* Stumpers */
+
+	/**
+	 * Turn on stumpers for the guessing strategy and load the
+	 * stumper words, unless we are initializing them
+	 */
+	public void prepareStumpers() throws IOException
+	{
+		this.useStumpers = true;
+
+		if(false == isInitStumpers()) loadStumpers();
+	}
+
+	/**
+	 * Load stumper words from HangmanUtil.STUMPERS_FILE_NAME file
+	 * and store into collection for easy lookup
+	 */
+	public synchronized void loadStumpers() throws IOException
+	{
+		Scanner input = null;
+
+		try
+		{
+			if(true == useStumpers && true == stumperWords.isEmpty())
+			{
+				File stumpers = new File(HangmanUtil.STUMPERS_FILE_NAME);
+
+				if(false == stumpers.exists())
+				{
+					throw new IOException("[Unable to load stumpers file\n"
+						+ "Please re-generate file for optimal results " +
+						"(see usage with -h)]");
+				}
+
+				input = new Scanner(stumpers);
+
+				//Lookups made before the stumpers were loaded
+				versionStumperMap.clear();
+
+				//Load words into hashset
+				while(input.hasNext())
+				{
+					//minimize local variable scope
+					String word = input.next();
+
+					stumperWords.add(word);
+
+					//Also index the stumper by its length
+					Set<String> lengthSet = stumperLengthMap.get(word.length());
+
+					if(null == lengthSet)
+					{
+						lengthSet = new HashSet<String>();
+						stumperLengthMap.put(word.length(), lengthSet);
+					}
+
+					lengthSet.add(word);
+				}
+
+				input.close();
+				input = null;
+
+				verbose2("Finished loading stumper words");
+			}
+		}
+		finally
+		{
+			if(null != input) input.close();
+		}
+	}
+
+	/**
+	 * @return If the word passed in is a stumper return true
+	 * @param String word to check for possible stumper quality
+	 */
+	public synchronized boolean isStumper(String word)
+	{
+		boolean valid = false;
+
+		if(null != word && false == stumperWords.isEmpty() &&
+			true == useStumpers)
+		{
+			valid = stumperWords.contains(word);
+		}
+
+		return valid;
+	}
+
+	/**
+	 * @return The stumper words of the given word length, or an empty
+	 * set if we are not using stumpers or there are none of that length
+	 * @param int word length of the stumpers to look up
+	 */
+	public synchronized Set<String> getStumperWords(int length)
+	{
+		Set<String> words = null;
+
+		if(true == useStumpers)
+		{
+			words = stumperLengthMap.get(length);
+		}
+
+		if(null == words)
+		{
+			return Collections.<String>emptySet();
+		}
+
+		return Collections.unmodifiableSet(words);
+	}
+
+	/**
+	 * Reset collection of stumper words
+	 */
+	public synchronized void clearStumperWords()
+	{
+		stumperWords.clear();
+		stumperLengthMap.clear();
+		versionStumperMap.clear();
+	}
+
+	/**
+	 * @return The stumper words of the given word length that are in
+	 * the dictionary version, empty if we are not using stumpers
+	 * @param int word length of the stumpers to look up
+	 * @param HangmanDictionary.Version the words are played from
+	 */
+	public Set<String> getStumperWords(int length, 
+		HangmanDictionary.Version version)
+	{
+		//Loaded outside the lock, it may take a while
+		Set<String> words = version.getWords(length);
+
+		synchronized(this)
+		{
+			if(version != this.stumperVersion)
+			{
+				versionStumperMap.clear();
+				this.stumperVersion = version;
+			}
+
+			Set<String> stumpers = versionStumperMap.get(length);
+
+			if(stumpers == null)
+			{
+				stumpers = new HashSet<String>();
+
+				for(String stumper: getStumperWords(length))
+				{
+					if(words.contains(stumper)) stumpers.add(stumper);
+				}
+
+				stumpers = Collections.unmodifiableSet(stumpers);
+
+				//Stumpers may be turned on later
+				if(true == useStumpers)
+				{
+					versionStumperMap.put(length, stumpers);
+				}
+			}
+
+			return stumpers;
+		}
+	}
+
+	/**
+	 * Drop the stumper words of the given length looked up for the
+	 * dictionary version, to be looked up again on next use
+	 */
+	public synchronized void releaseStumperWords(int length)
+	{
+		versionStumperMap.remove(length);
+	}
+
+
+	/* Batch counters */
+
+	/**
+	 * Count a finished batch game and its score
+	 */
+	public void addBatchScore(int score)
+	{
+		batchWordsCount.incrementAndGet();
+		batchScoreCount.addAndGet(score);
+	}
+
+	/**
+	 * @return The number of batch games counted
+	 */
+	public int getBatchWordsCount()
+	{
+		return batchWordsCount.get();
+	}
+
+	/**
+	 * @return The sum of the scores of the batch games counted
+	 */
+	public int getBatchScoreCount()
+	{
+		return batchScoreCount.get();
+	}
+
+
+	/* Trace and results files */
+
+	/**
+	 * @return The boolean flag indicating if the games played
+	 * are traced guess by guess
+	 */
+	public boolean isTracing()
+	{
+		return null != traceFile;
+	}
+
+	/**
+	 * Record the trace of a finished game in the trace file,
+	 * creating the file with the first game
+	 */
+	public synchronized void trace(GuessTrace trace)
+	{
+		if(true == this.holding)
+		{
+			this.heldTraces.add(trace);
+			return;
+		}
+
+		try
+		{
+			if(null == this.traceWriter)
+			{
+				this.traceWriter = new GuessTraceFile(traceFile, traceSlots);
+			}
+
+			this.traceWriter.write(trace);
+		}
+		catch(Exception e)
+		{
+			System.err.println("Exception: " + e);
+		}
+	}
+
+	/**
+	 * Flush and close the guess trace file, if any
+	 */
+	public synchronized void closeTrace()
+	{
+		try
+		{
+			if(null != this.traceWriter)
+			{
+				this.traceWriter.close();
+
+				clock(false, "Traced " + this.traceWriter.getNumGames()
+					+ " games to " + traceFile + ", keeping the last "
+					+ this.traceWriter.getNumSlots());
+			}
+		}
+		catch(IOException e)
+		{
+			System.err.println("Exception: " + e);
+		}
+		finally
+		{
+			this.traceWriter = null;
+		}
+	}
+
+	/**
+	 * Set the file caching batch game results across runs
+	 */
+	public void setResultCache(File file)
+	{
+		this.resultCacheFile = file;
+	}
+
+	/**
+	 * Load the batch game results cache, if one was asked for,
+	 * keeping only results of the same fingerprint
+	 */
+	public synchronized void openResultCache() throws IOException
+	{
+		if(null != resultCacheFile && true == isWatchingDictionary())
+		{
+			throw new IOException("The result cache " + resultCacheFile
+				+ " can't be used with -watch, whose reloaded dictionary "
+				+ "would invalidate it");
+		}
+
+		if(null != resultCacheFile && null == this.resultCache)
+		{
+			this.resultCache = new HangmanResultCache(resultCacheFile,
+				HangmanResultCache.fingerprint(this));
+		}
+	}
+
+	/**
+	 * @return The batch game results cache, null if not open
+	 */
+	public synchronized HangmanResultCache getResultCache()
+	{
+		return this.resultCache;
+	}
+
+	/**
+	 * Save and close the batch game results cache, if any
+	 */
+	public synchronized void closeResultCache()
+	{
+		try
+		{
+			if(null != this.resultCache)
+			{
+				this.resultCache.save();
+
+				clock(false, this.resultCache.toString());
+			}
+		}
+		catch(IOException e)
+		{
+			System.err.println("Exception: " + e);
+		}
+		finally
+		{
+			this.resultCache = null;
+		}
+	}
+
+	/**
+	 * Open the per game results file, if one was asked for
+	 */
+	public synchronized void openResults() throws IOException
+	{
+		if(null != resultsFile && null == this.resultsWriter)
+		{
+			this.resultsWriter = new GameRecordWriter(resultsFile,
+				resultsFormat);
+		}
+	}
+
+	/**
+	 * @return true if the per game results file is open
+	 */
+	public synchronized boolean isRecordingResults()
+	{
+		return null != this.resultsWriter;
+	}
+
+	/**
+	 * Write the record of a game to the results file, if open
+	 */
+	public synchronized void record(PlayHangman play) throws IOException
+	{
+		if(null != this.resultsWriter)
+		{
+			record(play.record());
+		}
+	}
+
+	/**
+	 * Write the game record to the results file, if open
+	 */
+	public synchronized void record(GameRecord record) throws IOException
+	{
+		if(true == this.holding)
+		{
+			this.heldRecords.add(record);
+		}
+		else if(null != this.resultsWriter)
+		{
+			this.resultsWriter.write(record);
+		}
+	}
+
+	/**
+	 * Hold back the traces and records of the games played from now
+	 * on instead of writing them, or write them again
+	 * @param boolean flag to hold them back
+	 */
+	public synchronized void setHolding(boolean holding)
+	{
+		this.holding = holding;
+	}
+
+	/**
+	 * @return The traces held back since the last call, in the 
+	 * order the games finished
+	 */
+	public synchronized List<GuessTrace> takeHeldTraces()
+	{
+		List<GuessTrace> traces = new ArrayList<GuessTrace>(heldTraces);
+		heldTraces.clear();
+
+		return traces;
+	}
+
+	/**
+	 * @return The records held back since the last call, in the
+	 * order the games finished
+	 */
+	public synchronized List<GameRecord> takeHeldRecords()
+	{
+		List<GameRecord> records = new ArrayList<GameRecord>(heldRecords);
+		heldRecords.clear();
+
+		return records;
+	}
+
+	/**
+	 * Flush and close the per game results file, if any
+	 */
+	public synchronized void closeResults()
+	{
+		try
+		{
+			if(null != this.resultsWriter)
+			{
+				this.resultsWriter.close();
+
+				clock(false, "Wrote " + this.resultsWriter.getNumRecords()
+					+ " game records to " + resultsFile);
+			}
+		}
+		catch(IOException e)
+		{
+			System.err.println("Exception: " + e);
+		}
+		finally
+		{
+			this.resultsWriter = null;
+		}
+	}
+
+
+	/* Display output */
+
+	/**
+	 * Print display and clock output to the stream instead of 
+	 * standard output
+	 * @param PrintStream output
+	 */
+	public void setOutput(PrintStream output)
+	{
+		if(output == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		this.output = output;
+	}
+
+	/**
+	 * @return The stream display and clock output is printed to
+	 */
+	public PrintStream getOutput()
+	{
+		return this.output;
+	}
+
+	/**
+	 * Print the errors of the games of the run to the stream instead
+	 * of standard error
+	 * @param PrintStream errors
+	 */
+	public void setErrors(PrintStream errors)
+	{
+		if(errors == null)
+		{
+			throw new IllegalArgumentException("input parameter(s) "
+				+ "can't be null");
+		}
+
+		this.errors = errors;
+	}
+
+	/**
+	 * @return The stream the errors of the games of the run are
+	 * printed to
+	 */
+	public PrintStream getErrors()
+	{
+		return this.errors;
+	}
+
+	/**
+	 * Mark the run as a daemon client's request, see HangmanDaemon
+	 */
+	public void setClientRequest(boolean request)
+	{
+		this.clientRequest = request;
+	}
+
+	/**
+	 * @return true if the run is a daemon client's request, which
+	 * must not stop the JVM when it fails
+	 */
+	public boolean isClientRequest()
+	{
+		return this.clientRequest;
+	}
+
+	/**
+	 * Output method to display terse comments given
+	 * the display output level is TERSE or more expressive
+	 * @param String message to print
+ 	 */
+	public void terse(String s)
+	{
+		if(isValidLevel(HangmanUtil.DisplayLevel.TERSE))
+		{
+			this.output.println(s);
+		}
+	}
+
+	/**
+	 * Output method to display new line given
+	 * the display output level is TERSE or more expressive
+ 	 */
+	public void terse()
+	{
+		if(isValidLevel(HangmanUtil.DisplayLevel.TERSE))
+		{
+			this.output.println("");
+		}
+	}
+
+	/**
+	 * Output method to display less terse comments given
+	 * the display output level is LESS_TERSE or more expressive
+	 * @param String message to print
+ 	 */
+	public void lessterse(String s)
+	{
+		if(isValidLevel(HangmanUtil.DisplayLevel.LESS_TERSE))
+		{
+			this.output.println(s);
+		}
+	}
+
+	/**
+	 * Output method to display new line given
+	 * the display output level is VERBOSE or more expressive
+ 	 */
+	public void verbose()
+	{
+		if(isValidLevel(HangmanUtil.DisplayLevel.VERBOSE))
+		{
+			this.output.println("");
+		}
+	}
+
+	/**
+	 * Output method to display verbose comments given
+	 * the display output level is VERBOSE or more expressive
+	 * @param String message to print
+ 	 */
+	public void verbose(String s)
+	{
+		if(isValidLevel(HangmanUtil.DisplayLevel.VERBOSE))
+		{
+			this.output.println("[H_] " + s);
+		}
+	}
+
+	/**
+	 * Output method to display verbose comments given
+	 * the display output level is VERBOSE or more expressive
+	 * @param boolean flag to indicate whether to print the standard header
+	 * 					preceding the string message
+	 * @param String message to print
+ 	 */
+	public void verbose(boolean header, String s)
+	{
+		if(isValidLevel(HangmanUtil.DisplayLevel.VERBOSE))
+		{
+			if(!header)
+			{
+				this.output.println(s);
+			}
+			else
+			{
+				verbose(s);
+			}
+		}
+	}
+
+	/**
+	 * Output method to display more verbose comments given
+	 * the display output level is MORE_VERBOSE or more expressive
+	 * @param String message to print
+ 	 */
+	public void verbose2(String s)
+	{
+		if(isValidLevel(HangmanUtil.DisplayLevel.MORE_VERBOSE))
+		{
+			this.output.println("[H_] " + s);
+		}
+	}
+
+	/**
+	 * Output method to display debug comments given
+	 * the display output level is DEBUG or more expressive
+	 * @param String message to print
+ 	 */
+	public void debug(String s)
+	{
+		if(isValidLevel(HangmanUtil.DisplayLevel.DEBUG))
+		{
+			this.output.println("[DBG] " + s);
+		}
+	}
+
+	/**
+	 * Output method to display bulk processing comments given
+	 * we are initializing stumpers or running a batch file of words
+	 * @param String message to print
+ 	 */
+	public void bulk(String s)
+	{
+		if(true == isInitStumpers() || true == useBatchWords())
+		{
+			this.output.println(s);
+		}
+	}
+
+
+	/* Clocks */
+
+	/**
+	 * Output method to capture timing info in milliseconds
+	 * and also display clock comment given the clock level
+	 * is CLOCK, see HangmanUtil.clock(String)
+	 * @param boolean flag to indicate whether to print the standard clock
+	 * 					information header or just the string message
+	 * @param String message to print
+	 * @return long value of elapsed time from first time called
+ 	 */
+	public long clock(boolean normal, String msg)
+	{
+		long value = 0;
+
+		if(isValidLevel(HangmanUtil.ClockLevel.CLOCK))
+		{
+			if(normal == false)
+			{
+				this.output.println("[CLK] " + msg);
+			}
+			else
+			{
+				value = clock(msg);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Output method to capture timing info in milliseconds
+	 * and also display clock comment given the clock level
+	 * is CLOCK, see HangmanUtil.clock(String)
+	 * @param String message to print
+	 * @return long value of elapsed time from first time called
+ 	 */
+	public long clock(String msg)
+	{
+		if(isValidLevel(HangmanUtil.ClockLevel.CLOCK))
+		{
+			return tick("[CLK]", msg);
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Output method to capture timing info in milliseconds
+	 * and also display clock comment given the clock level
+	 * is CLOCK2, see HangmanUtil.clock2(String)
+	 * @param String message to print
+	 * @return long value of elapsed time from first time called
+ 	 */
+	public long clock2(String msg)
+	{
+		if(isValidLevel(HangmanUtil.ClockLevel.CLOCK2))
+		{
+			return tick("[CLK2]", msg);
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Print the clock line and advance the clock
+	 * @return long value of elapsed time from first time called
+	 */
+	private synchronized long tick(String label, String msg)
+	{
+		long diffFromStart = 0;
+
+		long now = System.currentTimeMillis();
+
+		if(this.lastClockTime != -1)
+		{
+			long diff = now - this.lastClockTime;
+			diffFromStart = now - this.startClockTime;
+
+			this.output.println(label + "[" + this.clockCounter++
+				+ "][" + now + "][" + diffFromStart + "]["
+				+ diff + "] " + msg);
+		}
+		else
+		{
+			this.startClockTime = now;
+			this.output.println(label + "[" + this.clockCounter++
+				+ "][" + now + "] " + msg);
+		}
+
+		this.lastClockTime = now;
+
+		return diffFromStart;
+	}
+}
@@ -0,0 +1,81 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/***
+ Round trip test of binary results files.
+
+ Records written by GameRecordWriter in the binary format must read
+ back unchanged, including the -1 score of an unfinished game and
+ scores that don't fit a byte.
+
+ Run from the project directory, with the classes compiled to out:
+
+	javac -d out *.java test/*.java
+	java -cp out GameRecordRoundTripTest
+***/
+
+public class GameRecordRoundTripTest
+{
+	public static void main(String[] args) throws IOException
+	{
+		GameRecord[] written = new GameRecord[]{
+			new GameRecord("comaker", 25, 11, 5, 278217372L,
+				new int[]{23208, 4744, 2252, 647, 273, 12, 6, 3, 1, -1, -1}),
+			new GameRecord("mississippi", -1, 0, 0, 0L, new int[0]),
+			new GameRecord("jazz", 300, 120, 115, 1L, new int[]{-1})};
+
+		File file = File.createTempFile("hangman-results", ".bin");
+
+		int failures = 0;
+
+		try
+		{
+			GameRecordWriter writer = new GameRecordWriter(file,
+				GameRecordWriter.Format.BINARY);
+
+			try
+			{
+				for(GameRecord record: written)
+				{
+					writer.write(record);
+				}
+			}
+			finally
+			{
+				writer.close();
+			}
+
+			List<GameRecord> read = GameRecordWriter.read(file);
+
+			if(read.size() != written.length)
+			{
+				System.out.println("FAIL read " + read.size() + " records, "
+					+ "wrote " + written.length);
+
+				failures++;
+			}
+
+			for(int i=0; i<Math.min(read.size(), written.length); i++)
+			{
+				if(false == read.get(i).toString().equals(
+					written[i].toString()))
+				{
+					System.out.println("FAIL wrote " + written[i] + ", read "
+						+ read.get(i));
+
+					failures++;
+				}
+			}
+		}
+		finally
+		{
+			file.delete();
+		}
+
+		System.out.println(written.length + " records, " + failures
+			+ " failures");
+
+		if(failures > 0) System.exit(1);
+	}
+}
@@ -0,0 +1,124 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/***
+ Test of the warm daemon surviving a failed request.
+
+ A request naming a dictionary that doesn't exist must be answered
+ with the error and a failed exit status, and the daemon must go on
+ to play the next request.
+
+ Run from the project directory, with the classes compiled to out:
+
+	javac -d out *.java test/*.java
+	java -cp out HangmanDaemonTest
+***/
+
+public class HangmanDaemonTest
+{
+	private static final String DICTIONARY_FILE_NAME = "words.txt";
+
+	//Longest wait for the daemon to load the dictionary and listen
+	private static final long START_MILLIS = 60000;
+
+	private static final File SOCKET = new File(
+		System.getProperty("java.io.tmpdir"),
+		"hangman-test-" + ProcessHandle.current().pid() + ".sock");
+
+	private static int failures = 0;
+
+
+	public static void main(String[] args) throws Exception
+	{
+		Thread daemon = new Thread()
+		{
+			public void run()
+			{
+				try
+				{
+					HangmanDaemon.serve(SOCKET,
+						new File(DICTIONARY_FILE_NAME),
+						new ArrayList<String>());
+				}
+				catch(IOException e)
+				{
+					System.err.println("Exception: " + e);
+				}
+			}
+		};
+
+		daemon.setDaemon(true);
+		daemon.start();
+
+		long deadline = System.currentTimeMillis() + START_MILLIS;
+
+		while(false == SOCKET.exists())
+		{
+			if(System.currentTimeMillis() > deadline)
+			{
+				System.out.println("FAIL daemon didn't start on " + SOCKET);
+				System.exit(1);
+			}
+
+			Thread.sleep(100);
+		}
+
+		HangmanDaemonTest.request(Arrays.asList("-f",
+			"no-such-dictionary.txt", "comaker"), false,
+			"Unable to load dictionary");
+
+		HangmanDaemonTest.request(Arrays.asList("comaker"), true,
+			"COMAKER; score=8; status=GAME_WON");
+
+		System.out.println("2 requests, " + failures + " failures");
+
+		System.exit(failures > 0 ? 1 : 0);
+	}
+
+	/**
+	 * Send the request through the client and check its reply
+	 */
+	private static void request(List<String> args, boolean succeeds,
+		String expected) throws IOException
+	{
+		ByteArrayOutputStream reply = new ByteArrayOutputStream();
+
+		PrintStream stdout = System.out;
+
+		System.setOut(new PrintStream(reply, true, "UTF-8"));
+
+		boolean succeeded;
+
+		try
+		{
+			succeeded = HangmanDaemon.client(SOCKET, args);
+		}
+		finally
+		{
+			System.setOut(stdout);
+		}
+
+		String text = reply.toString("UTF-8");
+
+		if(succeeded != succeeds)
+		{
+			System.out.println("FAIL " + args + ": client returned "
+				+ succeeded);
+
+			failures++;
+		}
+
+		if(false == text.contains(expected))
+		{
+			System.out.println("FAIL " + args + ": reply doesn't contain \""
+				+ expected + "\":\n" + text);
+
+			failures++;
+		}
+	}
+}
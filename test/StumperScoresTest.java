@@ -0,0 +1,90 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+/***
+ Regression test of the scores of games played with stumpers, which
+ are on for single, multi-word and batch runs.
+
+ Letters the stumper words tie on are ranked by the order they are met
+ in the stumper subset, so a change to how the subset is built or kept
+ changes scores without failing anything else.  stumper-scores.txt
+ holds the scores of the original strategy, as written by
+
+	java PlayHangman -f words.txt -batch words.txt
+
+ for the words that changed score before, followed by a sample of 1000
+ words of stumpers.txt.  Every word must still score the same.
+
+ Run from the project directory, with the classes compiled to out:
+
+	javac -d out *.java test/*.java
+	java -cp out StumperScoresTest
+***/
+
+public class StumperScoresTest
+{
+	private static final String SCORES_FILE_NAME = "test/stumper-scores.txt";
+
+	private static final String DICTIONARY_FILE_NAME = "words.txt";
+
+
+	public static void main(String[] args) throws IOException
+	{
+		RunContext context = new RunContext();
+
+		context.setDictionary(new File(DICTIONARY_FILE_NAME));
+		context.clearPrintFlags();
+		context.prepareStumpers();
+
+		int games = 0;
+		int failures = 0;
+
+		BufferedReader input =
+			new BufferedReader(new FileReader(SCORES_FILE_NAME));
+
+		try
+		{
+			String line;
+
+			while(null != (line = input.readLine()))
+			{
+				int colon = line.indexOf(": ");
+
+				if(colon < 0) continue;
+
+				String word = line.substring(0, colon).toLowerCase();
+				int expected = Integer.parseInt(line.substring(colon + 2));
+
+				PlayHangman play = PlayHangman.newInstance(context);
+
+				play.init(word);
+
+				int score = play.run();
+
+				play.end();
+
+				games++;
+
+				if(score != expected)
+				{
+					System.out.println("FAIL " + word.toUpperCase()
+						+ ": expected " + expected + ", scored " + score);
+
+					failures++;
+				}
+			}
+		}
+		finally
+		{
+			input.close();
+
+			context.releaseDictionary();
+		}
+
+		System.out.println(games + " games, " + failures + " failures");
+
+		if(failures > 0 || games == 0) System.exit(1);
+	}
+}